@@ -0,0 +1,27 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Запуск JMH, который по умолчанию пишет результаты в jmh-result.json, чтобы их можно было сравнивать
+ * между коммитами. Остальные аргументы передаются JMH как есть, например: -prof gc ProjectionBenchmark.
+ */
+public final class BenchmarkMain {
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        if (!arguments.contains("-rf")) {
+            arguments.addAll(List.of("-rf", "json"));
+        }
+        if (!arguments.contains("-rff")) {
+            arguments.addAll(List.of("-rff", "jmh-result.json"));
+        }
+        Main.main(arguments.toArray(new String[0]));
+    }
+}
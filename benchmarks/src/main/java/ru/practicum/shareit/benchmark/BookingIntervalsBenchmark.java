@@ -0,0 +1,99 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingAvailabilityServiceImpl;
+import ru.practicum.shareit.booking.service.BookingIntervals;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Индекс занятости вещи с большим числом бронирований: проверка пересечения, вставка с удалением
+ * при отклонении и очистка закончившихся интервалов. Бронирования идут подряд по часу с часовым
+ * промежутком, запросы попадают то в бронирование, то в промежуток.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingIntervalsBenchmark {
+    private static final long HOUR = TimeUnit.HOURS.toNanos(1);
+    private static final long ITEM_ID = 1L;
+
+    @Param({"1000", "10000"})
+    public int bookings;
+
+    private final LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private final Item item = new Item(ITEM_ID, "Poke Ball", "The Poke Ball is a sphere", true, null, null);
+    private BookingIntervals intervals;
+    private BookingAvailabilityServiceImpl availabilityService;
+    private long origin;
+
+    @Setup
+    public void setUp() {
+        intervals = new BookingIntervals();
+        // прогрев из БД не вызывается, репозиторий не нужен
+        availabilityService = new BookingAvailabilityServiceImpl(null);
+        origin = BookingIntervals.toEpochNanos(from);
+        for (long i = 0; i < bookings; i++) {
+            intervals.add(i, start(i), start(i) + HOUR);
+            availabilityService.reserve(new Booking(i, from.plusHours(i * 2), from.plusHours(i * 2 + 1), item, null,
+                    BookingStatus.APPROVED));
+        }
+    }
+
+    @Benchmark
+    public boolean overlaps() {
+        long start = origin + ThreadLocalRandom.current().nextLong(bookings * 2L) * HOUR;
+        return intervals.overlaps(start, start + HOUR);
+    }
+
+    @Benchmark
+    public boolean isAvailable() {
+        LocalDateTime start = from.plusHours(ThreadLocalRandom.current().nextLong(bookings * 2L));
+        return availabilityService.isAvailable(ITEM_ID, start, start.plusHours(1));
+    }
+
+    /**
+     * Бронь в свободный промежуток и её отклонение: вставка и удаление из середины массивов.
+     */
+    @Benchmark
+    public boolean addIfFreeAndRemove() {
+        long gap = start(ThreadLocalRandom.current().nextLong(bookings)) + HOUR;
+        intervals.addIfFree(-1L, gap, gap + HOUR);
+        return intervals.remove(-1L, gap);
+    }
+
+    /**
+     * Очистка вещи, у которой закончилась половина бронирований; состояние восстанавливается перед каждым вызовом.
+     */
+    @Benchmark
+    public int removeEndedBefore(Half half) {
+        return half.intervals.removeEndedBefore(half.moment);
+    }
+
+    private long start(long i) {
+        return origin + i * 2 * HOUR;
+    }
+
+    @State(Scope.Thread)
+    public static class Half {
+        private BookingIntervals intervals;
+        private long moment;
+
+        @Setup(Level.Invocation)
+        public void setUp(BookingIntervalsBenchmark benchmark) {
+            intervals = new BookingIntervals();
+            for (long i = 0; i < benchmark.bookings; i++) {
+                intervals.add(i, benchmark.start(i), benchmark.start(i) + HOUR);
+            }
+            moment = benchmark.start(benchmark.bookings / 2L);
+        }
+    }
+}
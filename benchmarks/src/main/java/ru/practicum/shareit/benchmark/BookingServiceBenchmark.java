@@ -0,0 +1,87 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static ru.practicum.shareit.benchmark.SeededServer.HEAVY_BOOKER;
+import static ru.practicum.shareit.benchmark.SeededServer.OWNER;
+
+/**
+ * Списки бронирований по состояниям и глубокие страницы: OFFSET против курсора по (start, id).
+ * У {@link SeededServer#HEAVY_BOOKER} около 50 тысяч бронирований.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingServiceBenchmark {
+    private static final int PAGE = 20;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+
+    @Setup
+    public void setUp() {
+        context = SeededServer.start();
+        bookingService = context.getBean(BookingService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingDto> bookerFirstPage(StateParam state) {
+        return bookingService.getBooking(state.value, HEAVY_BOOKER, 0, PAGE);
+    }
+
+    @Benchmark
+    public List<BookingDto> ownerFirstPage(StateParam state) {
+        return bookingService.ownerItemsBookingLists(state.value, OWNER, 0, PAGE);
+    }
+
+    @Benchmark
+    public List<BookingDto> deepPageOffset(Depth depth) {
+        return bookingService.getBooking("ALL", HEAVY_BOOKER, depth.value, PAGE);
+    }
+
+    @Benchmark
+    public List<BookingDto> deepPageCursor(Depth depth) {
+        return bookingService.getBookingAfter("ALL", HEAVY_BOOKER, depth.cursor, PAGE);
+    }
+
+    @State(Scope.Benchmark)
+    public static class StateParam {
+        @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+        public String value;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Depth {
+        @Param({"0", "1000", "20000"})
+        public int value;
+
+        BookingCursor cursor;
+
+        /**
+         * Курсор, указывающий на ту же страницу, что и OFFSET {@link #value}.
+         */
+        @Setup
+        public void setUp(BookingServiceBenchmark benchmark) {
+            if (value == 0) {
+                return;
+            }
+            List<BookingDto> previous = benchmark.bookingService.getBooking("ALL", HEAVY_BOOKER, value - 1, 1);
+            cursor = BookingCursor.after(previous.get(0));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingArchiveJobs;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static ru.practicum.shareit.benchmark.SeededServer.AVAILABLE_ITEMS_PER_USER;
+import static ru.practicum.shareit.benchmark.SeededServer.BASE;
+import static ru.practicum.shareit.benchmark.SeededServer.FIRST_ITEM;
+import static ru.practicum.shareit.benchmark.SeededServer.HEAVY_BOOKER;
+import static ru.practicum.shareit.benchmark.SeededServer.ITEMS_PER_USER;
+import static ru.practicum.shareit.benchmark.SeededServer.OWNER;
+import static ru.practicum.shareit.benchmark.SeededServer.USERS;
+
+/**
+ * CURRENT и FUTURE при росте истории: к обычным данным добавляются бронирования старше горизонта архивации,
+ * половина из них у {@link SeededServer#HEAVY_BOOKER} и на вещах {@link SeededServer#OWNER}.
+ * С {@code archived=true} они перед замером переносятся в bookings_archive.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HistoryGrowthBenchmark {
+    private static final int PAGE = 20;
+    private static final int BATCH = 5_000;
+    private static final long HISTORY_BASE = 2 * BASE;
+
+    @Param({"2000", "200000"})
+    public int history;
+
+    @Param({"false", "true"})
+    public boolean archived;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+
+    @Setup
+    public void setUp() {
+        context = SeededServer.start();
+        bookingService = context.getBean(BookingService.class);
+        addHistory(context.getBean(JdbcTemplate.class));
+        if (archived) {
+            context.getBean(BookingArchiveJobs.class).archive();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingDto> bookerCurrent() {
+        return bookingService.getBooking("CURRENT", HEAVY_BOOKER, 0, PAGE);
+    }
+
+    @Benchmark
+    public List<BookingDto> bookerFuture() {
+        return bookingService.getBooking("FUTURE", HEAVY_BOOKER, 0, PAGE);
+    }
+
+    @Benchmark
+    public List<BookingDto> ownerCurrent() {
+        return bookingService.ownerItemsBookingLists("CURRENT", OWNER, 0, PAGE);
+    }
+
+    @Benchmark
+    public List<BookingDto> ownerFuture() {
+        return bookingService.ownerItemsBookingLists("FUTURE", OWNER, 0, PAGE);
+    }
+
+    /**
+     * Бронирования, закончившиеся от двух до пяти лет назад: чётные у тяжёлого арендатора на вещах владельца,
+     * нечётные у остальных пользователей на остальных вещах.
+     */
+    private void addHistory(JdbcTemplate jdbcTemplate) {
+        LocalDateTime from = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).minusYears(5);
+        List<Object[]> rows = new ArrayList<>(BATCH);
+        for (int b = 0; b < history; b++) {
+            long item;
+            long booker;
+            if (b % 2 == 0) {
+                item = FIRST_ITEM + b / 2 % AVAILABLE_ITEMS_PER_USER;
+                booker = HEAVY_BOOKER;
+            } else {
+                item = FIRST_ITEM + ITEMS_PER_USER + b % ((USERS - 1) * ITEMS_PER_USER);
+                booker = BASE + 2 + b % (USERS - 2);
+            }
+            LocalDateTime start = from.plusMinutes(b * 7L % (3 * 365 * 24 * 60));
+            rows.add(new Object[]{HISTORY_BASE + b, Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(1)),
+                    item, booker, BookingStatus.APPROVED.name()});
+            if (rows.size() == BATCH || b == history - 1) {
+                jdbcTemplate.batchUpdate("insert into bookings (id, start_date, end_date, item_id, booker_id, " +
+                        "status) values (?, ?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+    }
+}
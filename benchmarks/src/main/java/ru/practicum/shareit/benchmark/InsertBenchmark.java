@@ -0,0 +1,98 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static ru.practicum.shareit.benchmark.SeededServer.*;
+
+/**
+ * Вставка по одной строке и пачкой через /items/batch и /bookings/batch.
+ * Результат в строках в секунду: одна операция JMH — одна строка.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBenchmark {
+    private static final int ROWS = 100;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private BookingService bookingService;
+    private LocalDateTime nextStart;
+
+    @Setup
+    public void setUp() {
+        context = SeededServer.start();
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+        nextStart = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusYears(1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void itemsOneByOne() {
+        for (ItemDto item : items()) {
+            itemService.addItem(OWNER, item);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<ItemDto> itemsBatch() {
+        return itemService.addItems(OWNER, items());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void bookingsOneByOne() {
+        for (BookItemRequestDto booking : bookings()) {
+            bookingService.addBooking(HEAVY_BOOKER, booking);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public Object bookingsBatch() {
+        return bookingService.addBookings(HEAVY_BOOKER, bookings());
+    }
+
+    private static List<ItemDto> items() {
+        List<ItemDto> items = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            items.add(ItemDto.builder().name("item " + i).description("bulk item " + i).available(true).build());
+        }
+        return items;
+    }
+
+    // каждая бронь занимает свой час, чтобы бронирования не пересекались ни между собой, ни с прошлыми вызовами
+    private List<BookItemRequestDto> bookings() {
+        List<BookItemRequestDto> bookings = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            bookings.add(BookItemRequestDto.builder()
+                    .itemId(FIRST_ITEM + i % AVAILABLE_ITEMS_PER_USER)
+                    .start(nextStart)
+                    .end(nextStart.plusMinutes(30))
+                    .build());
+            nextStart = nextStart.plusHours(1);
+        }
+        return bookings;
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.dao.BookingHistoryRepository;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemsDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static ru.practicum.shareit.benchmark.SeededServer.*;
+
+/**
+ * Чтение вещей и запросов через сервисы на заполненной H2. Отдельно замеряется пересчёт последнего
+ * и ближайшего бронирования для страницы вещей владельца по таблице бронирований: два запроса на вещь,
+ * как при сверке сводки.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemServiceBenchmark {
+    private static final PageRequest FIRST = PageRequest.of(0, 1);
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private ItemRequestService itemRequestService;
+    private BookingHistoryRepository historyRepository;
+    private final List<Long> ownerItems = LongStream.range(FIRST_ITEM, FIRST_ITEM + ITEMS_PER_USER)
+            .boxed()
+            .collect(Collectors.toList());
+
+    @Setup
+    public void setUp() {
+        context = SeededServer.start();
+        itemService = context.getBean(ItemService.class);
+        itemRequestService = context.getBean(ItemRequestService.class);
+        historyRepository = context.getBean(BookingHistoryRepository.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ItemsDto getItemByOwner() {
+        return itemService.getItem(FIRST_ITEM, OWNER);
+    }
+
+    @Benchmark
+    public ItemsDto getItemByOtherUser() {
+        return itemService.getItem(FIRST_ITEM, HEAVY_BOOKER);
+    }
+
+    @Benchmark
+    public List<ItemsDto> getItemsOwner() {
+        return itemService.getItemsOwner(OWNER, 0, ITEMS_PER_USER);
+    }
+
+    @Benchmark
+    public List<ItemRequestDto> getAllRequests() {
+        return itemRequestService.getAllRequest(OWNER, 0, 20);
+    }
+
+    @Benchmark
+    public List<BookingShortDto> lastAndNextPerItem() {
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingShortDto> bookings = new ArrayList<>();
+        for (Long itemId : ownerItems) {
+            bookings.addAll(historyRepository.findLastBooking(itemId, BookingStatus.APPROVED, now, FIRST));
+            bookings.addAll(historyRepository.findNextBooking(itemId, BookingStatus.APPROVED, now, FIRST));
+        }
+        return bookings;
+    }
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemsDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразования без базы: мапперы, разбор состояния бронирования и сборка ItemsDto
+ * в {@link ItemServiceImpl#addBookingAndComment}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private final LocalDateTime now = LocalDateTime.now();
+    private final User owner = new User(1L, "Ash", "ash@bench.com");
+    private final User booker = new User(2L, "Misty", "misty@bench.com");
+    private final Item item = new Item(1L, "Poke Ball", "The Poke Ball is a sphere", true, owner, null);
+    private final Booking booking = new Booking(1L, now.minusDays(1), now.plusDays(1), item, booker,
+            BookingStatus.APPROVED);
+    private final List<Comment> comments = new ArrayList<>();
+    private final List<BookingShortDto> bookings = new ArrayList<>();
+    private ItemServiceImpl itemService;
+
+    @Setup
+    public void setUp() {
+        for (long i = 0; i < 10; i++) {
+            comments.add(new Comment(i, "comment " + i, item, booker, now.minusHours(i)));
+            bookings.add(new BookingShortDto(item.getId(), i, booker.getId(), now.plusDays(i - 5),
+                    now.plusDays(i - 4)));
+        }
+        // addBookingAndComment не обращается к репозиториям
+        itemService = new ItemServiceImpl(null, null, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public ItemDto itemToDto() {
+        return ItemMapper.toItemDto(item);
+    }
+
+    @Benchmark
+    public BookingDto bookingToDto() {
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    @Benchmark
+    public CommentDto commentToDto() {
+        return CommentMapper.toCommentDto(comments.get(0));
+    }
+
+    @Benchmark
+    public Object parseState(StateText text) {
+        try {
+            return BookingState.getStateFromText(text.value);
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public ItemsDto addBookingAndCommentOwner() {
+        return itemService.addBookingAndComment(item, owner.getId(), comments, bookings, now);
+    }
+
+    @Benchmark
+    public ItemsDto addBookingAndCommentOtherUser() {
+        return itemService.addBookingAndComment(item, booker.getId(), comments, bookings, now);
+    }
+
+    /**
+     * Неизвестное состояние заканчивается исключением, поэтому меряется отдельно.
+     */
+    @State(Scope.Benchmark)
+    public static class StateText {
+        @Param({"ALL", "REJECTED", "UNSUPPORTED"})
+        public String value;
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.benchmark;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemsDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static ru.practicum.shareit.benchmark.SeededServer.*;
+
+/**
+ * Цена таймеров сервисов и репозиториев: те же вызовы с метриками и без них.
+ * timerOnly вызывает через прокси сервиса заглушку без транзакции и базы и показывает цену самого таймера,
+ * emptySearch, getItem и bookerPage - её долю в настоящих вызовах.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private BookingService bookingService;
+    private ItemService timedStub;
+
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    @Setup
+    public void setUp() {
+        context = SeededServer.start(
+                "shareit.metrics.services.enabled=" + metrics,
+                "management.metrics.data.repository.autotime.enabled=" + metrics);
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+        ProxyFactory proxy = new ProxyFactory();
+        proxy.addInterface(ItemService.class);
+        if (metrics) {
+            proxy.addAdvice(context.getBean("serviceTimingAdvisor", Advisor.class).getAdvice());
+        }
+        proxy.addAdvice((MethodInterceptor) invocation -> List.of());
+        timedStub = (ItemService) proxy.getProxy();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDto> timerOnly() {
+        return timedStub.getItemsText(SEARCH_TEXT, 0, 20);
+    }
+
+    @Benchmark
+    public List<ItemDto> emptySearch() {
+        return itemService.getItemsText(" ", 0, 20);
+    }
+
+    @Benchmark
+    public ItemsDto getItem() {
+        return itemService.getItem(FIRST_ITEM, HEAVY_BOOKER);
+    }
+
+    @Benchmark
+    public List<BookingDto> bookerPage() {
+        return bookingService.getBooking("PAST", HEAVY_BOOKER, 0, 20);
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.benchmark.SeededServer.HEAVY_BOOKER;
+
+/**
+ * Страница бронирований через DTO-проекцию (как в BookingListRepositoryImpl) и через загрузку сущностей
+ * с последующим маппингом. Выделение памяти на вызов видно с профайлером: -prof gc.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectionBenchmark {
+    private static final String BOOKING_DTO = "select new ru.practicum.shareit.booking.dto.BookingDto(b.id, " +
+            "b.start, b.end, b.status, i.id, i.name, i.description, i.available, i.requestId, u.id, u.email, " +
+            "u.name) from Booking b join b.item i join b.booker u ";
+    private static final String WHERE = "where b.booker.id = :bookerId order by b.start desc";
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+
+    @Param({"20", "200"})
+    public int size;
+
+    @Setup
+    public void setUp() {
+        context = SeededServer.start();
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingDto> projection() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.createQuery(BOOKING_DTO + WHERE, BookingDto.class)
+                    .setParameter("bookerId", HEAVY_BOOKER)
+                    .setMaxResults(size)
+                    .getResultList();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Benchmark
+    public List<BookingDto> entities() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            List<Booking> bookings = entityManager.createQuery("select b from Booking b join fetch b.item " +
+                            "join fetch b.booker " + WHERE, Booking.class)
+                    .setParameter("bookerId", HEAVY_BOOKER)
+                    .setMaxResults(size)
+                    .getResultList();
+            return bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+        } finally {
+            entityManager.close();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск вещей запросом LIKE и через инвертированный индекс (shareit.search.index.enabled).
+ * Триграммный поиск работает только на Postgres и здесь не меряется.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+
+    @Param({"false", "true"})
+    public boolean index;
+
+    @Param({"0", "1000"})
+    public int from;
+
+    @Setup
+    public void setUp() {
+        context = SeededServer.start("shareit.search.index.enabled=" + index);
+        itemService = context.getBean(ItemService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDto> search() {
+        return itemService.getItemsText(SeededServer.SEARCH_TEXT, from, 20);
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
+
+/**
+ * Занимаемая поисковым индексом память: индекс наполняется вещами как в {@link SeededServer}
+ * (слово и номер в названии, ещё одно слово в описании), после чего сравнивается занятая куча
+ * до и после сборки мусора. Запуск:
+ * java -Xmx4g -cp benchmarks/target/benchmarks.jar ru.practicum.shareit.benchmark.SearchIndexFootprint 1000000
+ */
+public final class SearchIndexFootprint {
+    private static final String[] WORDS = {"drill", "saw", "ladder", "tent", "kayak", "camera", "bike", "grill"};
+
+    private SearchIndexFootprint() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int items = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        long before = usedHeap();
+        ItemSearchIndex index = new ItemSearchIndex(null, true);
+        for (int i = 0; i < items; i++) {
+            index.index(new Item((long) i, WORDS[i % WORDS.length] + " " + i,
+                    "good " + WORDS[(i + 3) % WORDS.length] + " for rent", true, null, null));
+        }
+        long used = usedHeap() - before;
+        System.out.printf("%d items: %.1f MB, %d bytes per item%n", items, used / 1024.0 / 1024.0, used / items);
+        // индекс должен дожить до замера
+        System.out.println(index.isEnabled());
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
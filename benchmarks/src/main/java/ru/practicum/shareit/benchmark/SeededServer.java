@@ -0,0 +1,133 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryJobs;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Контекст сервера на встроенной H2 с заранее заполненными данными. Данные вставляются через JDBC
+ * с идентификаторами от {@link #BASE}, чтобы не пересекаться с идентификаторами из последовательностей.
+ * У пользователя {@link #HEAVY_BOOKER} четверть всех бронирований — на нём меряются глубокие страницы.
+ */
+final class SeededServer {
+    static final long BASE = 1_000_000_000L;
+    static final int USERS = 1_000;
+    static final int ITEMS_PER_USER = 10;
+    /** Каждая десятая вещь недоступна, поэтому бронировать можно только первые девять вещей пользователя. */
+    static final int AVAILABLE_ITEMS_PER_USER = ITEMS_PER_USER - 1;
+    static final int BOOKINGS_PER_ITEM = 20;
+    static final int COMMENTS_PER_ITEM = 2;
+    static final long OWNER = BASE;
+    static final long HEAVY_BOOKER = BASE + 1;
+    static final long FIRST_ITEM = BASE;
+    static final String SEARCH_TEXT = "drill";
+
+    private static final int BATCH = 5_000;
+    private static final String[] WORDS = {"drill", "saw", "ladder", "tent", "kayak", "camera", "bike", "grill"};
+
+    private SeededServer() {
+    }
+
+    static ConfigurableApplicationContext start(String... properties) {
+        List<String> all = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID(),
+                "spring.main.banner-mode=off",
+                "logging.level.root=warn"));
+        all.addAll(List.of(properties));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("ci")
+                .properties(all.toArray(new String[0]))
+                .run();
+        seed(context.getBean(JdbcTemplate.class));
+        context.getBean(ItemBookingSummaryJobs.class).checkConsistency();
+        context.getBean(ItemSearchIndex.class).build();
+        return context;
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> requests = new ArrayList<>();
+        for (int u = 0; u < USERS; u++) {
+            users.add(new Object[]{BASE + u, "user" + u, "user" + u + "@bench.com"});
+            requests.add(new Object[]{BASE + u, "need a " + word(u), BASE + u, ts(now.minusHours(u))});
+        }
+        jdbcTemplate.batchUpdate("insert into users (id, name, email) values (?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("insert into requests (id, description, requestor_id, created) values (?, ?, ?, ?)",
+                requests);
+
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 0; i < USERS * ITEMS_PER_USER; i++) {
+            long owner = BASE + i / ITEMS_PER_USER;
+            Long request = i % 7 == 0 ? BASE + (i / 7) % USERS : null;
+            boolean available = i % ITEMS_PER_USER < AVAILABLE_ITEMS_PER_USER;
+            items.add(new Object[]{BASE + i, word(i) + " " + i, "good " + word(i + 3) + " for rent", available,
+                    owner, request});
+        }
+        insert(jdbcTemplate, "insert into items (id, name, description, available, owner_id, request) " +
+                "values (?, ?, ?, ?, ?, ?)", items);
+
+        List<Object[]> bookings = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        long bookingId = BASE;
+        long commentId = BASE;
+        for (int i = 0; i < USERS * ITEMS_PER_USER; i++) {
+            long owner = BASE + i / ITEMS_PER_USER;
+            for (int b = 0; b < BOOKINGS_PER_ITEM; b++) {
+                long booker = b % 4 == 0 ? HEAVY_BOOKER : BASE + (i + b + 2) % USERS;
+                if (booker == owner) {
+                    booker = BASE + (i + b + 3) % USERS;
+                }
+                LocalDateTime start = now.plusDays((b - BOOKINGS_PER_ITEM / 2) * 3L).plusMinutes(i % 600);
+                bookings.add(new Object[]{bookingId++, ts(start), ts(start.plusDays(2)), BASE + i, booker,
+                        status(b).name()});
+            }
+            for (int c = 0; c < COMMENTS_PER_ITEM; c++) {
+                comments.add(new Object[]{commentId++, "comment " + c, BASE + i, BASE + (i + c + 1) % USERS,
+                        ts(now.minusDays(c))});
+            }
+        }
+        insert(jdbcTemplate, "insert into bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                "values (?, ?, ?, ?, ?, ?)", bookings);
+        insert(jdbcTemplate, "insert into comments (id, text, item_id, author_id, created) values (?, ?, ?, ?, ?)",
+                comments);
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH)));
+        }
+    }
+
+    private static BookingStatus status(int index) {
+        switch (index % 10) {
+            case 3:
+                return BookingStatus.WAITING;
+            case 7:
+                return BookingStatus.REJECTED;
+            default:
+                return BookingStatus.APPROVED;
+        }
+    }
+
+    private static String word(int index) {
+        return WORDS[index % WORDS.length];
+    }
+
+    private static Timestamp ts(LocalDateTime time) {
+        return Timestamp.valueOf(time);
+    }
+}
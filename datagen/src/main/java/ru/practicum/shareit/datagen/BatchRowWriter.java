@@ -0,0 +1,64 @@
+package ru.practicum.shareit.datagen;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Пакетные insert с фиксацией после каждого пакета. Для PostgreSQL без COPY стоит добавить
+ * reWriteBatchedInserts=true в URL, чтобы драйвер склеивал пакет в многострочный insert.
+ */
+final class BatchRowWriter implements RowWriter {
+    private final Connection connection;
+    private final PreparedStatement statement;
+    private final int batch;
+    private int pending;
+    private long rows;
+
+    BatchRowWriter(Connection connection, String table, String[] columns, int batch) throws SQLException {
+        this.connection = connection;
+        this.batch = batch;
+        connection.setAutoCommit(false);
+        String placeholders = "?" + ", ?".repeat(columns.length - 1);
+        this.statement = connection.prepareStatement("insert into " + table
+                + " (" + String.join(", ", columns) + ") values (" + placeholders + ")");
+    }
+
+    @Override
+    public void write(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            statement.setObject(i + 1, value instanceof LocalDateTime ? Timestamp.valueOf((LocalDateTime) value)
+                    : value);
+        }
+        statement.addBatch();
+        rows++;
+        if (++pending == batch) {
+            flush();
+        }
+    }
+
+    @Override
+    public long rows() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            flush();
+        } finally {
+            statement.close();
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (pending > 0) {
+            statement.executeBatch();
+            connection.commit();
+            pending = 0;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.datagen;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * COPY ... FROM STDIN в формате CSV. Строки копятся в буфере и уходят на сервер кусками,
+ * вся таблица загружается одной командой COPY. Пока COPY открыт, соединение занято.
+ */
+final class CopyRowWriter implements RowWriter {
+    private static final int FLUSH_CHARS = 1 << 16;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Connection connection;
+    private final CopyIn copyIn;
+    private final StringBuilder buffer = new StringBuilder(FLUSH_CHARS * 2);
+    private long rows;
+
+    CopyRowWriter(Connection connection, String table, String[] columns) throws SQLException {
+        this.connection = connection;
+        connection.setAutoCommit(false);
+        this.copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn("COPY " + table
+                + " (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)");
+    }
+
+    @Override
+    public void write(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                buffer.append(',');
+            }
+            append(values[i]);
+        }
+        buffer.append('\n');
+        rows++;
+        if (buffer.length() >= FLUSH_CHARS) {
+            flush();
+        }
+    }
+
+    @Override
+    public long rows() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            flush();
+            copyIn.endCopy();
+            connection.commit();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private void append(Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof String) {
+            buffer.append('"').append(((String) value).replace("\"", "\"\"")).append('"');
+        } else if (value instanceof LocalDateTime) {
+            buffer.append(TIMESTAMP.format((LocalDateTime) value));
+        } else {
+            buffer.append(value);
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (buffer.length() > 0) {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+    }
+}
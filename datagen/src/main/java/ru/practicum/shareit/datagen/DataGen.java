@@ -0,0 +1,31 @@
+package ru.practicum.shareit.datagen;
+
+import java.sql.DriverManager;
+import java.util.Map;
+
+/**
+ * Генератор тестовых данных:
+ * <pre>
+ * java -jar datagen/target/datagen.jar --url=jdbc:postgresql://localhost:5432/shareit --username=... \
+ *     --password=... --recreate-schema --users=100000 --items=500000 --bookings=20000000 --seed=7
+ * </pre>
+ * Сервер при запуске выполняет schema.sql и удаляет таблицы, поэтому на заполненной базе его нужно
+ * запускать с --spring.sql.init.mode=never. Параметры описаны в {@link GeneratorConfig}.
+ */
+public final class DataGen {
+
+    private DataGen() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        GeneratorConfig config = GeneratorConfig.parse(args);
+        long started = System.nanoTime();
+        Map<String, Long> rows = new DatasetGenerator(config)
+                .generate(() -> DriverManager.getConnection(config.url, config.username, config.password));
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long total = rows.values().stream().mapToLong(Long::longValue).sum();
+        rows.forEach((table, count) -> System.out.printf("%-10s %,12d%n", table, count));
+        System.out.printf("Вставлено %,d строк за %.1f с (%,.0f строк/с), seed %d%n",
+                total, seconds, total / seconds, config.seed);
+    }
+}
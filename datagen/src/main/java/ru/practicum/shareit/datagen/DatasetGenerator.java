@@ -0,0 +1,238 @@
+package ru.practicum.shareit.datagen;
+
+import org.postgresql.PGConnection;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.utils.Sequences;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * Заполняет схему из schema.sql перекошенными данными.
+ * <ul>
+ *     <li>Владельцы вещей распределены по Zipf: ранг 0 — пользователь с наименьшим id, у него больше всех вещей.
+ *     Самые активные арендаторы и авторы запросов, наоборот, в конце списка пользователей.</li>
+ *     <li>Число бронирований вещи распределено по Zipf: у первых вещей истории в тысячи бронирований.
+ *     Бронирования вещи идут друг за другом по всему интервалу дат и не пересекаются,
+ *     пока на одно бронирование приходится больше пары минут интервала.</li>
+ *     <li>Статусы бронирований берутся из status-mix независимо от дат.</li>
+ *     <li>Отзывы оставляют арендаторы завершённых подтверждённых бронирований, поэтому
+ *     у горячих вещей длинные ленты отзывов, а правило «отзыв только после аренды» соблюдается.</li>
+ *     <li>Часть вещей добавлена в ответ на случайный запрос чужого пользователя.</li>
+ * </ul>
+ * Каждая таблица получает свой генератор случайных чисел от общего seed, поэтому изменение объёма
+ * одной таблицы не меняет строки предыдущих. Сводка item_booking_summary не заполняется:
+ * сервер пересчитывает её при запуске.
+ */
+final class DatasetGenerator {
+    private static final String[] FIRST_NAMES = {"Anna", "Boris", "Daria", "Egor", "Irina", "Kirill", "Maria",
+            "Nikita", "Olga", "Pavel", "Sofia", "Timur", "Vera", "Yuri"};
+    private static final String[] LAST_NAMES = {"Ivanov", "Petrova", "Smirnov", "Kuznetsova", "Popov", "Volkova",
+            "Sokolov", "Lebedeva", "Kozlov", "Novikova", "Morozov", "Orlova"};
+    private static final String[] WORDS = {"drill", "saw", "ladder", "tent", "kayak", "camera", "bike", "grill",
+            "projector", "speaker", "hammer", "sander", "mixer", "vacuum", "scooter", "tripod", "drone", "lens",
+            "boat", "paddle", "backpack", "stroller", "helmet", "skates", "skis", "snowboard", "guitar", "amplifier",
+            "microphone", "generator", "compressor", "welder", "jigsaw", "lawnmower", "trimmer", "chainsaw",
+            "wheelbarrow", "trailer", "cooler", "hammock"};
+    private static final String[] ADJECTIVES = {"compact", "heavy", "cordless", "electric", "vintage",
+            "professional", "portable", "folding", "waterproof", "lightweight"};
+    private static final String[] REVIEWS = {"Everything worked fine", "Exactly as described", "A bit worn",
+            "Great owner, quick handover", "Battery was almost dead", "Would rent again", "Missing a part"};
+    private static final String[] USER_COLUMNS = {"id", "name", "email"};
+    private static final String[] REQUEST_COLUMNS = {"id", "description", "requestor_id", "created"};
+    private static final String[] ITEM_COLUMNS = {"id", "name", "description", "available", "owner_id", "request"};
+    private static final String[] BOOKING_COLUMNS = {"id", "start_date", "end_date", "item_id", "booker_id",
+            "status"};
+    private static final String[] COMMENT_COLUMNS = {"id", "text", "item_id", "author_id", "created"};
+    private static final List<String> TABLES = List.of("users", "requests", "items", "bookings", "comments");
+    private static final long DAY = 86_400;
+    private static final long MAX_BOOKING_SECONDS = 14 * DAY;
+
+    private final GeneratorConfig config;
+    private final BookingStatus[] statuses;
+
+    DatasetGenerator(GeneratorConfig config) {
+        this.config = config;
+        this.statuses = config.statusMix.entrySet().stream()
+                .flatMap(entry -> Stream.generate(entry::getKey).limit(entry.getValue()))
+                .toArray(BookingStatus[]::new);
+    }
+
+    /**
+     * Открывает соединение для каждой из двух параллельных записей: бронирования и отзывы
+     * генерируются за один проход, а COPY занимает соединение целиком.
+     */
+    @FunctionalInterface
+    interface ConnectionSource {
+        Connection open() throws SQLException;
+    }
+
+    /**
+     * Возвращает число вставленных строк по таблицам в порядке вставки.
+     */
+    Map<String, Long> generate(ConnectionSource connections) throws SQLException {
+        SplittableRandom root = new SplittableRandom(config.seed);
+        SplittableRandom userRandom = root.split();
+        SplittableRandom requestRandom = root.split();
+        SplittableRandom itemRandom = root.split();
+        SplittableRandom bookingRandom = root.split();
+        SplittableRandom commentRandom = root.split();
+
+        Map<String, Long> rows = new LinkedHashMap<>();
+        try (Connection main = connections.open(); Connection side = connections.open()) {
+            if (config.recreateSchema) {
+                createSchema(main);
+            }
+            rows.put("users", writeUsers(main, userRandom));
+            int[] requestors = new int[config.requests];
+            rows.put("requests", writeRequests(main, requestRandom, requestors));
+            int[] owners = new int[config.items];
+            rows.put("items", writeItems(main, itemRandom, owners, requestors));
+            try (RowWriter bookings = RowWriter.open(main, "bookings", BOOKING_COLUMNS, config);
+                 RowWriter comments = RowWriter.open(side, "comments", COMMENT_COLUMNS, config)) {
+                writeBookings(bookings, comments, bookingRandom, commentRandom, owners);
+                rows.put("bookings", bookings.rows());
+                rows.put("comments", comments.rows());
+            }
+            restartSequences(main);
+        }
+        return rows;
+    }
+
+    private long writeUsers(Connection connection, SplittableRandom random) throws SQLException {
+        try (RowWriter users = RowWriter.open(connection, "users", USER_COLUMNS, config)) {
+            for (int u = 0; u < config.users; u++) {
+                long id = id(u);
+                users.write(id, pick(FIRST_NAMES, random) + " " + pick(LAST_NAMES, random),
+                        "user" + id + "@datagen.test");
+            }
+            return users.rows();
+        }
+    }
+
+    private long writeRequests(Connection connection, SplittableRandom random, int[] requestors)
+            throws SQLException {
+        Zipf requestorRanks = new Zipf(config.users, config.requestorSkew);
+        Zipf words = new Zipf(WORDS.length, config.wordSkew);
+        try (RowWriter requests = RowWriter.open(connection, "requests", REQUEST_COLUMNS, config)) {
+            for (int r = 0; r < config.requests; r++) {
+                requestors[r] = config.users - 1 - requestorRanks.sample(random);
+                LocalDateTime created = config.now.minusSeconds(random.nextLong(config.historyDays * DAY));
+                requests.write(id(r), "Need a " + pick(ADJECTIVES, random) + " " + WORDS[words.sample(random)],
+                        id(requestors[r]), created);
+            }
+            return requests.rows();
+        }
+    }
+
+    private long writeItems(Connection connection, SplittableRandom random, int[] owners, int[] requestors)
+            throws SQLException {
+        Zipf ownerRanks = new Zipf(config.users, config.ownerSkew);
+        Zipf words = new Zipf(WORDS.length, config.wordSkew);
+        try (RowWriter items = RowWriter.open(connection, "items", ITEM_COLUMNS, config)) {
+            for (int i = 0; i < config.items; i++) {
+                owners[i] = ownerRanks.sample(random);
+                String word = WORDS[words.sample(random)];
+                boolean available = random.nextDouble() < config.availableShare;
+                Long request = null;
+                if (requestors.length > 0 && random.nextDouble() < config.answerShare) {
+                    int r = random.nextInt(requestors.length);
+                    request = requestors[r] == owners[i] ? null : id(r);
+                }
+                items.write(id(i), pick(ADJECTIVES, random) + " " + word,
+                        "Good " + word + ", " + pick(ADJECTIVES, random) + " and " + pick(ADJECTIVES, random),
+                        available, id(owners[i]), request);
+            }
+            return items.rows();
+        }
+    }
+
+    private void writeBookings(RowWriter bookings, RowWriter comments, SplittableRandom random,
+                               SplittableRandom commentRandom, int[] owners) throws SQLException {
+        int[] perItem = new int[config.items];
+        Zipf itemRanks = new Zipf(config.items, config.itemSkew);
+        for (long b = 0; b < config.bookings; b++) {
+            perItem[itemRanks.sample(random)]++;
+        }
+        Zipf bookerRanks = new Zipf(config.users, config.bookerSkew);
+        LocalDateTime from = config.now.minusDays(config.historyDays);
+        long span = (config.historyDays + config.futureDays) * DAY;
+        long bookingIndex = 0;
+        long commentIndex = 0;
+        for (int i = 0; i < config.items; i++) {
+            int count = perItem[i];
+            if (count == 0) {
+                continue;
+            }
+            long slot = Math.max(1, span / count);
+            for (int j = 0; j < count; j++) {
+                LocalDateTime start = from.plusSeconds(j * slot + random.nextLong(Math.max(1, slot / 4)));
+                LocalDateTime end = start.plusSeconds(
+                        Math.max(60, random.nextLong(Math.max(1, Math.min(slot * 2 / 3, MAX_BOOKING_SECONDS)))));
+                int booker = config.users - 1 - bookerRanks.sample(random);
+                if (booker == owners[i]) {
+                    booker = (booker + 1) % config.users;
+                }
+                BookingStatus status = statuses[random.nextInt(statuses.length)];
+                bookings.write(id(bookingIndex++), start, end, id(i), id(booker), status.name());
+
+                if (status == BookingStatus.APPROVED && end.isBefore(config.now)
+                        && commentRandom.nextDouble() < config.commentShare) {
+                    LocalDateTime created = end.plusSeconds(commentRandom.nextLong(3 * DAY));
+                    comments.write(id(commentIndex++), pick(REVIEWS, commentRandom), id(i), id(booker),
+                            created.isAfter(config.now) ? config.now : created);
+                }
+            }
+        }
+    }
+
+    private void createSchema(Connection connection) throws SQLException {
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("schema.sql"));
+        if (connection.isWrapperFor(PGConnection.class)) {
+            populator.addScript(new ClassPathResource("schema-postgres.sql"));
+        }
+        populator.populate(connection);
+        if (!connection.getAutoCommit()) {
+            connection.commit();
+        }
+    }
+
+    /**
+     * Последовательности начинаются после вставленных id, иначе сервер выдаст уже занятый id.
+     * Hibernate считает значение последовательности верхней границей блока, отсюда запас в размер блока.
+     */
+    private void restartSequences(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String table : TABLES) {
+                long max;
+                try (ResultSet resultSet = statement.executeQuery("select coalesce(max(id), 0) from " + table)) {
+                    resultSet.next();
+                    max = resultSet.getLong(1);
+                }
+                statement.execute("alter sequence " + table + "_seq restart with "
+                        + (max + Sequences.ALLOCATION_SIZE));
+            }
+        }
+        if (!connection.getAutoCommit()) {
+            connection.commit();
+        }
+    }
+
+    private long id(long index) {
+        return config.idOffset + index + 1;
+    }
+
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+}
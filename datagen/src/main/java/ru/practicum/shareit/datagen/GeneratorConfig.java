@@ -0,0 +1,178 @@
+package ru.practicum.shareit.datagen;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Объём и распределения набора данных из аргументов вида --name=value. Одинаковые параметры
+ * и одинаковый seed дают одинаковые строки: все даты отсчитываются от {@link #now}, а не от текущего времени.
+ */
+final class GeneratorConfig {
+    String url;
+    String username = "";
+    String password = "";
+    boolean recreateSchema;
+    /** COPY для PostgreSQL; при false и для остальных баз пакетные insert. */
+    boolean copy = true;
+    int batch = 10_000;
+
+    long seed = 42;
+    long idOffset;
+    LocalDateTime now = LocalDate.now().atStartOfDay();
+    int historyDays = 365;
+    int futureDays = 90;
+
+    int users = 10_000;
+    int items = 50_000;
+    int requests = 5_000;
+    long bookings = 500_000;
+
+    /** Показатель Zipf для владельцев вещей: при 1.1 у первых владельцев тысячи вещей. */
+    double ownerSkew = 1.1;
+    /** Показатель Zipf для популярности вещей: у горячих вещей глубокая история бронирований. */
+    double itemSkew = 1.2;
+    double bookerSkew = 0.9;
+    double requestorSkew = 0.8;
+    /** Показатель Zipf для слов в названиях, чтобы поиск встречал и частые, и редкие слова. */
+    double wordSkew = 1.0;
+
+    double availableShare = 0.9;
+    /** Доля вещей, добавленных в ответ на запрос. */
+    double answerShare = 0.2;
+    /** Доля завершённых подтверждённых бронирований, после которых арендатор оставил отзыв. */
+    double commentShare = 0.15;
+    Map<BookingStatus, Integer> statusMix = defaultStatusMix();
+
+    static GeneratorConfig parse(String[] args) {
+        GeneratorConfig config = new GeneratorConfig();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Ожидается аргумент вида --name=value: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            String name = eq < 0 ? arg.substring(2) : arg.substring(2, eq);
+            String value = eq < 0 ? "true" : arg.substring(eq + 1);
+            switch (name) {
+                case "url":
+                    config.url = value;
+                    break;
+                case "username":
+                    config.username = value;
+                    break;
+                case "password":
+                    config.password = value;
+                    break;
+                case "recreate-schema":
+                    config.recreateSchema = Boolean.parseBoolean(value);
+                    break;
+                case "copy":
+                    config.copy = Boolean.parseBoolean(value);
+                    break;
+                case "batch":
+                    config.batch = Integer.parseInt(value);
+                    break;
+                case "seed":
+                    config.seed = Long.parseLong(value);
+                    break;
+                case "id-offset":
+                    config.idOffset = Long.parseLong(value);
+                    break;
+                case "now":
+                    config.now = LocalDateTime.parse(value);
+                    break;
+                case "history-days":
+                    config.historyDays = Integer.parseInt(value);
+                    break;
+                case "future-days":
+                    config.futureDays = Integer.parseInt(value);
+                    break;
+                case "users":
+                    config.users = Integer.parseInt(value);
+                    break;
+                case "items":
+                    config.items = Integer.parseInt(value);
+                    break;
+                case "requests":
+                    config.requests = Integer.parseInt(value);
+                    break;
+                case "bookings":
+                    config.bookings = Long.parseLong(value);
+                    break;
+                case "owner-skew":
+                    config.ownerSkew = Double.parseDouble(value);
+                    break;
+                case "item-skew":
+                    config.itemSkew = Double.parseDouble(value);
+                    break;
+                case "booker-skew":
+                    config.bookerSkew = Double.parseDouble(value);
+                    break;
+                case "requestor-skew":
+                    config.requestorSkew = Double.parseDouble(value);
+                    break;
+                case "word-skew":
+                    config.wordSkew = Double.parseDouble(value);
+                    break;
+                case "available-share":
+                    config.availableShare = Double.parseDouble(value);
+                    break;
+                case "answer-share":
+                    config.answerShare = Double.parseDouble(value);
+                    break;
+                case "comment-share":
+                    config.commentShare = Double.parseDouble(value);
+                    break;
+                case "status-mix":
+                    config.statusMix = statusMix(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Неизвестный параметр: " + name);
+            }
+        }
+        return config.validate();
+    }
+
+    GeneratorConfig validate() {
+        if (url == null) {
+            throw new IllegalArgumentException("Не указан --url базы данных");
+        }
+        if (users < 2) {
+            throw new IllegalArgumentException("Нужно хотя бы два пользователя: владелец и арендатор");
+        }
+        if (items < 1 || requests < 0 || bookings < 0 || batch < 1) {
+            throw new IllegalArgumentException("Объёмы должны быть положительными");
+        }
+        if (historyDays < 1 || futureDays < 0) {
+            throw new IllegalArgumentException("Неверный интервал дат");
+        }
+        if (statusMix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("В status-mix нет ни одного статуса");
+        }
+        return this;
+    }
+
+    /**
+     * APPROVED=70,WAITING=10,REJECTED=12,CANCELED=8; не указанные статусы не встречаются.
+     */
+    private static Map<BookingStatus, Integer> statusMix(String value) {
+        Map<BookingStatus, Integer> mix = new EnumMap<>(BookingStatus.class);
+        for (String part : value.split(",")) {
+            String[] weight = part.split("=");
+            mix.put(BookingStatus.valueOf(weight[0].trim().toUpperCase()), Integer.parseInt(weight[1].trim()));
+        }
+        return mix;
+    }
+
+    private static Map<BookingStatus, Integer> defaultStatusMix() {
+        Map<BookingStatus, Integer> mix = new EnumMap<>(BookingStatus.class);
+        mix.put(BookingStatus.APPROVED, 70);
+        mix.put(BookingStatus.WAITING, 10);
+        mix.put(BookingStatus.REJECTED, 12);
+        mix.put(BookingStatus.CANCELED, 8);
+        return mix;
+    }
+}
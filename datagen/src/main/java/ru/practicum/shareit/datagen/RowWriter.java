@@ -0,0 +1,30 @@
+package ru.practicum.shareit.datagen;
+
+import org.postgresql.PGConnection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Построчная запись в одну таблицу. Значения передаются в порядке колонок, переданных при создании.
+ */
+interface RowWriter extends AutoCloseable {
+
+    void write(Object... values) throws SQLException;
+
+    long rows();
+
+    @Override
+    void close() throws SQLException;
+
+    /**
+     * COPY, если это PostgreSQL и он разрешён, иначе пакетные insert.
+     */
+    static RowWriter open(Connection connection, String table, String[] columns, GeneratorConfig config)
+            throws SQLException {
+        if (config.copy && connection.isWrapperFor(PGConnection.class)) {
+            return new CopyRowWriter(connection, table, columns);
+        }
+        return new BatchRowWriter(connection, table, columns, config.batch);
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.datagen;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Распределение Zipf на рангах 0..n-1: вероятность ранга k пропорциональна 1 / (k + 1)^s.
+ * Ранг 0 самый частый. При s = 0 распределение равномерное.
+ * Выборка бинарным поиском по заранее посчитанной функции распределения.
+ */
+final class Zipf {
+    private final double[] cdf;
+
+    Zipf(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Пустое распределение");
+        }
+        cdf = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1 / Math.pow(k + 1, exponent);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cdf[k] /= sum;
+        }
+        cdf[n - 1] = 1;
+    }
+
+    int sample(SplittableRandom random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return index >= 0 ? index : -index - 1;
+    }
+}
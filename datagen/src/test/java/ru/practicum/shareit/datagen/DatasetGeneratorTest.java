@@ -0,0 +1,101 @@
+package ru.practicum.shareit.datagen;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatasetGeneratorTest {
+    private static final List<String> TABLES = List.of("users", "requests", "items", "bookings", "comments");
+
+    @Test
+    void sameSeedShouldProduceSameRows() throws SQLException {
+        String first = generate(config(7));
+        String second = generate(config(7));
+        String other = generate(config(8));
+
+        for (String table : TABLES) {
+            assertEquals(dump(first, table), dump(second, table), table);
+        }
+        assertNotEquals(dump(first, "bookings"), dump(other, "bookings"));
+    }
+
+    @Test
+    void dataShouldBeSkewedAndConsistent() throws SQLException {
+        GeneratorConfig config = config(42);
+        String url = generate(config);
+
+        assertEquals(config.bookings, single(url, "select count(*) from bookings"));
+        long topOwnerItems = single(url, "select max(c) from (select count(*) c from items group by owner_id) t");
+        assertTrue(topOwnerItems > config.items / 10, "У первого владельца " + topOwnerItems + " вещей");
+        long hottestItemBookings = single(url,
+                "select max(c) from (select count(*) c from bookings group by item_id) t");
+        assertTrue(hottestItemBookings > config.bookings / 20, "У горячей вещи " + hottestItemBookings + " бронирований");
+        assertEquals(4, single(url, "select count(distinct status) from bookings"));
+        assertTrue(single(url, "select count(*) from comments") > 0);
+        assertTrue(single(url, "select count(*) from items where request is not null") > 0);
+
+        assertEquals(0, single(url, "select count(*) from comments c where not exists (select 1 from bookings b "
+                + "where b.item_id = c.item_id and b.booker_id = c.author_id and b.status = 'APPROVED' "
+                + "and b.end_date <= c.created)"));
+        assertEquals(0, single(url, "select count(*) from bookings b join items i on i.id = b.item_id "
+                + "where b.booker_id = i.owner_id or b.end_date <= b.start_date"));
+        assertEquals(0, single(url, "select count(*) from items i join requests r on r.id = i.request "
+                + "where r.requestor_id = i.owner_id"));
+        assertTrue(single(url, "select next value for bookings_seq") > config.bookings);
+    }
+
+    private static GeneratorConfig config(long seed) {
+        GeneratorConfig config = new GeneratorConfig();
+        config.url = "jdbc:h2:mem:datagen-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        config.recreateSchema = true;
+        config.batch = 500;
+        config.seed = seed;
+        config.now = LocalDateTime.of(2024, 6, 1, 0, 0);
+        config.users = 200;
+        config.items = 500;
+        config.requests = 50;
+        config.bookings = 5_000;
+        return config.validate();
+    }
+
+    private static String generate(GeneratorConfig config) throws SQLException {
+        new DatasetGenerator(config).generate(() -> DriverManager.getConnection(config.url));
+        return config.url;
+    }
+
+    private static List<String> dump(String url, String table) throws SQLException {
+        List<String> rows = new ArrayList<>();
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select * from " + table + " order by id")) {
+            int columns = resultSet.getMetaData().getColumnCount();
+            while (resultSet.next()) {
+                StringBuilder row = new StringBuilder();
+                for (int i = 1; i <= columns; i++) {
+                    row.append(resultSet.getString(i)).append('|');
+                }
+                rows.add(row.toString());
+            }
+        }
+        return rows;
+    }
+
+    private static long single(String url, String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
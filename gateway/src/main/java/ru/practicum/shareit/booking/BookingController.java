@@ -6,13 +6,19 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.exceptions.RequestFailedException;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -20,35 +26,49 @@ import javax.validation.constraints.PositiveOrZero;
 @Slf4j
 @Validated
 public class BookingController {
+    private static final int MAX_BATCH_SIZE = 1000;
     private final BookingClient bookingClient;
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+    public Mono<ResponseEntity<Object>> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
                                               @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                               @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                              @RequestParam(name = "cursor", required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new RequestFailedException("Unknown state: " + stateParam));
+        if (cursor != null) {
+            log.info("Get booking with state {}, userId={}, cursor={}, size={}", stateParam, userId, cursor, size);
+            return bookingClient.getBookingsAfter(userId, state, cursor, size);
+        }
         log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
         return bookingClient.getBookings(userId, state, from, size);
     }
 
     @PostMapping
-    public ResponseEntity<Object> bookItem(@RequestHeader("X-Sharer-User-Id") long userId,
+    public Mono<ResponseEntity<Object>> bookItem(@RequestHeader("X-Sharer-User-Id") long userId,
                                            @RequestBody @Valid BookItemRequestDto requestDto) {
         log.info("Creating booking {}, userId={}", requestDto, userId);
         return bookingClient.bookItem(userId, requestDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> bookItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                                            @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                            List<@Valid BookItemRequestDto> requestDtos) {
+        log.info("Creating {} bookings, userId={}", requestDtos.size(), userId);
+        return bookingClient.bookItems(userId, requestDtos);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+    public Mono<ResponseEntity<Object>> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
                                              @PathVariable Long bookingId) {
         log.info("Get booking {}, userId={}", bookingId, userId);
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> updateBooking(@PathVariable Long bookingId,
+    public Mono<ResponseEntity<Object>> updateBooking(@PathVariable Long bookingId,
                                                 @RequestHeader("X-Sharer-User-Id") Long ownerId,
                                                 @RequestParam(name = "approved") boolean approved) {
         log.info("patch approved userId={} bookingId={}", ownerId, bookingId);
@@ -56,14 +76,39 @@ public class BookingController {
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllBookingsByOwner(@RequestParam(defaultValue = "ALL") String state,
+    public Mono<ResponseEntity<Object>> getAllBookingsByOwner(@RequestParam(defaultValue = "ALL") String state,
                                                         @RequestHeader("X-Sharer-User-Id") Long userId,
                                                         @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                                        @Positive @RequestParam(defaultValue = "10") Integer size) {
+                                                        @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                        @RequestParam(required = false) String cursor) {
         BookingState stateParam = BookingState.from(state)
                 .orElseThrow(() -> new RequestFailedException("Unknown state: " + state));
+        if (cursor != null) {
+            log.info("Get booking with state {}, userId={}, cursor={}, size={}", state, userId, cursor, size);
+            return bookingClient.ownerItemsBookingListsAfter(userId, stateParam, cursor, size);
+        }
         log.info("Get booking with state {}, userId={}, from={}, size={}", state, userId, from, size);
         return bookingClient.ownerItemsBookingLists(userId, stateParam, from, size);
     }
 
+    @GetMapping("/export")
+    public void exportBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                               @RequestParam(defaultValue = "ALL") String state,
+                               HttpServletResponse response) throws IOException {
+        BookingState stateParam = BookingState.from(state)
+                .orElseThrow(() -> new RequestFailedException("Unknown state: " + state));
+        log.info("Export bookings with state {}, userId={}", state, userId);
+        bookingClient.exportBookings(userId, stateParam, response);
+    }
+
+    @GetMapping("/owner/export")
+    public void exportOwnerBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                    @RequestParam(defaultValue = "ALL") String state,
+                                    HttpServletResponse response) throws IOException {
+        BookingState stateParam = BookingState.from(state)
+                .orElseThrow(() -> new RequestFailedException("Unknown state: " + state));
+        log.info("Export owner bookings with state {}, userId={}", state, userId);
+        bookingClient.exportOwnerBookings(userId, stateParam, response);
+    }
+
 }
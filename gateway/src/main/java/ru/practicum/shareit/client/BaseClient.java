@@ -2,97 +2,173 @@ package ru.practicum.shareit.client;
 
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 public class BaseClient {
-    protected final RestTemplate rest;
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "proxy-authenticate",
+            "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade");
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    protected final ServerTransport transport;
+    private final String apiPrefix;
+    private final RequestCoalescer coalescer;
+    private final ResponseCache responseCache;
+
+    public BaseClient(ServerTransport transport) {
+        this("", transport, RequestCoalescer.DISABLED, ResponseCache.DISABLED);
+    }
+
+    public BaseClient(String apiPrefix, ServerTransportFactory transports, RequestCoalescer coalescer,
+                      ResponseCache responseCache) {
+        this(apiPrefix, transports.forPrefix(apiPrefix), coalescer, responseCache);
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected BaseClient(String apiPrefix, ServerTransport transport, RequestCoalescer coalescer,
+                         ResponseCache responseCache) {
+        this.apiPrefix = apiPrefix;
+        this.transport = transport;
+        this.coalescer = coalescer;
+        this.responseCache = responseCache;
+    }
+
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return coalescer.coalesce(requestKey(path, parameters, userId),
+                () -> makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null));
+    }
+
+    /**
+     * GET с кэшированием ответа для конкретного пользователя.
+     */
+    protected Mono<ResponseEntity<Object>> getCached(String path, long userId, Map<String, Object> parameters) {
+        String key = requestKey(path, parameters, userId);
+        return responseCache.get(key, generation -> coalescer.coalesce(generationKey(key, generation),
+                () -> makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null)));
+    }
+
+    /**
+     * GET, ответ на который не зависит от пользователя: одинаковые запросы разных пользователей объединяются
+     * и отдаются из общего кэша.
+     */
+    protected Mono<ResponseEntity<Object>> getShared(String path, long userId, Map<String, Object> parameters) {
+        String key = requestKey(path, parameters, null);
+        return responseCache.get(key, generation -> coalescer.coalesce(generationKey(key, generation),
+                () -> makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null)));
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, @Nullable Map<String, Object> parameters) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, @Nullable Map<String, Object> parameters) {
         return patch(path, userId, parameters, null);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    /**
+     * Выгрузка: ответ сервера пишется прямо в ответ шлюза, без объединения запросов и кэша.
+     */
+    protected void stream(String path, long userId, @Nullable Map<String, Object> parameters,
+                          HttpServletResponse response) throws IOException {
+        HttpHeaders headers = defaultHeaders(userId);
+        // ошибки проверок сервер по-прежнему отдаёт в JSON
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON));
+        transport.stream(path, headers, parameters, response);
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        Mono<ResponseEntity<Object>> response = transport.exchange(method, path, defaultHeaders(userId), parameters, body);
+        if (method == HttpMethod.GET) {
+            return response;
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        // до того, как ответ на запись увидит клиент: его следующий GET уже не застанет старые данные
+        return response
+                .doOnSuccess(written -> afterWrite())
+                .doOnError(error -> afterWrite())
+                .doOnCancel(this::afterWrite);
+    }
+
+    private void afterWrite() {
+        coalescer.forgetInFlight(apiPrefix);
+        responseCache.invalidateAfterWrite(apiPrefix);
+    }
+
+    /**
+     * Ключ GET-запроса: путь с подставленными параметрами, параметры запроса упорядочены по имени.
+     */
+    private String requestKey(String path, @Nullable Map<String, Object> parameters, @Nullable Long userId) {
+        UriComponents uri = UriComponentsBuilder.fromUriString(apiPrefix + path)
+                .buildAndExpand(parameters != null ? parameters : Map.of());
+        String query = new TreeMap<>(uri.getQueryParams()).entrySet().stream()
+                .map(param -> param.getKey() + "=" + param.getValue())
+                .collect(Collectors.joining("&"));
+        String key = "GET " + uri.getPath() + "?" + query;
+        return userId != null ? key + " user=" + userId : key;
+    }
+
+    // запрос, начатый до записи, не должен отдать свой ответ запросу, который кэш отнёс к новому поколению
+    private static String generationKey(String key, long generation) {
+        return key + " generation=" + generation;
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -105,17 +181,41 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    /**
+     * Ответ сервера отдаётся клиенту как есть: тело байтами, без разбора JSON, вместе со статусом и заголовками.
+     * Заголовки соединения относятся к конкретному hop и не пробрасываются.
+     */
+    static ResponseEntity<Object> prepareGatewayResponse(HttpStatus status, @Nullable HttpHeaders serverHeaders,
+                                                         @Nullable byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders != null) {
+            serverHeaders.forEach((name, values) -> {
+                if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    headers.put(name, values);
+                }
+            });
         }
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status).headers(headers);
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        if (body != null && body.length > 0) {
+            return responseBuilder.body(body);
         }
 
         return responseBuilder.build();
     }
-}
\ No newline at end of file
+
+    /**
+     * То же для потокового ответа: статус и заголовки сервера переносятся в ответ шлюза до начала тела.
+     */
+    static void prepareGatewayResponse(HttpStatus status, @Nullable HttpHeaders serverHeaders,
+                                       HttpServletResponse response) {
+        response.setStatus(status.value());
+        if (serverHeaders != null) {
+            serverHeaders.forEach((name, values) -> {
+                if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    values.forEach(value -> response.addHeader(name, value));
+                }
+            });
+        }
+    }
+}
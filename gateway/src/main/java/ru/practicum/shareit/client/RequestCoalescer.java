@@ -0,0 +1,110 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight для одинаковых одновременных GET: пока запрос с данным ключом выполняется,
+ * остальные подписываются на его результат и на сервер не уходят. По завершении ключ освобождается,
+ * так что ответы не кэшируются дольше, чем длится сам запрос. После записи через шлюз начатые до неё
+ * запросы, ответ на которые она могла изменить, забываются: GET, пришедший после ответа на запись,
+ * не получит ответ, прочитанный до неё. Остальные запросы продолжают принимать подписчиков.
+ */
+@Component
+public class RequestCoalescer implements MeterBinder {
+    public static final RequestCoalescer DISABLED = new RequestCoalescer(false);
+    // какие GET может изменить запись по префиксу; поиск вещей не содержит бронирований
+    private static final Map<String, Predicate<String>> READS_CHANGED_BY_WRITE = Map.of(
+            "/users", key -> true,
+            "/items", key -> !key.startsWith("GET /users"),
+            "/requests", key -> key.startsWith("GET /requests"),
+            "/bookings", key -> key.startsWith("GET /bookings")
+                    || key.startsWith("GET /items") && !key.startsWith("GET /items/search"));
+
+    private final boolean enabled;
+    private final Map<String, Mono<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong leaders = new AtomicLong();
+    private final AtomicLong followers = new AtomicLong();
+
+    @Autowired
+    public RequestCoalescer(@Value("${shareit-server.coalescing.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Mono<ResponseEntity<Object>> coalesce(String key, Supplier<Mono<ResponseEntity<Object>>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        return Mono.defer(() -> {
+            boolean[] leader = new boolean[1];
+            Mono<ResponseEntity<Object>> flight = inFlight.computeIfAbsent(key, k -> {
+                leader[0] = true;
+                // удаляется только свой запрос: после forgetInFlight под ключом может быть уже новый
+                List<Mono<ResponseEntity<Object>>> self = new ArrayList<>(1);
+                self.add(Mono.defer(call)
+                        .doFinally(signal -> inFlight.remove(k, self.get(0)))
+                        .cache());
+                return self.get(0);
+            });
+            (leader[0] ? leaders : followers).incrementAndGet();
+            return flight;
+        });
+    }
+
+    /**
+     * Вызывается, когда запись по префиксу завершилась: выполняющиеся запросы, которые она могла изменить,
+     * дочитают свои ответы, но новых подписчиков уже не получат. Для неизвестного префикса забываются все.
+     */
+    public void forgetInFlight(String apiPrefix) {
+        if (enabled) {
+            inFlight.keySet().removeIf(READS_CHANGED_BY_WRITE.getOrDefault(apiPrefix, key -> true));
+        }
+    }
+
+    public long getLeaders() {
+        return leaders.get();
+    }
+
+    public long getFollowers() {
+        return followers.get();
+    }
+
+    /**
+     * Доля запросов, которые получили чужой ответ вместо собственного вызова сервера.
+     */
+    public double getCollapseRatio() {
+        long total = leaders.get() + followers.get();
+        return total == 0 ? 0 : (double) followers.get() / total;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("gateway.coalescing.requests", leaders, AtomicLong::get)
+                .tag("role", "leader")
+                .description("GET-запросы, ушедшие на сервер")
+                .register(registry);
+        FunctionCounter.builder("gateway.coalescing.requests", followers, AtomicLong::get)
+                .tag("role", "follower")
+                .description("GET-запросы, получившие ответ уже выполняющегося запроса")
+                .register(registry);
+        Gauge.builder("gateway.coalescing.collapse.ratio", this, RequestCoalescer::getCollapseRatio)
+                .register(registry);
+        Gauge.builder("gateway.coalescing.in.flight", inFlight, Map::size)
+                .register(registry);
+    }
+}
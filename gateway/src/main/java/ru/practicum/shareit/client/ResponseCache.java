@@ -0,0 +1,94 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * Кэш успешных ответов сервера на редко меняющиеся списки (поиск вещей, чужие запросы).
+ * Любая запись через шлюз в вещи, запросы или пользователей сбрасывает кэш целиком. Ответ, запрошенный
+ * до сброса, в кэш уже не попадает, чтобы не вернуть данные, прочитанные до записи. Номер поколения
+ * передаётся в вызов: одинаковые запросы разных поколений не должны объединяться в один.
+ */
+@Component
+public class ResponseCache implements MeterBinder {
+    public static final ResponseCache DISABLED = new ResponseCache(false, 0, Duration.ZERO);
+    private static final Set<String> INVALIDATING_PREFIXES = Set.of("/items", "/requests", "/users");
+
+    private final boolean enabled;
+    private final Cache<String, ResponseEntity<Object>> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+    private long generation;
+
+    @Autowired
+    public ResponseCache(@Value("${shareit-server.response-cache.enabled:true}") boolean enabled,
+                         @Value("${shareit-server.response-cache.maximum-size:10000}") long maximumSize,
+                         @Value("${shareit-server.response-cache.time-to-live:30s}") Duration timeToLive) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+    }
+
+    public Mono<ResponseEntity<Object>> get(String key, LongFunction<Mono<ResponseEntity<Object>>> call) {
+        if (!enabled) {
+            return call.apply(0);
+        }
+        return Mono.defer(() -> {
+            ResponseEntity<Object> cached = cache.getIfPresent(key);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            long requestedAt = currentGeneration();
+            return call.apply(requestedAt).doOnNext(response -> {
+                if (response.getStatusCode().is2xxSuccessful()) {
+                    putIfNotInvalidated(key, response, requestedAt);
+                }
+            });
+        });
+    }
+
+    public void invalidateAfterWrite(String apiPrefix) {
+        if (enabled && INVALIDATING_PREFIXES.contains(apiPrefix)) {
+            synchronized (this) {
+                generation++;
+                cache.invalidateAll();
+            }
+            invalidations.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "gatewayResponses");
+        FunctionCounter.builder("gateway.response.cache.invalidations", invalidations, AtomicLong::get)
+                .description("Сбросы кэша ответов после записи через шлюз")
+                .register(registry);
+    }
+
+    private synchronized long currentGeneration() {
+        return generation;
+    }
+
+    private synchronized void putIfNotInvalidated(String key, ResponseEntity<Object> response, long requestedAt) {
+        if (generation == requestedAt) {
+            cache.put(key, response);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Блокирующий транспорт: запрос выполняется сразу в потоке вызова, готовый ответ оборачивается в Mono.
+ */
+public class RestTemplateTransport implements ServerTransport {
+    private final RestTemplate rest;
+
+    public RestTemplateTransport(RestTemplate rest) {
+        this.rest = rest;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        HttpEntity<Object> requestEntity = new HttpEntity<>(body, headers);
+
+        ResponseEntity<byte[]> shareitServerResponse;
+        try {
+            if (parameters != null) {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
+            } else {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
+            }
+        } catch (HttpStatusCodeException e) {
+            return Mono.just(BaseClient.prepareGatewayResponse(e.getStatusCode(), e.getResponseHeaders(),
+                    e.getResponseBodyAsByteArray()));
+        }
+        return Mono.just(BaseClient.prepareGatewayResponse(shareitServerResponse.getStatusCode(),
+                shareitServerResponse.getHeaders(), shareitServerResponse.getBody()));
+    }
+
+    @Override
+    public void stream(String path, HttpHeaders headers, @Nullable Map<String, Object> parameters,
+                       HttpServletResponse response) throws IOException {
+        RequestCallback requestCallback = request -> request.getHeaders().addAll(headers);
+        ResponseExtractor<Void> copyBody = serverResponse -> {
+            BaseClient.prepareGatewayResponse(serverResponse.getStatusCode(), serverResponse.getHeaders(), response);
+            StreamUtils.copy(serverResponse.getBody(), response.getOutputStream());
+            return null;
+        };
+        try {
+            rest.execute(path, HttpMethod.GET, requestCallback, copyBody,
+                    parameters != null ? parameters : Map.of());
+        } catch (HttpStatusCodeException e) {
+            // ответы с ошибкой RestTemplate уже прочитал целиком, они короткие
+            BaseClient.prepareGatewayResponse(HttpStatus.valueOf(e.getRawStatusCode()), e.getResponseHeaders(),
+                    response);
+            response.getOutputStream().write(e.getResponseBodyAsByteArray());
+        }
+    }
+}
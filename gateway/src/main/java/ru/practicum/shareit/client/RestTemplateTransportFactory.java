@@ -0,0 +1,40 @@
+package ru.practicum.shareit.client;
+
+import org.apache.http.client.HttpClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+/**
+ * RestTemplate каждого клиента работает поверх общего HttpClient и его пула соединений.
+ */
+@Component
+@Profile("!reactive")
+public class RestTemplateTransportFactory implements ServerTransportFactory {
+    private final String serverUrl;
+    private final RestTemplateBuilder builder;
+    private final HttpComponentsClientHttpRequestFactory requestFactory;
+
+    @Autowired
+    public RestTemplateTransportFactory(@Value("${shareit-server.url}") String serverUrl,
+                                        RestTemplateBuilder builder,
+                                        HttpClient serverHttpClient) {
+        this.serverUrl = serverUrl;
+        this.builder = builder;
+        this.requestFactory = new HttpComponentsClientHttpRequestFactory(serverHttpClient);
+    }
+
+    @Override
+    public ServerTransport forPrefix(String apiPrefix) {
+        return new RestTemplateTransport(
+                builder
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + apiPrefix))
+                        .requestFactory(() -> requestFactory)
+                        .build()
+        );
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Способ доставки запроса на сервер shareit. Путь задаётся шаблоном URI относительно префикса клиента.
+ * Ответ приходит уже в виде ответа шлюза: тело байтами, статус и заголовки сервера.
+ */
+public interface ServerTransport {
+
+    Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                          @Nullable Map<String, Object> parameters, @Nullable Object body);
+
+    /**
+     * GET, ответ которого копируется в {@code response} по мере получения, не собираясь в памяти целиком.
+     * Возвращается, когда сервер закончил ответ. По умолчанию ответ всё же собирается целиком через
+     * {@link #exchange}; транспорты, умеющие отдавать тело по частям, переопределяют этот метод.
+     */
+    default void stream(String path, HttpHeaders headers, @Nullable Map<String, Object> parameters,
+                        HttpServletResponse response) throws IOException {
+        ResponseEntity<Object> serverResponse = exchange(HttpMethod.GET, path, headers, parameters, null).block();
+        BaseClient.prepareGatewayResponse(serverResponse.getStatusCode(), serverResponse.getHeaders(), response);
+        if (serverResponse.getBody() != null) {
+            response.getOutputStream().write((byte[]) serverResponse.getBody());
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.client;
+
+/**
+ * Создаёт транспорт для клиента с заданным префиксом API. Реализация выбирается профилем:
+ * по умолчанию блокирующий RestTemplate, в профиле reactive — неблокирующий WebClient.
+ */
+public interface ServerTransportFactory {
+
+    ServerTransport forPrefix(String apiPrefix);
+}
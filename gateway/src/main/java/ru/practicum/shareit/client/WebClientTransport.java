@@ -0,0 +1,60 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * Неблокирующий транспорт: запрос уходит через пул соединений reactor-netty, поток вызова не ждёт ответа.
+ * Ответы с кодами ошибок не превращаются в исключения и отдаются клиенту как есть.
+ */
+public class WebClientTransport implements ServerTransport {
+    private final WebClient webClient;
+
+    public WebClientTransport(WebClient webClient) {
+        this.webClient = webClient;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(requestHeaders -> requestHeaders.addAll(headers));
+        WebClient.RequestHeadersSpec<?> spec = body != null ? request.bodyValue(body) : request;
+        return spec.exchangeToMono(response -> response.toEntity(byte[].class))
+                .map(response -> BaseClient.prepareGatewayResponse(response.getStatusCode(), response.getHeaders(),
+                        response.getBody()));
+    }
+
+    /**
+     * Поток запроса ждёт конца ответа: выгрузка пишется в выходной поток сервлета, который блокирует.
+     */
+    @Override
+    public void stream(String path, HttpHeaders headers, @Nullable Map<String, Object> parameters,
+                       HttpServletResponse response) throws IOException {
+        Flux<DataBuffer> body = webClient.get()
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(requestHeaders -> requestHeaders.addAll(headers))
+                .exchangeToFlux(serverResponse -> {
+                    BaseClient.prepareGatewayResponse(serverResponse.statusCode(),
+                            serverResponse.headers().asHttpHeaders(), response);
+                    return serverResponse.bodyToFlux(DataBuffer.class);
+                });
+        OutputStream out = response.getOutputStream();
+        DataBufferUtils.write(body, out)
+                .doOnNext(DataBufferUtils::release)
+                .blockLast();
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+
+/**
+ * Все клиенты делят один ограниченный пул соединений и несколько потоков event loop.
+ * Запросы сверх max-connections ждут свободного соединения в очереди ограниченной длины.
+ */
+@Component
+@Profile("reactive")
+public class WebClientTransportFactory implements ServerTransportFactory, DisposableBean {
+    private final String serverUrl;
+    private final WebClient.Builder builder;
+    private final ConnectionProvider connectionProvider;
+    private final LoopResources loopResources;
+    private final HttpClient httpClient;
+
+    @Autowired
+    public WebClientTransportFactory(@Value("${shareit-server.url}") String serverUrl,
+                                     WebClient.Builder builder,
+                                     @Value("${shareit-server.reactive.max-connections:200}") int maxConnections,
+                                     @Value("${shareit-server.reactive.pending-acquire-max-count:1000}")
+                                     int pendingAcquireMaxCount,
+                                     @Value("${shareit-server.reactive.pending-acquire-timeout:5s}")
+                                     Duration pendingAcquireTimeout,
+                                     @Value("${shareit-server.reactive.event-loop-threads:2}") int eventLoopThreads) {
+        this.serverUrl = serverUrl;
+        this.builder = builder;
+        this.connectionProvider = ConnectionProvider.builder("shareit-server")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .metrics(true)
+                .build();
+        this.loopResources = LoopResources.create("shareit-gateway-http", eventLoopThreads, true);
+        this.httpClient = HttpClient.create(connectionProvider).runOn(loopResources);
+    }
+
+    @Override
+    public ServerTransport forPrefix(String apiPrefix) {
+        return new WebClientTransport(
+                builder.clone()
+                        .baseUrl(serverUrl + apiPrefix)
+                        .clientConnector(new ReactorClientHttpConnector(httpClient))
+                        .build()
+        );
+    }
+
+    @Override
+    public void destroy() {
+        connectionProvider.dispose();
+        loopResources.dispose();
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Без профиля reactive сервер вызывается через RestTemplate в потоке запроса, и Mono из контроллера
+ * к моменту возврата уже готов. Такой Mono отдаётся как обычный ResponseEntity: Spring MVC не запускает
+ * асинхронную обработку и не диспетчеризует запрос повторно.
+ */
+@Component
+@Profile("!reactive")
+public class BlockingMvcRegistrations implements WebMvcRegistrations {
+
+    @Override
+    public RequestMappingHandlerAdapter getRequestMappingHandlerAdapter() {
+        return new RequestMappingHandlerAdapter() {
+            @Override
+            public void afterPropertiesSet() {
+                super.afterPropertiesSet();
+                List<HandlerMethodReturnValueHandler> handlers = new ArrayList<>(getReturnValueHandlers());
+                handlers.add(0, new PlainMonoReturnValueHandler(handlers));
+                setReturnValueHandlers(handlers);
+            }
+        };
+    }
+
+    private static class PlainMonoReturnValueHandler implements HandlerMethodReturnValueHandler {
+        private static final MethodParameter PLAIN_RESPONSE = new MethodParameter(
+                ReflectionUtils.findMethod(PlainMonoReturnValueHandler.class, "plainResponse"), -1);
+
+        private final HandlerMethodReturnValueHandler entityHandler;
+
+        PlainMonoReturnValueHandler(List<HandlerMethodReturnValueHandler> handlers) {
+            this.entityHandler = handlers.stream()
+                    .filter(handler -> handler.supportsReturnType(PLAIN_RESPONSE))
+                    .findFirst()
+                    .orElseThrow();
+        }
+
+        // образец возвращаемого типа, которым ответ передаётся обработчику ResponseEntity
+        private static ResponseEntity<Object> plainResponse() {
+            return null;
+        }
+
+        @Override
+        public boolean supportsReturnType(MethodParameter returnType) {
+            return Mono.class.isAssignableFrom(returnType.getParameterType());
+        }
+
+        @Override
+        public void handleReturnValue(Object returnValue, MethodParameter returnType,
+                                      ModelAndViewContainer mavContainer, NativeWebRequest webRequest)
+                throws Exception {
+            Object response = returnValue != null ? ((Mono<?>) returnValue).block() : null;
+            entityHandler.handleReturnValue(response, PLAIN_RESPONSE, mavContainer, webRequest);
+        }
+    }
+}
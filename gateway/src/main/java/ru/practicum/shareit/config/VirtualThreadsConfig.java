@@ -0,0 +1,71 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Режим shareit.threads.virtual: Tomcat обрабатывает каждый запрос в отдельном виртуальном потоке,
+ * поэтому блокирующий вызов (запрос к серверу из шлюза, запрос к базе на сервере) не занимает поток пула.
+ * Виртуальные потоки есть только в JDK 21+, поэтому исполнитель ищется через рефлексию; на старом JDK
+ * остаётся обычный пул Tomcat.
+ * <p>
+ * Класс одинаково лежит в gateway и server: это два независимых приложения с отдельными jar, общего
+ * модуля с кодом у них нет, а заводить его ради одного класса конфигурации не стоит. Правки вносятся
+ * в обе копии, тесты VirtualThreadsConfigTest в каждом модуле проверяют одно и то же поведение.
+ * <p>
+ * Сравнение с пулом Tomcat на 5000 клиентах не измерено: сборка и стенд на JDK 17, где виртуальных
+ * потоков нет. На JDK 21 его даёт модуль loadtest: прогоны с --clients=5000 с флагами
+ * --gateway:shareit.threads.virtual=true --server:shareit.threads.virtual=true и без них.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.threads.virtual", havingValue = "true")
+@Slf4j
+public class VirtualThreadsConfig implements DisposableBean {
+    private ExecutorService executor;
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsCustomizer(
+            @Value("${shareit.threads.trace-pinning:short}") String tracePinning) {
+        executor = newVirtualThreadPerTaskExecutor(tracePinning);
+        if (executor == null) {
+            log.warn("Виртуальные потоки недоступны в JDK {}, используется пул потоков Tomcat",
+                    Runtime.version().feature());
+            return protocolHandler -> {
+            };
+        }
+        log.info("Запросы обрабатываются в виртуальных потоках, jdk.tracePinnedThreads={}", tracePinning);
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Свойство jdk.tracePinnedThreads читается при первом создании виртуального потока,
+     * поэтому выставляется до создания исполнителя. Значение none отключает трассировку.
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor(String tracePinning) {
+        if (!"none".equals(tracePinning)) {
+            System.setProperty("jdk.tracePinnedThreads", tracePinning);
+        }
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            return null;
+        }
+    }
+}
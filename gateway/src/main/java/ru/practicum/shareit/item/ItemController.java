@@ -7,13 +7,19 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.io.IOException;
 import java.util.Collections;
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/items")
@@ -21,18 +27,27 @@ import java.util.Collections;
 @Slf4j
 @Validated
 public class ItemController {
+    private static final int MAX_BATCH_SIZE = 1000;
 
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> addItem(@Valid @RequestBody ItemDto itemDto,
+    public Mono<ResponseEntity<Object>> addItem(@Valid @RequestBody ItemDto itemDto,
                                           @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("post item userId={}, itemDto={}", userId, itemDto);
         return itemClient.postItem(itemDto, userId);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> addItems(@RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                           List<@Valid ItemDto> items,
+                                           @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("post {} items userId={}", items.size(), userId);
+        return itemClient.postItems(items, userId);
+    }
+
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@PathVariable Long itemId,
+    public Mono<ResponseEntity<Object>> addComment(@PathVariable Long itemId,
                                              @RequestHeader("X-Sharer-User-Id") Long userId,
                                              @RequestBody @Valid CommentDto commentDto) {
         log.info("Post comment userId={}, itemId={}, commentDto={}", userId, itemId, commentDto);
@@ -40,33 +55,40 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> getItems(@RequestHeader("X-Sharer-User-Id") long userId,
+    public Mono<ResponseEntity<Object>> getItems(@RequestHeader("X-Sharer-User-Id") long userId,
                                            @RequestParam String text, @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
                                            @Positive @RequestParam(defaultValue = "10") Integer size) {
         log.info("Get /search text={}, from={}, size={}", text, from, size);
         if (text == null || text.isBlank()) {
-            return new ResponseEntity<>(Collections.emptyList(), HttpStatus.OK);
+            return Mono.just(new ResponseEntity<>(Collections.emptyList(), HttpStatus.OK));
         }
         return itemClient.getItems(userId, text, from, size);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestBody ItemDto itemDto,
+    public Mono<ResponseEntity<Object>> updateItem(@RequestBody ItemDto itemDto,
                                              @RequestHeader("X-Sharer-User-Id") Long userId,
                                              @PathVariable long itemId) {
         log.info("patch item userId={}, itemId= {}, itemDto={}", userId, itemId, itemDto);
         return itemClient.patchItem(itemDto, itemId, userId);
     }
 
+    @GetMapping("/export")
+    public void exportItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                            HttpServletResponse response) throws IOException {
+        log.info("Export items userId={}", userId);
+        itemClient.exportItems(userId, response);
+    }
+
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@PathVariable Long itemId,
+    public Mono<ResponseEntity<Object>> getItemById(@PathVariable Long itemId,
                                               @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("Get itemId={}, userId={}", itemId, userId);
         return itemClient.getItemById(itemId, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsersItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<Object>> getAllUsersItems(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                    @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
                                                    @Positive @RequestParam(defaultValue = "10") Integer size) {
         log.info("Get allUserItem userId={}, from={}, size={}", userId, from, size);
@@ -0,0 +1,158 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RestTemplateTransport;
+import ru.practicum.shareit.client.ServerTransport;
+import ru.practicum.shareit.client.WebClientTransport;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class BaseClientTest {
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+    private final TestClient client = new TestClient(new RestTemplateTransport(restTemplate));
+
+    @Test
+    void successfulResponseIsPassedThroughAsBytes() {
+        String json = "[{\"id\":1,\"name\":\"Pokeball\"}]";
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Next-Cursor", "abc");
+        headers.set(HttpHeaders.TRANSFER_ENCODING, "chunked");
+        server.expect(requestTo("/items"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andRespond(withSuccess(json, MediaType.APPLICATION_JSON).headers(headers));
+
+        ResponseEntity<Object> response = client.get("/items", 1L).block();
+
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertArrayEquals(json.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        Assertions.assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        Assertions.assertEquals("abc", response.getHeaders().getFirst("X-Next-Cursor"));
+        Assertions.assertFalse(response.getHeaders().containsKey(HttpHeaders.TRANSFER_ENCODING));
+        server.verify();
+    }
+
+    @Test
+    void errorResponseKeepsStatusBodyAndContentType() {
+        String json = "{\"error\":\"Unknown state: UNSUPPORTED_STATUS\"}";
+        server.expect(requestTo("/bookings"))
+                .andRespond(withStatus(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(json));
+
+        ResponseEntity<Object> response = client.get("/bookings", 1L).block();
+
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        Assertions.assertArrayEquals(json.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        Assertions.assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+    }
+
+    @Test
+    void emptyResponseHasNoBody() {
+        server.expect(requestTo("/users/1")).andRespond(withSuccess());
+
+        ResponseEntity<Object> response = client.delete("/users/1").block();
+
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertFalse(response.hasBody());
+    }
+
+    @Test
+    void streamCopiesServerResponseIntoGatewayResponse() throws IOException {
+        String ndjson = "{\"id\":2}\n{\"id\":1}\n";
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.TRANSFER_ENCODING, "chunked");
+        server.expect(requestTo("/bookings/owner/export?state=ALL"))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andExpect(header(HttpHeaders.ACCEPT, "application/x-ndjson, application/json"))
+                .andRespond(withSuccess(ndjson, MediaType.APPLICATION_NDJSON).headers(headers));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        client.stream("/bookings/owner/export?state={state}", 1L, Map.of("state", "ALL"), response);
+
+        Assertions.assertEquals(HttpStatus.OK.value(), response.getStatus());
+        Assertions.assertEquals(MediaType.APPLICATION_NDJSON_VALUE, response.getContentType());
+        Assertions.assertEquals(ndjson, response.getContentAsString());
+        Assertions.assertFalse(response.containsHeader(HttpHeaders.TRANSFER_ENCODING));
+        server.verify();
+    }
+
+    @Test
+    void streamRelaysErrorResponse() throws IOException {
+        String json = "{\"Not found object\":\"Пользователь не найден\"}";
+        server.expect(requestTo("/items/export"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON)
+                        .body(json.getBytes(StandardCharsets.UTF_8)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        client.stream("/items/export", 1L, null, response);
+
+        Assertions.assertEquals(HttpStatus.NOT_FOUND.value(), response.getStatus());
+        Assertions.assertEquals(MediaType.APPLICATION_JSON_VALUE, response.getContentType());
+        Assertions.assertEquals(json, response.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void reactiveStreamCopiesServerResponseIntoGatewayResponse() throws IOException {
+        String ndjson = "{\"id\":2}\n{\"id\":1}\n";
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE)
+                        .header(HttpHeaders.CONNECTION, "keep-alive")
+                        .body(ndjson)
+                        .build()))
+                .build();
+        TestClient reactiveClient = new TestClient(new WebClientTransport(webClient));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        reactiveClient.stream("/bookings/export?state={state}", 1L, Map.of("state", "ALL"), response);
+
+        Assertions.assertEquals(HttpStatus.OK.value(), response.getStatus());
+        Assertions.assertEquals(MediaType.APPLICATION_NDJSON_VALUE, response.getContentType());
+        Assertions.assertEquals(ndjson, response.getContentAsString());
+        Assertions.assertFalse(response.containsHeader(HttpHeaders.CONNECTION));
+    }
+
+    private static class TestClient extends BaseClient {
+        TestClient(ServerTransport transport) {
+            super(transport);
+        }
+
+        @Override
+        public Mono<ResponseEntity<Object>> get(String path, long userId) {
+            return super.get(path, userId);
+        }
+
+        @Override
+        public Mono<ResponseEntity<Object>> delete(String path) {
+            return super.delete(path);
+        }
+
+        @Override
+        public void stream(String path, long userId, Map<String, Object> parameters, HttpServletResponse response)
+                throws IOException {
+            super.stream(path, userId, parameters, response);
+        }
+    }
+}
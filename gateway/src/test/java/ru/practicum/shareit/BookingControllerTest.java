@@ -12,7 +12,11 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.BookingClient;
 import ru.practicum.shareit.booking.BookingController;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
@@ -20,6 +24,7 @@ import ru.practicum.shareit.booking.dto.BookingState;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -41,8 +46,8 @@ public class BookingControllerTest {
         String bookingJson = objectMapper.writeValueAsString(bookingDto);
         ResponseEntity<Object> response = new ResponseEntity<>(bookingJson, HttpStatus.OK);
         when(bookingClient.bookItem(ArgumentMatchers.anyLong(), ArgumentMatchers.any()))
-                .thenReturn(response);
-        String content = mockMvc.perform(MockMvcRequestBuilders.post("/bookings")
+                .thenReturn(Mono.just(response));
+        String content = performPlain(MockMvcRequestBuilders.post("/bookings")
                         .header("X-Sharer-User-Id", 1)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(getBookingDto(LocalDateTime.now().plusDays(2))))
@@ -132,10 +137,77 @@ public class BookingControllerTest {
         Mockito.verify(bookingClient, Mockito.never()).getBookings(1, BookingState.valueOf("ALL"), -1, 0);
     }
 
+    @Test
+    void getBookingsByCursor() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/bookings?cursor={cursor}&size={size}", "abc", 5)
+                        .header("X-Sharer-User-Id", 1))
+                .andDo(print())
+                .andExpect(status().isOk());
+        Mockito.verify(bookingClient).getBookingsAfter(1, BookingState.ALL, "abc", 5);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/bookings/owner?state={state}&cursor=", "PAST")
+                        .header("X-Sharer-User-Id", 1))
+                .andDo(print())
+                .andExpect(status().isOk());
+        Mockito.verify(bookingClient).ownerItemsBookingListsAfter(1L, BookingState.PAST, "", 10);
+        Mockito.verify(bookingClient, Mockito.never()).ownerItemsBookingLists(1L, BookingState.PAST, 0, 10);
+    }
+
+    @Test
+    void exportBookings() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/bookings/owner/export?state={state}", "past")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk());
+        Mockito.verify(bookingClient).exportOwnerBookings(ArgumentMatchers.eq(1L),
+                ArgumentMatchers.eq(BookingState.PAST), ArgumentMatchers.any());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/bookings/export")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk());
+        Mockito.verify(bookingClient).exportBookings(ArgumentMatchers.eq(1L),
+                ArgumentMatchers.eq(BookingState.ALL), ArgumentMatchers.any());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/bookings/export?state={state}", "SOON")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isBadRequest());
+        Mockito.verifyNoMoreInteractions(bookingClient);
+    }
+
+    @Test
+    void bookItems() throws Exception {
+        List<BookItemRequestDto> bookings = List.of(getBookingDto(LocalDateTime.now().plusDays(2)),
+                getBookingDto(LocalDateTime.now().plusDays(3)));
+        mockMvc.perform(MockMvcRequestBuilders.post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookings))
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(status().isOk());
+        Mockito.verify(bookingClient).bookItems(ArgumentMatchers.eq(1L),
+                ArgumentMatchers.argThat(list -> list.size() == 2));
+
+        List<BookItemRequestDto> withPastEnd = List.of(getBookingDto(LocalDateTime.now().plusDays(2)),
+                getBookingDto(LocalDateTime.now().minusDays(3)));
+        mockMvc.perform(MockMvcRequestBuilders.post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(withPastEnd))
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(status().isBadRequest());
+        Mockito.verify(bookingClient, Mockito.times(1)).bookItems(ArgumentMatchers.anyLong(),
+                ArgumentMatchers.anyList());
+    }
+
     BookItemRequestDto getBookingDto(LocalDateTime end) {
         return new BookItemRequestDto(1,
                 LocalDateTime.now().plusDays(1),
                 end
         );
     }
-}
\ No newline at end of file
+
+    // без профиля reactive готовый Mono отдаётся сразу, без асинхронной обработки
+    private ResultActions performPlain(RequestBuilder builder) throws Exception {
+        return mockMvc.perform(builder)
+                .andExpect(MockMvcResultMatchers.request().asyncNotStarted());
+    }
+}
@@ -12,15 +12,19 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.ItemClient;
 import ru.practicum.shareit.item.ItemController;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 import static org.mockito.Mockito.when;
 
@@ -40,8 +44,8 @@ public class ItemControllerTest {
         ItemDto itemDto = getItemDto("Pokeball");
         String itemJson = objectMapper.writeValueAsString(itemDto);
         ResponseEntity<Object> response = new ResponseEntity<>(itemJson, HttpStatus.OK);
-        when(itemClient.postItem(ArgumentMatchers.any(), ArgumentMatchers.anyLong())).thenReturn(response);
-        String content = mockMvc.perform(MockMvcRequestBuilders.post("/items")
+        when(itemClient.postItem(ArgumentMatchers.any(), ArgumentMatchers.anyLong())).thenReturn(Mono.just(response));
+        String content = performPlain(MockMvcRequestBuilders.post("/items")
                         .header("X-Sharer-User-Id", userId)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(getItemDto("Pokeball")))
@@ -80,8 +84,8 @@ public class ItemControllerTest {
         CommentDto commentDto = new CommentDto(1L, "Nice Pokeball", null, "Ash");
         String commentJson = objectMapper.writeValueAsString(commentDto);
         ResponseEntity<Object> response = new ResponseEntity<>(commentJson, HttpStatus.OK);
-        Mockito.when(itemClient.addComment(ArgumentMatchers.anyLong(), ArgumentMatchers.anyLong(), ArgumentMatchers.any())).thenReturn(response);
-        String content = mockMvc.perform(MockMvcRequestBuilders.post("/items/{itemId}/comment", itemId)
+        Mockito.when(itemClient.addComment(ArgumentMatchers.anyLong(), ArgumentMatchers.anyLong(), ArgumentMatchers.any())).thenReturn(Mono.just(response));
+        String content = performPlain(MockMvcRequestBuilders.post("/items/{itemId}/comment", itemId)
                         .header("X-Sharer-User-Id", userId)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(commentDto))
@@ -142,6 +146,53 @@ public class ItemControllerTest {
         Mockito.verify(itemClient, Mockito.never()).getAllUsersItems(userId, 1, 10);
     }
 
+    @Test
+    void getItemPassesServerBytesThrough() throws Exception {
+        byte[] serverBody = "{\"id\":1,\"name\":\"Pokeball\",\"lastBooking\":null}".getBytes(StandardCharsets.UTF_8);
+        when(itemClient.getItemById(1L, 1L)).thenReturn(Mono.just(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(serverBody)));
+        performPlain(MockMvcRequestBuilders.get("/items/1")
+                        .header("X-Sharer-User-Id", 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.content().bytes(serverBody));
+    }
+
+    @Test
+    void addItems() throws Exception {
+        List<ItemDto> items = List.of(getItemDto("Pokeball"), getItemDto("Great ball"));
+        when(itemClient.postItems(ArgumentMatchers.anyList(), ArgumentMatchers.anyLong()))
+                .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.OK)));
+        performPlain(MockMvcRequestBuilders.post("/items/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(items))
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        Mockito.verify(itemClient).postItems(ArgumentMatchers.argThat(list -> list.size() == 2),
+                ArgumentMatchers.eq(1L));
+    }
+
+    @Test
+    void addItemsWithInvalidItem() throws Exception {
+        List<ItemDto> items = List.of(getItemDto("Pokeball"), getItemDto(" "));
+        mockMvc.perform(MockMvcRequestBuilders.post("/items/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(items))
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        mockMvc.perform(MockMvcRequestBuilders.post("/items/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]")
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        Mockito.verify(itemClient, Mockito.never()).postItems(ArgumentMatchers.anyList(), ArgumentMatchers.anyLong());
+    }
+
     ItemDto getItemDto(String name) {
         return new ItemDto(
                 1L,
@@ -160,8 +211,8 @@ public class ItemControllerTest {
         String itemJson = objectMapper.writeValueAsString(itemDto);
         ResponseEntity<Object> response = new ResponseEntity<>(itemJson, HttpStatus.OK);
         Mockito.when(itemClient.patchItem(ArgumentMatchers.any(), ArgumentMatchers.anyLong(), ArgumentMatchers.anyLong()))
-                .thenReturn(response);
-        String content = mockMvc.perform(MockMvcRequestBuilders.patch("/items/{itemId}", itemId)
+                .thenReturn(Mono.just(response));
+        String content = performPlain(MockMvcRequestBuilders.patch("/items/{itemId}", itemId)
                         .header("X-Sharer-User-Id", userId)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(itemDto))
@@ -173,4 +224,10 @@ public class ItemControllerTest {
                 .getContentAsString();
         Assertions.assertEquals(objectMapper.writeValueAsString(itemDto), content);
     }
-}
\ No newline at end of file
+
+    // без профиля reactive готовый Mono отдаётся сразу, без асинхронной обработки
+    private ResultActions performPlain(RequestBuilder builder) throws Exception {
+        return mockMvc.perform(builder)
+                .andExpect(MockMvcResultMatchers.request().asyncNotStarted());
+    }
+}
@@ -11,6 +11,10 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.ItemRequestClient;
 import ru.practicum.shareit.request.ItemRequestController;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -39,8 +43,8 @@ public class ItemRequestControllerTest {
         ItemRequestDto itemRequestDto = getItemRequestDto();
         String itemRequestJson = objectMapper.writeValueAsString(itemRequestDto);
         ResponseEntity<Object> response = new ResponseEntity<>(itemRequestJson, HttpStatus.OK);
-        when(itemRequestClient.addRequest(anyLong(), any())).thenReturn(response);
-        String content = mockMvc.perform(post("/requests")
+        when(itemRequestClient.addRequest(anyLong(), any())).thenReturn(Mono.just(response));
+        String content = performPlain(post("/requests")
                         .header("X-Sharer-User-Id", 1)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(itemRequestDto))
@@ -103,4 +107,10 @@ public class ItemRequestControllerTest {
                 "request"
         );
     }
-}
\ No newline at end of file
+
+    // без профиля reactive готовый Mono отдаётся сразу, без асинхронной обработки
+    private ResultActions performPlain(RequestBuilder builder) throws Exception {
+        return mockMvc.perform(builder)
+                .andExpect(MockMvcResultMatchers.request().asyncNotStarted());
+    }
+}
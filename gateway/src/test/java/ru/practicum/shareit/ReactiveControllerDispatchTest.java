@@ -0,0 +1,56 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.user.UserClient;
+import ru.practicum.shareit.user.UserController;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * В профиле reactive ответ сервера приходит позже, и контроллер по-прежнему отдаёт Mono асинхронно.
+ */
+@WebMvcTest(controllers = UserController.class)
+@ActiveProfiles("reactive")
+public class ReactiveControllerDispatchTest {
+    private static final String BODY = "{\"id\":1,\"name\":\"Ash\",\"email\":\"ash@gmail.com\"}";
+
+    @Autowired
+    MockMvc mockMvc;
+    @MockBean
+    UserClient userClient;
+
+    @Test
+    void monoIsDispatchedAsynchronously() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        when(userClient.getUser(1L)).thenReturn(Mono.just(
+                new ResponseEntity<>(BODY.getBytes(StandardCharsets.UTF_8), headers, HttpStatus.OK)));
+
+        MvcResult started = mockMvc.perform(MockMvcRequestBuilders.get("/users/{userId}", 1L))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        String content = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(started))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        Assertions.assertEquals(BODY, content);
+    }
+}
@@ -0,0 +1,177 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.client.ServerTransport;
+import ru.practicum.shareit.client.WebClientTransportFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Нагрузка на неблокирующий транспорт через сервер-заглушку, который держит запросы, пока тест их не отпустит:
+ * сотни запросов одновременно находятся в работе, а обслуживают их два потока event loop.
+ */
+public class ReactiveTransportLoadTest {
+    private static final int EVENT_LOOP_THREADS = 2;
+    // только на случай ошибки: в исправном транспорте заглушка отпускается раньше
+    private static final long HOLD_TIMEOUT_S = 10;
+    private static final byte[] BODY = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+    private static final String PENDING_GAUGE = "reactor.netty.connection.provider.pending.connections";
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger releasedByTimeout = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private volatile CountDownLatch arrived;
+    private volatile CountDownLatch release;
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private WebClientTransportFactory factory;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        serverThreads = Executors.newFixedThreadPool(512);
+        server.setExecutor(serverThreads);
+        server.createContext("/items", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            arrived.countDown();
+            try {
+                if (!release.await(HOLD_TIMEOUT_S, TimeUnit.SECONDS)) {
+                    releasedByTimeout.incrementAndGet();
+                }
+                exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, "application/json");
+                exchange.sendResponseHeaders(HttpStatus.OK.value(), BODY.length);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(BODY);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+                exchange.close();
+            }
+        });
+        server.start();
+        Metrics.addRegistry(meterRegistry);
+    }
+
+    @AfterEach
+    void stopServer() {
+        Metrics.removeRegistry(meterRegistry);
+        if (factory != null) {
+            factory.destroy();
+        }
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    /**
+     * Заглушка отвечает, только когда до неё дошли все запросы, поэтому ответы возможны, лишь если
+     * транспорт держит в работе все запросы сразу.
+     */
+    @Test
+    void manyRequestsInFlightOnTwoEventLoopThreads() {
+        int requests = 200;
+        arrived = new CountDownLatch(requests);
+        release = arrived;
+        ServerTransport transport = transport(requests);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        List<ResponseEntity<Object>> responses = Flux.range(1, requests)
+                .flatMap(id -> transport.exchange(HttpMethod.GET, "/{id}", headers(), Map.of("id", id), null)
+                        .doOnNext(response -> threads.add(Thread.currentThread().getName())), requests)
+                .collectList()
+                .block(Duration.ofSeconds(30));
+
+        Assertions.assertNotNull(responses);
+        Assertions.assertEquals(requests, responses.size());
+        Assertions.assertTrue(responses.stream().allMatch(response -> response.getStatusCode() == HttpStatus.OK));
+        Assertions.assertEquals(0, releasedByTimeout.get(),
+                "До заглушки дошли не все запросы, одновременно было только " + maxInFlight.get());
+        Assertions.assertEquals(requests, maxInFlight.get());
+        Assertions.assertTrue(threads.size() <= EVENT_LOOP_THREADS, "Ответы пришли в потоках " + threads);
+        Assertions.assertTrue(threads.stream().allMatch(name -> name.startsWith("shareit-gateway-http")),
+                "Ответы пришли в потоках " + threads);
+    }
+
+    /**
+     * Заглушка держит первые запросы, пока остальные не встанут в очередь пула за соединением:
+     * к этому моменту на сервере ровно столько запросов, сколько соединений в пуле.
+     */
+    @Test
+    void connectionPoolBoundsConcurrentRequestsToServer() throws InterruptedException {
+        int maxConnections = 10;
+        int requests = 50;
+        arrived = new CountDownLatch(maxConnections);
+        release = new CountDownLatch(1);
+        ServerTransport transport = transport(maxConnections);
+
+        CompletableFuture<List<ResponseEntity<Object>>> result = Flux.range(1, requests)
+                .flatMap(id -> transport.exchange(HttpMethod.GET, "/{id}", headers(), Map.of("id", id), null),
+                        requests)
+                .collectList()
+                .toFuture();
+        Assertions.assertTrue(arrived.await(HOLD_TIMEOUT_S, TimeUnit.SECONDS), "Запросы не дошли до заглушки");
+        awaitPending(requests - maxConnections);
+        int held = inFlight.get();
+        release.countDown();
+        List<ResponseEntity<Object>> responses = result.join();
+
+        Assertions.assertEquals(maxConnections, held);
+        Assertions.assertEquals(requests, responses.size());
+        Assertions.assertTrue(maxInFlight.get() <= maxConnections,
+                "Соединений к серверу больше лимита пула: " + maxInFlight.get());
+    }
+
+    private void awaitPending(int pending) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(HOLD_TIMEOUT_S);
+        while (pending() < pending) {
+            Assertions.assertTrue(System.nanoTime() < deadline,
+                    "В очереди пула " + pending() + " запросов вместо " + pending);
+            Thread.sleep(10);
+        }
+    }
+
+    private double pending() {
+        return meterRegistry.find(PENDING_GAUGE).gauges().stream().mapToDouble(Gauge::value).sum();
+    }
+
+    private ServerTransport transport(int maxConnections) {
+        factory = new WebClientTransportFactory("http://localhost:" + server.getAddress().getPort(),
+                WebClient.builder(), maxConnections, 1000, Duration.ofSeconds(10), EVENT_LOOP_THREADS);
+        return factory.forPrefix("/items");
+    }
+
+    private HttpHeaders headers() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", "1");
+        return headers;
+    }
+}
@@ -0,0 +1,238 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerTransport;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+public class RequestCoalescerTest {
+    private static final int CALLERS = 20;
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+    private final RequestCoalescer coalescer = new RequestCoalescer(true);
+    private volatile boolean failUpstream;
+    private final ServerTransport transport = (method, path, headers, parameters, body) -> Mono.fromCallable(() -> {
+        int call = upstreamCalls.incrementAndGet();
+        if (method == HttpMethod.GET) {
+            release.await(10, TimeUnit.SECONDS);
+        }
+        if (failUpstream) {
+            throw new IllegalStateException("server unavailable");
+        }
+        String response = method + " " + path + " " + parameters + " call=" + call
+                + " user=" + headers.getFirst("X-Sharer-User-Id");
+        return ResponseEntity.ok(response.getBytes(StandardCharsets.UTF_8));
+    });
+    private final TestClient client = new TestClient(transport, coalescer);
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void identicalConcurrentGetsMakeOneUpstreamCall() throws Exception {
+        List<ResponseEntity<Object>> responses = callConcurrently(userId -> client.get("/1", 1L));
+
+        Assertions.assertEquals(1, upstreamCalls.get());
+        Assertions.assertEquals(CALLERS, responses.size());
+        Assertions.assertTrue(responses.stream().allMatch(response -> response == responses.get(0)));
+        Assertions.assertEquals(1, coalescer.getLeaders());
+        Assertions.assertEquals(CALLERS - 1, coalescer.getFollowers());
+        Assertions.assertEquals((double) (CALLERS - 1) / CALLERS, coalescer.getCollapseRatio(), 1e-9);
+
+        client.get("/1", 1L).block();
+        Assertions.assertEquals(2, upstreamCalls.get(), "Завершённый запрос не должен отдавать ответ повторно");
+    }
+
+    @Test
+    void responsesOfDifferentUsersAreNotShared() throws Exception {
+        List<ResponseEntity<Object>> responses = callConcurrently(userId -> client.get("/1", userId % 2 + 1));
+
+        Assertions.assertEquals(2, upstreamCalls.get());
+        for (int i = 0; i < CALLERS; i++) {
+            Assertions.assertTrue(body(responses.get(i)).endsWith("user=" + (i % 2 + 1)), body(responses.get(i)));
+        }
+    }
+
+    @Test
+    void differentQueriesAreNotShared() throws Exception {
+        callConcurrently(userId -> client.get("/search?text={text}", 1L, Map.of("text", "drill" + userId % 3)));
+
+        Assertions.assertEquals(3, upstreamCalls.get());
+    }
+
+    @Test
+    void sharedGetIsCollapsedAcrossUsers() throws Exception {
+        List<ResponseEntity<Object>> responses = callConcurrently(userId ->
+                client.getShared("/search?text={text}", userId, Map.of("text", "drill")));
+
+        Assertions.assertEquals(1, upstreamCalls.get());
+        Assertions.assertTrue(responses.stream().allMatch(response -> response == responses.get(0)));
+    }
+
+    @Test
+    void upstreamErrorReachesEveryWaiter() throws Exception {
+        failUpstream = true;
+        List<Future<ResponseEntity<Object>>> futures = submitConcurrently(userId -> client.get("/1", 1L));
+
+        for (Future<ResponseEntity<Object>> future : futures) {
+            ExecutionException exception = Assertions.assertThrows(ExecutionException.class,
+                    () -> future.get(10, TimeUnit.SECONDS));
+            Assertions.assertEquals("server unavailable", exception.getCause().getMessage());
+        }
+        Assertions.assertEquals(1, upstreamCalls.get());
+
+        failUpstream = false;
+        Assertions.assertNotNull(client.get("/1", 1L).block());
+        Assertions.assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void getAfterCompletedWriteDoesNotJoinEarlierFlight() throws Exception {
+        Future<ResponseEntity<Object>> beforeWrite = callers.submit(() -> client.get("/1", 1L).block());
+        awaitUpstreamCalls(1);
+
+        client.approve("/1", 1L).block();
+        Future<ResponseEntity<Object>> afterWrite = callers.submit(() -> client.get("/1", 1L).block());
+        awaitUpstreamCalls(3);
+        release.countDown();
+
+        Assertions.assertTrue(body(beforeWrite.get(10, TimeUnit.SECONDS)).contains(" call=1 "));
+        Assertions.assertTrue(body(afterWrite.get(10, TimeUnit.SECONDS)).contains(" call=3 "));
+        Assertions.assertEquals(2, coalescer.getLeaders());
+        Assertions.assertEquals(0, coalescer.getFollowers());
+
+        client.get("/1", 1L).block();
+        Assertions.assertEquals(4, upstreamCalls.get(), "Старый запрос не должен удалить чужую запись");
+    }
+
+    /**
+     * Бронирование не меняет результаты поиска вещей: начатый поиск продолжает принимать подписчиков,
+     * а запрос вещи, в которой видны последнее и ближайшее бронирования, после записи выполняется заново.
+     */
+    @Test
+    void bookingWriteKeepsSearchFlightAndForgetsItemFlight() throws Exception {
+        TestClient bookings = new TestClient("/bookings", transport, coalescer);
+        Map<String, Object> search = Map.of("text", "drill");
+        Future<ResponseEntity<Object>> searchBefore = callers.submit(() ->
+                client.getShared("/search?text={text}", 1L, search).block());
+        Future<ResponseEntity<Object>> itemBefore = callers.submit(() -> client.get("/1", 1L).block());
+        awaitUpstreamCalls(2);
+
+        bookings.approve("/1", 1L).block();
+        Future<ResponseEntity<Object>> searchAfter = callers.submit(() ->
+                client.getShared("/search?text={text}", 2L, search).block());
+        Future<ResponseEntity<Object>> itemAfter = callers.submit(() -> client.get("/1", 1L).block());
+        awaitUpstreamCalls(4);
+        release.countDown();
+
+        Assertions.assertSame(searchBefore.get(10, TimeUnit.SECONDS), searchAfter.get(10, TimeUnit.SECONDS));
+        Assertions.assertNotSame(itemBefore.get(10, TimeUnit.SECONDS), itemAfter.get(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(3, coalescer.getLeaders());
+        Assertions.assertEquals(1, coalescer.getFollowers());
+    }
+
+    @Test
+    void disabledCoalescerForwardsEveryRequest() throws Exception {
+        TestClient plain = new TestClient(transport, new RequestCoalescer(false));
+        release.countDown();
+
+        for (int i = 0; i < 5; i++) {
+            plain.get("/1", 1L).block();
+        }
+
+        Assertions.assertEquals(5, upstreamCalls.get());
+    }
+
+    private List<ResponseEntity<Object>> callConcurrently(LongFunction<Mono<ResponseEntity<Object>>> call)
+            throws Exception {
+        List<ResponseEntity<Object>> responses = new ArrayList<>();
+        for (Future<ResponseEntity<Object>> future : submitConcurrently(call)) {
+            responses.add(future.get(10, TimeUnit.SECONDS));
+        }
+        return responses;
+    }
+
+    /**
+     * Запускает запросы и отпускает сервер только после того, как все они встали в ожидание.
+     */
+    private List<Future<ResponseEntity<Object>>> submitConcurrently(LongFunction<Mono<ResponseEntity<Object>>> call)
+            throws InterruptedException {
+        List<Future<ResponseEntity<Object>>> futures = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            long userId = i;
+            Callable<ResponseEntity<Object>> task = () -> call.apply(userId).block();
+            futures.add(callers.submit(task));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (coalescer.getLeaders() + coalescer.getFollowers() < CALLERS && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        return futures;
+    }
+
+    private void awaitUpstreamCalls(int calls) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (upstreamCalls.get() < calls && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        Assertions.assertEquals(calls, upstreamCalls.get());
+    }
+
+    private static String body(ResponseEntity<Object> response) {
+        return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+    }
+
+    private static class TestClient extends BaseClient {
+        TestClient(ServerTransport transport, RequestCoalescer coalescer) {
+            this("/items", transport, coalescer);
+        }
+
+        TestClient(String apiPrefix, ServerTransport transport, RequestCoalescer coalescer) {
+            super(apiPrefix, transport, coalescer, ResponseCache.DISABLED);
+        }
+
+        @Override
+        public Mono<ResponseEntity<Object>> get(String path, long userId) {
+            return super.get(path, userId);
+        }
+
+        Mono<ResponseEntity<Object>> get(String path, long userId, Map<String, Object> parameters) {
+            return super.get(path, userId, parameters);
+        }
+
+        Mono<ResponseEntity<Object>> approve(String path, long userId) {
+            return super.patch(path, userId);
+        }
+
+        @Override
+        public Mono<ResponseEntity<Object>> getShared(String path, long userId, Map<String, Object> parameters) {
+            return super.getShared(path, userId, parameters);
+        }
+    }
+}
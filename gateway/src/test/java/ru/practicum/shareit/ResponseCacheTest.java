@@ -0,0 +1,204 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerTransport;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ResponseCacheTest {
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private volatile HttpStatus upstreamStatus = HttpStatus.OK;
+    private final ServerTransport transport = (method, path, headers, parameters, body) -> Mono.fromCallable(() -> {
+        upstreamCalls.incrementAndGet();
+        String response = method + " " + path + " " + parameters + " user=" + headers.getFirst("X-Sharer-User-Id");
+        return ResponseEntity.status(upstreamStatus).body(response.getBytes(StandardCharsets.UTF_8));
+    });
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ResponseCache responseCache = new ResponseCache(true, 100, Duration.ofMinutes(1));
+    private final TestClient items = new TestClient("/items", transport, responseCache);
+    private final TestClient requests = new TestClient("/requests", transport, responseCache);
+    private final TestClient bookings = new TestClient("/bookings", transport, responseCache);
+
+    @Test
+    void sharedGetIsServedFromCacheForAllUsers() {
+        ResponseEntity<Object> first = items.sharedGet("/search?text={text}", 1L, Map.of("text", "drill"));
+        ResponseEntity<Object> second = items.sharedGet("/search?text={text}", 2L, Map.of("text", "drill"));
+
+        Assertions.assertEquals(1, upstreamCalls.get());
+        Assertions.assertSame(first, second);
+    }
+
+    @Test
+    void keyDoesNotDependOnQueryParameterOrder() {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("text", "drill");
+        parameters.put("from", 0);
+        items.sharedGet("/search?text={text}&from={from}", 1L, parameters);
+        items.sharedGet("/search?from={from}&text={text}", 1L, parameters);
+
+        Assertions.assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void userScopedGetIsCachedPerUser() {
+        Map<String, Object> page = Map.of("from", 0, "size", 10);
+        requests.cachedGet("/all?from={from}&size={size}", 1L, page);
+        requests.cachedGet("/all?from={from}&size={size}", 1L, page);
+        ResponseEntity<Object> otherUser = requests.cachedGet("/all?from={from}&size={size}", 2L, page);
+
+        Assertions.assertEquals(2, upstreamCalls.get());
+        Assertions.assertTrue(body(otherUser).endsWith("user=2"));
+    }
+
+    @Test
+    void writesToItemsOrRequestsInvalidateCache() {
+        items.sharedGet("/search?text={text}", 1L, Map.of("text", "drill"));
+        items.write("", 1L, Map.of("name", "Drill"));
+        items.sharedGet("/search?text={text}", 1L, Map.of("text", "drill"));
+        requests.update("/1", 1L, Map.of());
+        items.sharedGet("/search?text={text}", 1L, Map.of("text", "drill"));
+
+        Assertions.assertEquals(5, upstreamCalls.get());
+    }
+
+    @Test
+    void bookingWritesKeepCache() {
+        items.sharedGet("/search?text={text}", 1L, Map.of("text", "drill"));
+        bookings.write("", 1L, Map.of("itemId", 1));
+        items.sharedGet("/search?text={text}", 1L, Map.of("text", "drill"));
+
+        Assertions.assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void errorResponsesAreNotCached() {
+        upstreamStatus = HttpStatus.NOT_FOUND;
+        requests.cachedGet("/all", 1L, Map.of());
+        requests.cachedGet("/all", 1L, Map.of());
+
+        Assertions.assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void cacheIsBoundedAndReportsMetrics() {
+        ResponseCache small = new ResponseCache(true, 2, Duration.ofMinutes(1));
+        small.bindTo(registry);
+        TestClient client = new TestClient("/items", transport, small);
+
+        for (int i = 0; i < 10; i++) {
+            client.sharedGet("/search?text={text}", 1L, Map.of("text", "item" + i));
+        }
+        client.sharedGet("/search?text={text}", 1L, Map.of("text", "item9"));
+        client.write("", 1L, Map.of());
+
+        Assertions.assertTrue(registry.get("cache.size").tag("cache", "gatewayResponses").gauge().value() <= 2);
+        Assertions.assertTrue(registry.get("cache.evictions").tag("cache", "gatewayResponses")
+                .functionCounter().count() >= 8);
+        Assertions.assertEquals(1, registry.get("cache.gets").tags("cache", "gatewayResponses", "result", "hit")
+                .functionCounter().count());
+        Assertions.assertEquals(1, registry.get("gateway.response.cache.invalidations").functionCounter().count());
+    }
+
+    @Test
+    void entriesExpireAfterTimeToLive() throws InterruptedException {
+        ResponseCache shortLived = new ResponseCache(true, 100, Duration.ofMillis(50));
+        TestClient client = new TestClient("/items", transport, shortLived);
+
+        client.sharedGet("/search?text={text}", 1L, Map.of("text", "drill"));
+        Thread.sleep(100);
+        client.sharedGet("/search?text={text}", 1L, Map.of("text", "drill"));
+
+        Assertions.assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void responseOfFlightStartedBeforeWriteIsNotCachedAfterIt() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        ServerTransport slowReads = (method, path, headers, parameters, body) -> Mono.fromCallable(() -> {
+            int call = calls.incrementAndGet();
+            if (method == HttpMethod.GET) {
+                release.await(10, TimeUnit.SECONDS);
+            }
+            return ResponseEntity.ok(("call=" + call).getBytes(StandardCharsets.UTF_8));
+        });
+        TestClient client = new TestClient("/items", slowReads, new RequestCoalescer(true), responseCache);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<ResponseEntity<Object>> beforeWrite = callers.submit(() ->
+                    client.sharedGet("/search?text={text}", 1L, Map.of("text", "drill")));
+            awaitCalls(calls, 1);
+            client.write("", 1L, Map.of("name", "Drill"));
+            Future<ResponseEntity<Object>> afterWrite = callers.submit(() ->
+                    client.sharedGet("/search?text={text}", 2L, Map.of("text", "drill")));
+            awaitCalls(calls, 3);
+            release.countDown();
+
+            Assertions.assertEquals("call=1", body(beforeWrite.get(10, TimeUnit.SECONDS)));
+            Assertions.assertEquals("call=3", body(afterWrite.get(10, TimeUnit.SECONDS)));
+            Assertions.assertEquals("call=3", body(client.sharedGet("/search?text={text}", 3L,
+                    Map.of("text", "drill"))));
+            Assertions.assertEquals(3, calls.get());
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+        }
+    }
+
+    private static void awaitCalls(AtomicInteger calls, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (calls.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        Assertions.assertEquals(expected, calls.get());
+    }
+
+    private static String body(ResponseEntity<Object> response) {
+        return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+    }
+
+    private static class TestClient extends BaseClient {
+        TestClient(String apiPrefix, ServerTransport transport, ResponseCache responseCache) {
+            this(apiPrefix, transport, RequestCoalescer.DISABLED, responseCache);
+        }
+
+        TestClient(String apiPrefix, ServerTransport transport, RequestCoalescer coalescer,
+                   ResponseCache responseCache) {
+            super(apiPrefix, transport, coalescer, responseCache);
+        }
+
+        ResponseEntity<Object> sharedGet(String path, long userId, Map<String, Object> parameters) {
+            return super.getShared(path, userId, parameters).block();
+        }
+
+        ResponseEntity<Object> cachedGet(String path, long userId, Map<String, Object> parameters) {
+            return super.getCached(path, userId, parameters).block();
+        }
+
+        ResponseEntity<Object> write(String path, long userId, Map<String, Object> body) {
+            return super.post(path, userId, body).block();
+        }
+
+        ResponseEntity<Object> update(String path, long userId, Map<String, Object> body) {
+            return super.patch(path, userId, (Object) body).block();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import ru.practicum.shareit.client.RestTemplateTransportFactory;
+import ru.practicum.shareit.client.ServerTransport;
+import ru.practicum.shareit.config.ServerHttpClientConfig;
+import ru.practicum.shareit.config.ServerHttpClientProperties;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Блокирующий режим шлюза под нагрузкой: {@value #CALLERS} потоков непрерывно ходят на сервер-заглушку,
+ * фоновый поток следит за очередью ожидания соединения в общем пуле. Для проверки очереди заглушка
+ * держит запросы, пока тест их не отпустит.
+ */
+public class ServerConnectionPoolLoadTest {
+    private static final int CALLERS = 32;
+    private static final long LOAD_MS = 1500;
+    private static final long SERVER_DELAY_MS = 5;
+    // только на случай ошибки: в исправном тесте заглушка отпускается раньше
+    private static final long HOLD_TIMEOUT_S = 10;
+    private static final byte[] BODY = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+    private final ServerHttpClientConfig config = new ServerHttpClientConfig();
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+    private volatile CountDownLatch arrived;
+    private volatile CountDownLatch release;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 256);
+        serverThreads = Executors.newFixedThreadPool(CALLERS * 2);
+        server.setExecutor(serverThreads);
+        server.createContext("/items", exchange -> {
+            try {
+                if (release != null) {
+                    arrived.countDown();
+                    release.await(HOLD_TIMEOUT_S, TimeUnit.SECONDS);
+                } else {
+                    Thread.sleep(SERVER_DELAY_MS);
+                }
+                exchange.sendResponseHeaders(HttpStatus.OK.value(), BODY.length);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(BODY);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        httpClient.close();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void sharedPoolHasNoPendingAcquisitionsUnderLoad() throws Exception {
+        ServerHttpClientProperties properties = new ServerHttpClientProperties();
+
+        int maxPending = runLoad(properties);
+
+        Assertions.assertEquals(0, maxPending, "Запросы ждали свободного соединения в пуле");
+        Assertions.assertTrue(connectionManager.getTotalStats().getAvailable() <= CALLERS);
+    }
+
+    /**
+     * Пока заглушка держит два запроса, остальные вызывающие стоят в очереди пула, а не открывают
+     * новые соединения; после освобождения все получают ответ в пределах обычного таймаута ожидания.
+     */
+    @Test
+    void perRouteLimitMakesRequestsWaitForConnections() throws Exception {
+        int maxPerRoute = 2;
+        int callers = 6;
+        ServerHttpClientProperties properties = new ServerHttpClientProperties();
+        properties.setMaxPerRoute(maxPerRoute);
+        ServerTransport transport = transport(properties);
+        arrived = new CountDownLatch(maxPerRoute);
+        release = new CountDownLatch(1);
+
+        ExecutorService threads = Executors.newFixedThreadPool(callers);
+        List<Future<HttpStatus>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(threads.submit(() -> transport.exchange(HttpMethod.GET, "/1", headers(), null, null)
+                    .block()
+                    .getStatusCode()));
+        }
+        Assertions.assertTrue(arrived.await(HOLD_TIMEOUT_S, TimeUnit.SECONDS), "Запросы не дошли до заглушки");
+        awaitPending(callers - maxPerRoute);
+        PoolStats held = connectionManager.getTotalStats();
+        release.countDown();
+        for (Future<HttpStatus> result : results) {
+            Assertions.assertEquals(HttpStatus.OK, result.get(HOLD_TIMEOUT_S, TimeUnit.SECONDS));
+        }
+        threads.shutdown();
+
+        Assertions.assertEquals(maxPerRoute, held.getLeased());
+        Assertions.assertEquals(callers - maxPerRoute, held.getPending());
+    }
+
+    private void awaitPending(int pending) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(HOLD_TIMEOUT_S);
+        while (connectionManager.getTotalStats().getPending() < pending) {
+            Assertions.assertTrue(System.nanoTime() < deadline, "В очереди пула "
+                    + connectionManager.getTotalStats().getPending() + " запросов вместо " + pending);
+            Thread.sleep(10);
+        }
+    }
+
+    private ServerTransport transport(ServerHttpClientProperties properties) {
+        connectionManager = config.serverConnectionManager(properties);
+        httpClient = config.serverHttpClient(connectionManager, properties);
+        return new RestTemplateTransportFactory(
+                "http://localhost:" + server.getAddress().getPort(), new RestTemplateBuilder(), httpClient)
+                .forPrefix("/items");
+    }
+
+    private static HttpHeaders headers() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", "1");
+        return headers;
+    }
+
+    private int runLoad(ServerHttpClientProperties properties) throws Exception {
+        ServerTransport transport = transport(properties);
+        HttpHeaders headers = headers();
+
+        AtomicInteger maxPending = new AtomicInteger();
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS + 1);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(LOAD_MS);
+        Future<?> sampler = callers.submit(() -> {
+            while (System.nanoTime() < deadline) {
+                maxPending.accumulateAndGet(connectionManager.getTotalStats().getPending(), Math::max);
+                Thread.onSpinWait();
+            }
+        });
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(callers.submit(() -> {
+                int completed = 0;
+                while (System.nanoTime() < deadline) {
+                    HttpStatus status = transport.exchange(HttpMethod.GET, "/1", headers, null, null)
+                            .block()
+                            .getStatusCode();
+                    Assertions.assertEquals(HttpStatus.OK, status);
+                    completed++;
+                }
+                return completed;
+            }));
+        }
+        int completed = 0;
+        for (Future<Integer> result : results) {
+            completed += result.get(30, TimeUnit.SECONDS);
+        }
+        sampler.get(30, TimeUnit.SECONDS);
+        callers.shutdown();
+
+        Assertions.assertTrue(completed > CALLERS, "Под нагрузкой выполнено только " + completed + " запросов");
+        return maxPending.get();
+    }
+}
@@ -6,10 +6,15 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.UserClient;
 import ru.practicum.shareit.user.UserController;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -34,13 +39,30 @@ public class UserControllerTest {
     @MockBean
     UserClient userClient;
 
+    @Test
+    void getUserPassesServerBytesWithoutAsyncDispatch() throws Exception {
+        byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        when(userClient.getUser(1L)).thenReturn(Mono.just(new ResponseEntity<>(body, headers, HttpStatus.NOT_FOUND)));
+
+        String result = performPlain(get("/users/{userId}", 1L))
+                .andExpect(status().isNotFound())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        Assertions.assertEquals("{\"id\":1}", result);
+    }
+
     @Test
     void addUser() throws Exception {
         UserDto userDto = new UserDto(1L, "Ash", "ash@gmail.com");
         String userJson = objectMapper.writeValueAsString(userDto);
         ResponseEntity<Object> response = new ResponseEntity<>(userJson, HttpStatus.OK);
-        when(userClient.postUser(any())).thenReturn(response);
-        String result = mockMvc.perform(
+        when(userClient.postUser(any())).thenReturn(Mono.just(response));
+        String result = performPlain(
                         post("/users")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(userDto))
@@ -59,7 +81,7 @@ public class UserControllerTest {
         UserDto userDto = new UserDto(1L, "Ash", "gmail.com");
         String userJson = objectMapper.writeValueAsString(userDto);
         ResponseEntity<Object> response = new ResponseEntity<>(userJson, HttpStatus.OK);
-        when(userClient.postUser(any())).thenReturn(response);
+        when(userClient.postUser(any())).thenReturn(Mono.just(response));
         mockMvc.perform(
                         post("/users")
                                 .contentType(MediaType.APPLICATION_JSON)
@@ -74,7 +96,7 @@ public class UserControllerTest {
         verify(userClient, never()).postUser(any());
         userJson = objectMapper.writeValueAsString(new UserDto(null, "Misty", null));
         response = new ResponseEntity<>(userJson, HttpStatus.OK);
-        when(userClient.postUser(any())).thenReturn(response);
+        when(userClient.postUser(any())).thenReturn(Mono.just(response));
         mockMvc.perform(
                         post("/users")
                                 .contentType(MediaType.APPLICATION_JSON)
@@ -95,8 +117,8 @@ public class UserControllerTest {
         UserDto userDtoUpdate = new UserDto(1L, "Misty", "misty@gmail.com");
         String userJson = objectMapper.writeValueAsString(userDtoUpdate);
         ResponseEntity<Object> response = new ResponseEntity<>(userJson, HttpStatus.OK);
-        when(userClient.patchUser(any(), anyLong())).thenReturn(response);
-        String result = mockMvc.perform(
+        when(userClient.patchUser(any(), anyLong())).thenReturn(Mono.just(response));
+        String result = performPlain(
                         patch("/users/{userId}", 1L)
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(userDto))
@@ -139,4 +161,10 @@ public class UserControllerTest {
 
         verify(userClient).delete(userId);
     }
-}
\ No newline at end of file
+
+    // без профиля reactive готовый Mono отдаётся сразу, без асинхронной обработки
+    private ResultActions performPlain(RequestBuilder builder) throws Exception {
+        return mockMvc.perform(builder)
+                .andExpect(MockMvcResultMatchers.request().asyncNotStarted());
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.config;
+
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItGateway;
+
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Исполнитель запросов Tomcat при выключенном и включённом shareit.threads.virtual. На JDK младше 21
+ * включённый режим не должен мешать старту: остаётся пул Tomcat.
+ */
+public class VirtualThreadsConfigTest {
+
+    @Test
+    void tomcatPoolWhenDisabled() {
+        try (ConfigurableApplicationContext context = start(false)) {
+            assertTrue(context.getBeansOfType(VirtualThreadsConfig.class).isEmpty());
+            assertInstanceOf(ThreadPoolExecutor.class, tomcatExecutor(context));
+        }
+    }
+
+    @Test
+    void virtualThreadsWhenEnabledOrTomcatPoolBeforeJdk21() {
+        try (ConfigurableApplicationContext context = start(true)) {
+            assertNotNull(context.getBean(VirtualThreadsConfig.class));
+            Executor executor = tomcatExecutor(context);
+            if (Runtime.version().feature() >= 21) {
+                assertFalse(executor instanceof ThreadPoolExecutor, executor::toString);
+            } else {
+                assertInstanceOf(ThreadPoolExecutor.class, executor);
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtual) {
+        return new SpringApplicationBuilder(ShareItGateway.class)
+                .run("--server.port=0",
+                        "--shareit.threads.virtual=" + virtual,
+                        "--shareit.threads.trace-pinning=none");
+    }
+
+    private static Executor tomcatExecutor(ConfigurableApplicationContext context) {
+        TomcatWebServer webServer = (TomcatWebServer) ((ServletWebServerApplicationContext) context).getWebServer();
+        return webServer.getTomcat().getConnector().getProtocolHandler().getExecutor();
+    }
+}
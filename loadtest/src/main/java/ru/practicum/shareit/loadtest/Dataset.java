@@ -0,0 +1,92 @@
+package ru.practicum.shareit.loadtest;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Созданные при заполнении пользователи и вещи. Вещь с индексом i принадлежит пользователю itemOwners[i].
+ */
+final class Dataset {
+    static final String[] WORDS = {"drill", "saw", "ladder", "tent", "kayak", "camera", "bike", "grill"};
+
+    final long[] users;
+    final long[] items;
+    final long[] itemOwners;
+    final LocalDateTime seededUntil;
+
+    private Dataset(long[] users, long[] items, long[] itemOwners, LocalDateTime seededUntil) {
+        this.users = users;
+        this.items = items;
+        this.itemOwners = itemOwners;
+        this.seededUntil = seededUntil;
+    }
+
+    /**
+     * Пользователи, вещи, запросы и бронирования через API шлюза. Подтверждена половина бронирований,
+     * остальные ждут ответа владельца.
+     */
+    static Dataset seed(ShareItClient client, LoadTestConfig config) throws Exception {
+        long[] users = new long[config.users];
+        for (int u = 0; u < users.length; u++) {
+            users[u] = client.post("/users", 0, "{\"name\":\"Load User\",\"email\":\"user" + u + "@load.test\"}")
+                    .id();
+        }
+        long[] requests = new long[config.requests];
+        for (int r = 0; r < requests.length; r++) {
+            requests[r] = client.post("/requests", users[r % users.length],
+                    "{\"description\":\"need a " + word(r) + "\"}").id();
+        }
+
+        int itemCount = users.length * config.itemsPerUser;
+        long[] items = new long[itemCount];
+        long[] itemOwners = new long[itemCount];
+        for (int u = 0; u < users.length; u++) {
+            StringBuilder batch = new StringBuilder("[");
+            for (int i = 0; i < config.itemsPerUser; i++) {
+                int index = u * config.itemsPerUser + i;
+                String requestId = requests.length > 0 && index % 5 == 0
+                        ? ",\"requestId\":" + requests[index % requests.length] : "";
+                batch.append(i == 0 ? "" : ",")
+                        .append("{\"name\":\"").append(word(index)).append(' ').append(index)
+                        .append("\",\"description\":\"good ").append(word(index + 3))
+                        .append(" for rent\",\"available\":true").append(requestId).append('}');
+                itemOwners[index] = users[u];
+            }
+            long[] ids = client.post("/items/batch", users[u], batch.append(']').toString()).ids(config.itemsPerUser);
+            System.arraycopy(ids, 0, items, u * config.itemsPerUser, config.itemsPerUser);
+        }
+
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusDays(1);
+        for (int i = 0; i < itemCount; i++) {
+            for (int b = 0; b < config.bookingsPerItem; b++) {
+                long booker = users[(i + b + 1) % users.length];
+                if (booker == itemOwners[i]) {
+                    booker = users[(i + b + 2) % users.length];
+                }
+                LocalDateTime from = start.plusHours(2L * b);
+                long booking = client.post("/bookings", booker, booking(items[i], from, from.plusHours(1))).id();
+                if (b % 2 == 0) {
+                    client.patch("/bookings/" + booking + "?approved=true", itemOwners[i]);
+                }
+            }
+        }
+        return new Dataset(users, items, itemOwners, start.plusHours(2L * config.bookingsPerItem));
+    }
+
+    static String booking(long itemId, LocalDateTime start, LocalDateTime end) {
+        return "{\"itemId\":" + itemId + ",\"start\":\"" + start + "\",\"end\":\"" + end + "\"}";
+    }
+
+    static String word(int index) {
+        return WORDS[index % WORDS.length];
+    }
+
+    int randomItem() {
+        return ThreadLocalRandom.current().nextInt(items.length);
+    }
+
+    long randomUser() {
+        return users[ThreadLocalRandom.current().nextInt(users.length)];
+    }
+}
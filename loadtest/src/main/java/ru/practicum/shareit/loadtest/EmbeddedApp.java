@@ -0,0 +1,86 @@
+package ru.practicum.shareit.loadtest;
+
+import org.springframework.boot.loader.JarLauncher;
+import org.springframework.boot.loader.archive.JarFileArchive;
+import org.springframework.boot.loader.jar.JarFile;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.jar.Manifest;
+
+/**
+ * Приложение Spring Boot из исполняемого jar, запущенное в этом же процессе. У сервера и шлюза
+ * совпадают имена части классов, поэтому каждое поднимается в собственном загрузчике классов.
+ */
+final class EmbeddedApp implements Closeable {
+    private final String name;
+    private final Closeable context;
+
+    private EmbeddedApp(String name, Closeable context) {
+        this.name = name;
+        this.context = context;
+    }
+
+    static EmbeddedApp start(String name, Path jar, List<String> args) throws Exception {
+        JarFile.registerUrlProtocolHandler();
+        Launcher launcher = new Launcher(new JarFileArchive(jar.toFile()));
+        ClassLoader classLoader = launcher.classLoader();
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try {
+            disableTomcatUrlFactory(classLoader);
+            Class<?> mainClass = Class.forName(launcher.startClass(), false, classLoader);
+            Class<?> application = Class.forName("org.springframework.boot.SpringApplication", false, classLoader);
+            Object context = application.getMethod("run", Class.class, String[].class)
+                    .invoke(null, mainClass, args.toArray(new String[0]));
+            return new EmbeddedApp(name, (Closeable) context);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Не удалось запустить " + name, e.getCause());
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+
+    /**
+     * Tomcat регистрирует фабрику URL на всю JVM, и второй Tomcat в том же процессе не стартует.
+     * Фабрика нужна только для war-ресурсов, которых у приложений нет.
+     */
+    private static void disableTomcatUrlFactory(ClassLoader classLoader) throws ReflectiveOperationException {
+        try {
+            Class.forName("org.apache.catalina.webresources.TomcatURLStreamHandlerFactory", true, classLoader)
+                    .getMethod("disable")
+                    .invoke(null);
+        } catch (ClassNotFoundException e) {
+            // приложение без Tomcat
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private static class Launcher extends JarLauncher {
+        Launcher(JarFileArchive archive) {
+            super(archive);
+        }
+
+        ClassLoader classLoader() throws Exception {
+            return createClassLoader(getClassPathArchivesIterator());
+        }
+
+        String startClass() throws IOException {
+            Manifest manifest = getArchive().getManifest();
+            return manifest.getMainAttributes().getValue("Start-Class");
+        }
+    }
+}
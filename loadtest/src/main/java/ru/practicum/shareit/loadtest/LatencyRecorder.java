@@ -0,0 +1,68 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Задержки одного клиентского потока по эндпоинтам, в микросекундах. Потоки пишут каждый в свой
+ * экземпляр, после прогона экземпляры сливаются в общую статистику.
+ */
+final class LatencyRecorder {
+    private final Map<String, Samples> samples = new LinkedHashMap<>();
+
+    void record(String endpoint, long micros, boolean ok) {
+        Samples endpointSamples = samples.computeIfAbsent(endpoint, e -> new Samples());
+        if (ok) {
+            endpointSamples.add(micros);
+        } else {
+            endpointSamples.errors++;
+        }
+    }
+
+    void mergeInto(LatencyRecorder total) {
+        samples.forEach((endpoint, source) -> {
+            Samples target = total.samples.computeIfAbsent(endpoint, e -> new Samples());
+            for (int i = 0; i < source.size; i++) {
+                target.add(source.values[i]);
+            }
+            target.errors += source.errors;
+        });
+    }
+
+    Map<String, Samples> samples() {
+        return samples;
+    }
+
+    static final class Samples {
+        private long[] values = new long[1024];
+        private int size;
+        long errors;
+
+        private void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int count() {
+            return size;
+        }
+
+        /**
+         * Перцентиль по отсортированной выборке; вызывать после {@link #sort()}.
+         */
+        long percentile(double percent) {
+            if (size == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percent / 100 * size) - 1;
+            return values[Math.max(0, Math.min(size - 1, index))];
+        }
+
+        void sort() {
+            Arrays.sort(values, 0, size);
+        }
+    }
+}
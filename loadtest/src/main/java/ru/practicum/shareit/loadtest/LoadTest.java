@@ -0,0 +1,96 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.net.ServerSocket;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Нагрузочный прогон: поднимает сервер (H2) и шлюз в этом процессе, заполняет данные через API шлюза,
+ * гоняет смесь запросов и печатает пропускную способность и перцентили задержек по эндпоинтам.
+ * Результат также пишется в JSON (--out), чтобы прогоны можно было сравнивать.
+ */
+public final class LoadTest {
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args, defaultAppsDirectory());
+        int serverPort = freePort();
+        int gatewayPort = freePort();
+
+        List<String> serverArgs = new ArrayList<>(List.of(
+                "--server.port=" + serverPort,
+                "--spring.profiles.active=ci",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=warn"));
+        serverArgs.addAll(config.serverArgs);
+        List<String> gatewayArgs = new ArrayList<>(List.of(
+                "--server.port=" + gatewayPort,
+                "--shareit-server.url=http://localhost:" + serverPort,
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=warn",
+                "--logging.level.org.springframework.web.client.RestTemplate=warn"));
+        gatewayArgs.addAll(config.gatewayArgs);
+
+        try (EmbeddedApp server = EmbeddedApp.start("server", app(config, "shareit-server.jar"), serverArgs);
+             EmbeddedApp gateway = EmbeddedApp.start("gateway", app(config, "shareit-gateway.jar"), gatewayArgs)) {
+            ShareItClient client = new ShareItClient("http://localhost:" + gatewayPort);
+            long seedStarted = System.nanoTime();
+            Dataset dataset = Dataset.seed(client, config);
+            System.out.printf("Заполнено за %d мс: %d пользователей, %d вещей, %d бронирований%n",
+                    (System.nanoTime() - seedStarted) / 1_000_000, dataset.users.length, dataset.items.length,
+                    dataset.items.length * config.bookingsPerItem);
+
+            Workload workload = new Workload(client, dataset, config.mix);
+            AtomicLong cpuBefore = new AtomicLong();
+            List<LatencyRecorder> recorders = workload.run(config.clients, config.warmup, config.duration,
+                    () -> cpuBefore.set(processCpuNanos()));
+            long cpu = processCpuNanos() - cpuBefore.get();
+
+            LatencyRecorder total = new LatencyRecorder();
+            recorders.forEach(recorder -> recorder.mergeInto(total));
+            Report report = new Report(config, total, cpu);
+            report.print(System.out);
+            Files.writeString(config.out, report.toJson());
+            System.out.println("Результат записан в " + config.out.toAbsolutePath());
+        }
+    }
+
+    private static Path app(LoadTestConfig config, String jar) {
+        Path path = config.apps.resolve(jar);
+        if (!Files.isRegularFile(path)) {
+            throw new IllegalStateException("Не найден " + path + ", соберите проект: mvn -P performance package");
+        }
+        return path;
+    }
+
+    /**
+     * Каталог apps рядом с jar нагрузочного прогона, куда сборка копирует сервер и шлюз.
+     */
+    private static Path defaultAppsDirectory() throws URISyntaxException {
+        Path location = Path.of(LoadTest.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        return location.getParent().resolve("apps");
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long processCpuNanos() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+        }
+        return 0;
+    }
+}
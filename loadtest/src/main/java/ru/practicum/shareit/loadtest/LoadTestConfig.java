@@ -0,0 +1,113 @@
+package ru.practicum.shareit.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Параметры прогона из аргументов вида --name=value. Свойства для приложений передаются как
+ * --server:name=value и --gateway:name=value, например --server:shareit.threads.virtual=true.
+ */
+final class LoadTestConfig {
+    int users = 200;
+    int itemsPerUser = 5;
+    int bookingsPerItem = 4;
+    int requests = 100;
+    int clients = 32;
+    Duration warmup = Duration.ofSeconds(5);
+    Duration duration = Duration.ofSeconds(30);
+    Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+    Path apps;
+    Path out = Path.of("loadtest-result.json");
+    final List<String> serverArgs = new ArrayList<>();
+    final List<String> gatewayArgs = new ArrayList<>();
+
+    static LoadTestConfig parse(String[] args, Path defaultApps) {
+        LoadTestConfig config = new LoadTestConfig();
+        config.apps = defaultApps;
+        for (Operation operation : Operation.values()) {
+            config.mix.put(operation, operation.defaultWeight);
+        }
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Ожидается аргумент вида --name=value: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (name.startsWith("server:")) {
+                config.serverArgs.add("--" + arg.substring("--server:".length()));
+                continue;
+            }
+            if (name.startsWith("gateway:")) {
+                config.gatewayArgs.add("--" + arg.substring("--gateway:".length()));
+                continue;
+            }
+            switch (name) {
+                case "users":
+                    config.users = Integer.parseInt(value);
+                    break;
+                case "items-per-user":
+                    config.itemsPerUser = Integer.parseInt(value);
+                    break;
+                case "bookings-per-item":
+                    config.bookingsPerItem = Integer.parseInt(value);
+                    break;
+                case "requests":
+                    config.requests = Integer.parseInt(value);
+                    break;
+                case "clients":
+                    config.clients = Integer.parseInt(value);
+                    break;
+                case "warmup":
+                    config.warmup = duration(value);
+                    break;
+                case "duration":
+                    config.duration = duration(value);
+                    break;
+                case "mix":
+                    config.mix = mix(value);
+                    break;
+                case "apps":
+                    config.apps = Path.of(value);
+                    break;
+                case "out":
+                    config.out = Path.of(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Неизвестный параметр: " + name);
+            }
+        }
+        if (config.users < 2) {
+            throw new IllegalArgumentException("Нужно хотя бы два пользователя: владелец и арендатор");
+        }
+        return config;
+    }
+
+    /**
+     * 30s, 2m или ISO-8601 (PT30S).
+     */
+    private static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.parse(value);
+    }
+
+    /**
+     * search=30,item=30,owner-bookings=25,booking=15; не указанные операции не выполняются.
+     */
+    private static Map<Operation, Integer> mix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : value.split(",")) {
+            String[] weight = part.split("=");
+            mix.put(Operation.fromName(weight[0].trim()), Integer.parseInt(weight[1].trim()));
+        }
+        return mix;
+    }
+}
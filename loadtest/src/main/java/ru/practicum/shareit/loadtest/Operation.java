@@ -0,0 +1,31 @@
+package ru.practicum.shareit.loadtest;
+
+/**
+ * Операции нагрузочного сценария и их доля в смеси по умолчанию.
+ * Операция booking создаёт бронь и сразу подтверждает её от имени владельца, это два запроса.
+ */
+enum Operation {
+    SEARCH("search", 30, "GET /items/search"),
+    ITEM("item", 30, "GET /items/{id}"),
+    OWNER_BOOKINGS("owner-bookings", 25, "GET /bookings/owner"),
+    BOOKING("booking", 15, "POST /bookings");
+
+    final String name;
+    final int defaultWeight;
+    final String endpoint;
+
+    Operation(String name, int defaultWeight, String endpoint) {
+        this.name = name;
+        this.defaultWeight = defaultWeight;
+        this.endpoint = endpoint;
+    }
+
+    static Operation fromName(String name) {
+        for (Operation operation : values()) {
+            if (operation.name.equals(name)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестная операция: " + name);
+    }
+}
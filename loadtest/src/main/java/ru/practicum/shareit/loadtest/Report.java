@@ -0,0 +1,84 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Итоги прогона по эндпоинтам: число запросов и ошибок, запросы в секунду и перцентили задержки в мс.
+ * Процессорное время на запрос общее для сервера, шлюза и клиентов, так как все они в одном процессе.
+ */
+final class Report {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String[] PERCENTILE_NAMES = {"p50Ms", "p90Ms", "p99Ms", "p99_9Ms"};
+
+    private final LoadTestConfig config;
+    private final Map<String, LatencyRecorder.Samples> samples;
+    private final long cpuNanos;
+    private final long requests;
+
+    Report(LoadTestConfig config, LatencyRecorder total, long cpuNanos) {
+        this.config = config;
+        this.samples = total.samples();
+        this.cpuNanos = cpuNanos;
+        samples.values().forEach(LatencyRecorder.Samples::sort);
+        this.requests = samples.values().stream().mapToLong(LatencyRecorder.Samples::count).sum();
+    }
+
+    void print(PrintStream out) {
+        out.printf(Locale.ROOT, "%nКлиентов: %d, замер: %d с, прогрев: %d с%n", config.clients,
+                config.duration.toSeconds(), config.warmup.toSeconds());
+        out.printf(Locale.ROOT, "%-24s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        samples.forEach((endpoint, endpointSamples) -> out.printf(Locale.ROOT,
+                "%-24s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                endpoint, endpointSamples.count(), endpointSamples.errors, throughput(endpointSamples.count()),
+                millis(endpointSamples, 50), millis(endpointSamples, 90), millis(endpointSamples, 99),
+                millis(endpointSamples, 99.9), millis(endpointSamples, 100)));
+        out.printf(Locale.ROOT, "Всего: %.1f req/s, CPU процесса на запрос: %.3f мс%n",
+                throughput(requests), cpuPerRequestMillis());
+    }
+
+    String toJson() {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n  \"clients\": ").append(config.clients)
+                .append(",\n  \"durationSeconds\": ").append(config.duration.toSeconds())
+                .append(",\n  \"users\": ").append(config.users)
+                .append(",\n  \"itemsPerUser\": ").append(config.itemsPerUser)
+                .append(",\n  \"bookingsPerItem\": ").append(config.bookingsPerItem)
+                .append(",\n  \"throughput\": ").append(format(throughput(requests)))
+                .append(",\n  \"cpuPerRequestMs\": ").append(format(cpuPerRequestMillis()))
+                .append(",\n  \"endpoints\": {");
+        String separator = "\n";
+        for (Map.Entry<String, LatencyRecorder.Samples> entry : samples.entrySet()) {
+            LatencyRecorder.Samples endpointSamples = entry.getValue();
+            json.append(separator).append("    \"").append(entry.getKey()).append("\": {")
+                    .append("\"requests\": ").append(endpointSamples.count())
+                    .append(", \"errors\": ").append(endpointSamples.errors)
+                    .append(", \"throughput\": ").append(format(throughput(endpointSamples.count())));
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                json.append(", \"").append(PERCENTILE_NAMES[i]).append("\": ")
+                        .append(format(millis(endpointSamples, PERCENTILES[i])));
+            }
+            json.append(", \"maxMs\": ").append(format(millis(endpointSamples, 100))).append('}');
+            separator = ",\n";
+        }
+        return json.append("\n  }\n}\n").toString();
+    }
+
+    private double throughput(long count) {
+        return count / (config.duration.toMillis() / 1000.0);
+    }
+
+    private double cpuPerRequestMillis() {
+        return requests == 0 ? 0 : cpuNanos / 1_000_000.0 / requests;
+    }
+
+    private static double millis(LatencyRecorder.Samples samples, double percentile) {
+        return samples.percentile(percentile) / 1000.0;
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
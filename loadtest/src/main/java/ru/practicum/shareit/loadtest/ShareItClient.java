@@ -0,0 +1,95 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * HTTP-клиент к шлюзу. Ответы разбираются только до идентификатора: тело читается целиком,
+ * но JSON не десериализуется, чтобы стоимость клиента не смешивалась с измерениями.
+ */
+final class ShareItClient {
+    static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String baseUrl;
+
+    ShareItClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    Response get(String path, long userId) throws IOException, InterruptedException {
+        return send(request(path, userId).GET());
+    }
+
+    Response post(String path, long userId, String json) throws IOException, InterruptedException {
+        return send(request(path, userId)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)));
+    }
+
+    Response patch(String path, long userId) throws IOException, InterruptedException {
+        return send(request(path, userId).method("PATCH", HttpRequest.BodyPublishers.noBody()));
+    }
+
+    private HttpRequest.Builder request(String path, long userId) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30));
+        return userId > 0 ? builder.header(USER_HEADER, Long.toString(userId)) : builder;
+    }
+
+    private Response send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        return new Response(response.statusCode(), response.body());
+    }
+
+    static final class Response {
+        final int status;
+        final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        boolean isOk() {
+            return status >= 200 && status < 300;
+        }
+
+        /**
+         * Идентификатор из ответа на создание одной сущности.
+         */
+        long id() {
+            Matcher matcher = ID.matcher(body);
+            if (!isOk() || !matcher.find()) {
+                throw new IllegalStateException("Неожиданный ответ " + status + ": " + body);
+            }
+            return Long.parseLong(matcher.group(1));
+        }
+
+        /**
+         * Идентификаторы из ответа на пакетное создание плоских объектов (без вложенных id).
+         */
+        long[] ids(int expected) {
+            if (!isOk()) {
+                throw new IllegalStateException("Неожиданный ответ " + status + ": " + body);
+            }
+            long[] ids = new long[expected];
+            Matcher matcher = ID.matcher(body);
+            int found = 0;
+            while (found < expected && matcher.find()) {
+                ids[found++] = Long.parseLong(matcher.group(1));
+            }
+            return ids;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.loadtest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Замкнутый цикл: каждый клиент выбирает операцию по весам смеси, ждёт ответа и сразу берёт следующую.
+ * Запросы до конца прогрева выполняются, но не учитываются.
+ */
+final class Workload {
+    private static final String[] OWNER_STATES = {"ALL", "FUTURE", "WAITING", "CURRENT"};
+
+    private final ShareItClient client;
+    private final Dataset dataset;
+    private final Operation[] table;
+    // каждая новая бронь занимает свой час после заполненных данных, поэтому брони не пересекаются
+    private final AtomicLong bookingSlot = new AtomicLong();
+    private final LocalDateTime bookingsFrom;
+
+    Workload(ShareItClient client, Dataset dataset, Map<Operation, Integer> mix) {
+        this.client = client;
+        this.dataset = dataset;
+        List<Operation> weighted = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        });
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("В смеси нет ни одной операции");
+        }
+        this.table = weighted.toArray(new Operation[0]);
+        this.bookingsFrom = dataset.seededUntil.plusDays(1);
+    }
+
+    /**
+     * Запускает клиентов и возвращает их записи, когда истечёт время прогона.
+     * {@code onMeasureStart} вызывается в момент окончания прогрева.
+     */
+    List<LatencyRecorder> run(int clients, Duration warmup, Duration duration, Runnable onMeasureStart)
+            throws InterruptedException {
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long stopAt = measureFrom + duration.toNanos();
+        List<LatencyRecorder> recorders = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            LatencyRecorder recorder = new LatencyRecorder();
+            recorders.add(recorder);
+            Thread thread = new Thread(() -> loop(recorder, measureFrom, stopAt), "load-client-" + c);
+            threads.add(thread);
+            thread.start();
+        }
+        long untilMeasure = measureFrom - System.nanoTime();
+        if (untilMeasure > 0) {
+            TimeUnit.NANOSECONDS.sleep(untilMeasure);
+        }
+        onMeasureStart.run();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return recorders;
+    }
+
+    private void loop(LatencyRecorder recorder, long measureFrom, long stopAt) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < stopAt) {
+            Operation operation = table[random.nextInt(table.length)];
+            try {
+                execute(operation, recorder, measureFrom);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                if (System.nanoTime() >= measureFrom) {
+                    recorder.record(operation.endpoint, 0, false);
+                }
+            }
+        }
+    }
+
+    private void execute(Operation operation, LatencyRecorder recorder, long measureFrom) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int item = dataset.randomItem();
+        switch (operation) {
+            case SEARCH:
+                timed(recorder, measureFrom, operation.endpoint, () -> client.get("/items/search?text="
+                        + Dataset.word(random.nextInt(Dataset.WORDS.length)), dataset.randomUser()));
+                break;
+            case ITEM:
+                // владелец видит бронирования вещи, остальные только саму вещь
+                long viewer = random.nextBoolean() ? dataset.itemOwners[item] : dataset.randomUser();
+                timed(recorder, measureFrom, operation.endpoint,
+                        () -> client.get("/items/" + dataset.items[item], viewer));
+                break;
+            case OWNER_BOOKINGS:
+                String state = OWNER_STATES[random.nextInt(OWNER_STATES.length)];
+                timed(recorder, measureFrom, operation.endpoint,
+                        () -> client.get("/bookings/owner?state=" + state, dataset.itemOwners[item]));
+                break;
+            case BOOKING:
+                book(item, recorder, measureFrom);
+                break;
+            default:
+                throw new IllegalStateException("Операция не поддерживается: " + operation);
+        }
+    }
+
+    private void book(int item, LatencyRecorder recorder, long measureFrom) throws Exception {
+        long owner = dataset.itemOwners[item];
+        long booker = dataset.randomUser();
+        if (booker == owner) {
+            booker = dataset.users[0] == owner ? dataset.users[1] : dataset.users[0];
+        }
+        LocalDateTime start = bookingsFrom.plusHours(bookingSlot.getAndIncrement());
+        long bookerId = booker;
+        ShareItClient.Response created = timed(recorder, measureFrom, Operation.BOOKING.endpoint,
+                () -> client.post("/bookings", bookerId, Dataset.booking(dataset.items[item], start,
+                        start.plusMinutes(30))));
+        if (created.isOk()) {
+            long bookingId = created.id();
+            timed(recorder, measureFrom, "PATCH /bookings/{id}",
+                    () -> client.patch("/bookings/" + bookingId + "?approved=true", owner));
+        }
+    }
+
+    private static ShareItClient.Response timed(LatencyRecorder recorder, long measureFrom, String endpoint,
+                                                Call call) throws Exception {
+        long started = System.nanoTime();
+        ShareItClient.Response response = call.execute();
+        if (started >= measureFrom) {
+            recorder.record(endpoint, (System.nanoTime() - started) / 1_000, response.isOk());
+        }
+        return response;
+    }
+
+    private interface Call {
+        ShareItClient.Response execute() throws Exception;
+    }
+}
@@ -2,12 +2,18 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingRole;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.utils.Headers;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 /**
@@ -28,6 +34,14 @@ public class BookingController {
         return bookingService.addBooking(bookerId, bookingDto);
     }
 
+    @PostMapping("/batch")
+    public List<BookingDto> addBookings(@RequestHeader(value = Headers.IdOwner) Long bookerId,
+                                        @RequestBody List<BookItemRequestDto> bookingDtos) {
+        log.info("Получен запрос на пакетное добавление {} бронирований " +
+                "к эндпоинту: 'POST /bookings/batch'", bookingDtos.size());
+        return bookingService.addBookings(bookerId, bookingDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto updateBooking(@RequestHeader(value = Headers.IdOwner) Long ownerId,
                                     @PathVariable Long bookingId,
@@ -49,10 +63,16 @@ public class BookingController {
     public List<BookingDto> getBooking(@RequestParam(defaultValue = "ALL") String state,
                                        @RequestHeader(value = Headers.IdOwner) Long userId,
                                        @RequestParam(defaultValue = "0") Integer from,
-                                       @RequestParam(defaultValue = "10") Integer size) {
+                                       @RequestParam(defaultValue = "10") Integer size,
+                                       @RequestParam(required = false) String cursor,
+                                       HttpServletResponse response) {
         log.info("Получен запрос на получение списка всех запросов на бронирование " +
                 "к эндпоинту: 'GET /bookings/{bookingId}'");
-        return bookingService.getBooking(state, userId, from, size);
+        if (cursor == null) {
+            return bookingService.getBooking(state, userId, from, size);
+        }
+        return withNextCursor(bookingService.getBookingAfter(state, userId, BookingCursor.decode(cursor), size),
+                size, response);
     }
 
     @GetMapping("/owner")
@@ -60,9 +80,43 @@ public class BookingController {
             @RequestParam(defaultValue = "ALL") String state,
             @RequestHeader(value = Headers.IdOwner) Long userId,
             @RequestParam(value = "size", defaultValue = "10") int size,
-            @RequestParam(value = "from", defaultValue = "0") int from) {
+            @RequestParam(value = "from", defaultValue = "0") int from,
+            @RequestParam(required = false) String cursor,
+            HttpServletResponse response) {
         log.info("Получен запрос на получение списка бронирований для всех вещей текущего пользователя " +
                 "к эндпоинту: 'GET /bookings/owner'");
-        return bookingService.ownerItemsBookingLists(state, userId, from, size);
+        if (cursor == null) {
+            return bookingService.ownerItemsBookingLists(state, userId, from, size);
+        }
+        return withNextCursor(bookingService.ownerItemsBookingListsAfter(state, userId,
+                BookingCursor.decode(cursor), size), size, response);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBookings(@RequestParam(defaultValue = "ALL") String state,
+                                                                @RequestHeader(value = Headers.IdOwner) Long userId) {
+        log.info("Получен запрос на выгрузку всех бронирований пользователя к эндпоинту: 'GET /bookings/export'");
+        return ndjson(bookingService.exportBookings(BookingRole.BOOKER, state, userId));
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportOwnerBookings(
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestHeader(value = Headers.IdOwner) Long userId) {
+        log.info("Получен запрос на выгрузку бронирований всех вещей текущего пользователя " +
+                "к эндпоинту: 'GET /bookings/owner/export'");
+        return ndjson(bookingService.exportBookings(BookingRole.OWNER, state, userId));
+    }
+
+    // Тип задаётся здесь, а не в produces: ошибки проверок по-прежнему отдаются обычным JSON
+    private static ResponseEntity<StreamingResponseBody> ndjson(StreamingResponseBody body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private List<BookingDto> withNextCursor(List<BookingDto> bookings, int size, HttpServletResponse response) {
+        if (bookings.size() == size) {
+            response.setHeader(Headers.NextCursor, BookingCursor.after(bookings.get(size - 1)).encode());
+        }
+        return bookings;
     }
 }
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.booking.dao;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.model.BookingHistory;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Запросы, которым нужны и архивные бронирования: бронирование по id, проверка права на отзыв
+ * и последнее бронирование вещи. Списки по состояниям собирает {@link BookingListRepository}.
+ */
+public interface BookingHistoryRepository extends Repository<BookingHistory, Long> {
+    String BOOKING_DTO = "select new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, i.requestId, u.id, u.email, u.name) " +
+            "from BookingHistory b join b.item i join b.booker u ";
+    String BOOKING_SHORT_DTO = "select new ru.practicum.shareit.booking.dto.BookingShortDto(b.item.id, b.id, " +
+            "b.booker.id, b.start, b.end) from BookingHistory b where b.item.id = ?1 and b.status = ?2 ";
+
+    @Query(BOOKING_DTO + "where b.id = ?1 and (u.id = ?2 or i.owner.id = ?2)")
+    Optional<BookingDto> findVisibleTo(Long id, Long userId);
+
+    @Query("select count(b) > 0 from BookingHistory b " +
+            "where b.item.id = ?1 and b.status = ?2 and b.booker.id = ?3 and b.end < ?4")
+    boolean existsFinishedBooking(
+            Long itemId,
+            BookingStatus status,
+            Long bookerId,
+            LocalDateTime now);
+
+    // Последнее начавшееся и ближайшее бронирования вещи, по одному запросу на каждое: на H2 это в несколько
+    // раз быстрее общего запроса с подзапросами по всем вещам. При одинаковом начале выбирается бронирование
+    // с большим id для последнего и с меньшим для ближайшего, как в сводке.
+    @Query(BOOKING_SHORT_DTO + "and b.start <= ?3 order by b.start desc, b.id desc")
+    List<BookingShortDto> findLastBooking(Long itemId, BookingStatus status, LocalDateTime now, Pageable first);
+
+    @Query(BOOKING_SHORT_DTO + "and b.start > ?3 order by b.start, b.id")
+    List<BookingShortDto> findNextBooking(Long itemId, BookingStatus status, LocalDateTime now, Pageable first);
+}
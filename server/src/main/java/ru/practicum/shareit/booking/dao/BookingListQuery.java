@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.dao;
+
+import lombok.Builder;
+import lombok.Getter;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.time.LocalDateTime;
+
+/**
+ * Параметры списка бронирований: чей список, состояние и страница. С {@code cursor} страница начинается
+ * сразу после позиции курсора, без него — со смещения {@code from}.
+ */
+@Getter
+@Builder
+public class BookingListQuery {
+    private final BookingRole role;
+    private final BookingState state;
+    private final Long userId;
+    private final LocalDateTime now;
+    private final BookingCursor cursor;
+    private final int from;
+    private final int size;
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dao;
+
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Списки бронирований по состоянию для арендатора и владельца одним запросом, см. {@link BookingListRepositoryImpl}.
+ */
+public interface BookingListRepository {
+
+    List<BookingDto> findBookings(BookingListQuery query);
+
+    /**
+     * Все бронирования без постраничного вывода, в порядке списка. Строки читаются курсором по мере обхода потока,
+     * поток нужно закрыть, и обходить его можно только внутри транзакции.
+     */
+    Stream<BookingDto> streamBookings(BookingListQuery query);
+}
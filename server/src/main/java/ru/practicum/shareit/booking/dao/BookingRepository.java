@@ -1,97 +1,43 @@
 package ru.practicum.shareit.booking.dao;
 
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-
-    @Query("select b from Booking b " +
-            "where b.item.owner.id = ?1 order by b.start desc ")
-    List<Booking> findAllByOwnerItems(@Param("owner") long ownerId, Pageable page);
-
-    @Query("select b from Booking b " +
-            "join User as u on b.booker = u.id " +
-            "where b.item = ?1 and b.status = ?2 and u.id = ?3 and b.end < ?4")
-    List<Booking> findBookingsByItem(
-            Item item,
-            BookingStatus status,
-            Long idUser,
-            LocalDateTime dateTime);
-
-    @Query("SELECT b from Booking b where b.item.owner.id = ?1 AND b.status = ?2 order by b.start desc")
-    List<Booking> findByOwnerAndState(
-            long userId,
-            BookingStatus status,
-            Pageable page);
-
-    @Query("select b " +
-            "from Booking b " +
-            "where b.item.owner.id = ?1 " +
-            "and ?2 > b.end order by b.start desc")
-    List<Booking> findAllPastBookingsOwner(
-            Long ownerId,
-            LocalDateTime time,
-            Pageable page);
-
-    @Query("select b " +
-            "from Booking b " +
-            "where b.item.owner.id = ?1 " +
-            "and ?2 < b.start order by b.start desc")
-    List<Booking> findAllFutureBookingsOwner(
-            Long ownerId,
-            LocalDateTime time,
-            Pageable page);
-
-    @Query("select b " +
-            "from Booking b " +
-            "where b.item.owner.id = ?1 " +
-            "and ?2 between b.start and b.end " +
-            "order by b.start ")
-    List<Booking> findAllCurrentBookingsOwner(
-            Long ownerId,
-            LocalDateTime time,
-            Pageable page);
-
-    List<Booking> findAllByBooker_IdOrderByStartDesc(long id, Pageable page);
-
-    List<Booking> findAllByBooker_IdAndStatusIsOrderByStartDesc(
-            Long id,
-            BookingStatus status,
-            Pageable page);
-
-    List<Booking> findAllByBooker_IdAndEndIsAfterAndStartIsBeforeOrderByStart(
-            Long id,
-            LocalDateTime end,
+import java.util.Optional;
+
+/**
+ * Живые бронирования, без архива. Списки по состояниям для обеих ролей собирает {@link BookingListRepository}.
+ */
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingListRepository {
+    // Одно бронирование читается вместе с вещью и арендатором: их сразу отдают в BookingDto.
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long id);
+
+    List<Booking> findAllByStatusInAndEndIsAfter(
+            Collection<BookingStatus> statuses,
+            LocalDateTime time);
+
+    @Query("select count(b) > 0 from Booking b " +
+            "where b.item.id = ?1 and b.status in ?2 and b.start < ?4 and b.end > ?3")
+    boolean existsOverlapping(
+            Long itemId,
+            Collection<BookingStatus> statuses,
             LocalDateTime start,
-            Pageable page);
+            LocalDateTime end);
 
-    List<Booking> findAllByBooker_IdAndEndIsBeforeOrderByStartDesc(
-            Long id,
-            LocalDateTime time,
-            Pageable page);
-
-    List<Booking> findAllByBooker_IdAndStartIsAfterOrderByStartDesc(
-            Long id,
-            LocalDateTime time,
-            Pageable page);
-
-    List<Booking> findAllByBooker_IdAndStartIsAfterAndStatusIsOrderByStartDesc(
-            Long bookerId,
-            LocalDateTime start,
-            BookingStatus status,
-            Pageable page);
+    @Query("select b.id from Booking b where b.end < ?1 order by b.id")
+    List<Long> findIdsEndedBefore(LocalDateTime horizon, Pageable page);
 
-    List<Booking> findByItemInAndStatus(
-            List<Item> items,
-            BookingStatus status,
-            Sort created);
-}
\ No newline at end of file
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Booking b where b.id in ?1")
+    int deleteByIdIn(Collection<Long> ids);
+}
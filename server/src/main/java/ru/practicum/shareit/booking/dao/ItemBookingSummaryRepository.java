@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.dao;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+
+    @Query("select s.itemId from ItemBookingSummary s where s.nextStart <= ?1 and s.itemId > ?2 order by s.itemId")
+    List<Long> findItemIdsWithStartedNext(LocalDateTime now, Long afterItemId, Pageable page);
+}
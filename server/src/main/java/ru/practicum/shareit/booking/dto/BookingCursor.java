@@ -0,0 +1,54 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Позиция в списке бронирований для постраничного вывода по ключу (start, id).
+ * Клиенту передаётся в виде непрозрачной строки.
+ */
+@Data
+@AllArgsConstructor
+public class BookingCursor {
+    private static final String SEPARATOR = "|";
+    private static final BookingCursor FIRST_DESCENDING =
+            new BookingCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+    private static final BookingCursor FIRST_ASCENDING =
+            new BookingCursor(LocalDateTime.of(1, 1, 1, 0, 0), 0L);
+
+    private LocalDateTime start;
+    private Long id;
+
+    public static BookingCursor first(boolean descending) {
+        return descending ? FIRST_DESCENDING : FIRST_ASCENDING;
+    }
+
+    public static BookingCursor after(BookingDto booking) {
+        return new BookingCursor(booking.getStart(), booking.getId());
+    }
+
+    public static BookingCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf(SEPARATOR);
+            return new BookingCursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ValidationException("Некорректный курсор: " + value);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((start + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
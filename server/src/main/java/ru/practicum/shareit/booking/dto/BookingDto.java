@@ -22,4 +22,16 @@ public class BookingDto {
     private ItemDto item;
     private UserDto booker;
     private BookingStatus status;
+
+    /**
+     * Конструктор для JPQL-проекции списков бронирований: все поля одной строкой, без загрузки сущностей.
+     */
+    public BookingDto(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                      Long itemId, String itemName, String itemDescription, Boolean itemAvailable, Long itemRequestId,
+                      Long bookerId, String bookerEmail, String bookerName) {
+        this(id, start, end, itemId,
+                new ItemDto(itemId, itemName, itemDescription, itemAvailable, itemRequestId),
+                new UserDto(bookerId, bookerEmail, bookerName),
+                status);
+    }
 }
\ No newline at end of file
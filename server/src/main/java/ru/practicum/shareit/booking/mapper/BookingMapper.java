@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking.mapper;
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.dto.ItemBookingInfoDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
@@ -43,6 +44,23 @@ public class BookingMapper {
                 booking.getEnd());
     }
 
+    public static ItemBookingInfoDto toItemBookingInfoDto(BookingShortDto booking) {
+        return new ItemBookingInfoDto(
+                booking.getId(),
+                booking.getBookerId(),
+                booking.getStart(),
+                booking.getEnd());
+    }
+
+    public static BookingShortDto toBookingShortDto(Booking booking) {
+        return new BookingShortDto(
+                booking.getItem().getId(),
+                booking.getId(),
+                booking.getBooker().getId(),
+                booking.getStart(),
+                booking.getEnd());
+    }
+
     public static Booking toBooking(BookItemRequestDto bookingDto, Item item, User user) {
         Booking booking = new Booking();
         booking.setBooker(user);
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Synchronize;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Бронирование из представления bookings_history: живые бронирования вместе с архивными.
+ * Только для чтения, изменяются бронирования через {@link Booking}. {@code @Synchronize} заставляет Hibernate
+ * сбрасывать несохранённые изменения бронирований перед запросом к представлению.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Immutable
+@Synchronize({"bookings", "bookings_archive"})
+@Table(name = "bookings_history")
+public class BookingHistory {
+    @Id
+    private Long id;
+
+    @Column(name = "start_date")
+    private LocalDateTime start;
+
+    @Column(name = "end_date")
+    private LocalDateTime end;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id", nullable = false)
+    private Item item;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "booker_id")
+    private User booker;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private BookingStatus status;
+}
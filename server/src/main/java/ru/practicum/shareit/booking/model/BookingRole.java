@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.model;
+
+/**
+ * Чьи бронирования показывает список: сделанные пользователем или на его вещи.
+ */
+public enum BookingRole {
+    BOOKER,
+    OWNER
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Фоновые задачи истории бронирований: перенос закончившихся раньше горизонта бронирований в архив
+ * и, в PostgreSQL, месячные секции bookings от горизонта до нескольких месяцев вперёд.
+ * Перенесённые строки считаются в метрике shareit.booking.archived.
+ */
+@Component
+@Slf4j
+public class BookingArchiveJobs {
+    private final BookingArchiveService archiveService;
+    private final Counter archived;
+    private final Duration horizon;
+    private final int batchSize;
+    private final int monthsAhead;
+
+    public BookingArchiveJobs(BookingArchiveService archiveService,
+                              MeterRegistry registry,
+                              @Value("${shareit.booking-archive.horizon:P365D}") Duration horizon,
+                              @Value("${shareit.booking-archive.batch-size:1000}") int batchSize,
+                              @Value("${shareit.booking-archive.months-ahead:3}") int monthsAhead) {
+        this.archiveService = archiveService;
+        this.archived = Counter.builder("shareit.booking.archived")
+                .description("Бронирования, перенесённые в архив")
+                .register(registry);
+        this.horizon = horizon;
+        this.batchSize = batchSize;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-archive.interval:PT1H}",
+            initialDelayString = "${shareit.booking-archive.interval:PT1H}")
+    public void scheduledArchive() {
+        archive();
+        maintainPartitions();
+    }
+
+    /**
+     * Секции нужны до первой вставки, поэтому создаются сразу при старте. Каждая секция создаётся в своей
+     * транзакции; ошибка только пишется в лог: без секции строки остаются в секции по умолчанию,
+     * а создать её попробует следующий запуск задачи.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void maintainPartitions() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            YearMonth first = YearMonth.from(now.minus(horizon));
+            YearMonth last = YearMonth.from(now).plusMonths(monthsAhead);
+            int created = 0;
+            for (YearMonth month : archiveService.missingPartitions(first, last)) {
+                try {
+                    archiveService.createPartition(month);
+                    created++;
+                } catch (RuntimeException e) {
+                    log.warn("Секция бронирований за {} не создана", month, e);
+                }
+            }
+            if (created > 0) {
+                log.info("Создано секций бронирований: {}", created);
+            }
+            int dropped = archiveService.dropEmptyPartitionsBefore(first);
+            if (dropped > 0) {
+                log.info("Удалено опустевших секций бронирований: {}", dropped);
+            }
+        } catch (RuntimeException e) {
+            log.error("Обслуживание секций бронирований не выполнено", e);
+        }
+    }
+
+    /**
+     * Переносит пакетами все бронирования старше горизонта, каждый пакет в своей транзакции.
+     */
+    public int archive() {
+        LocalDateTime before = LocalDateTime.now().minus(horizon);
+        int total = 0;
+        int moved;
+        do {
+            moved = archiveService.archiveBatch(before, batchSize);
+            total += moved;
+        } while (moved == batchSize);
+        archived.increment(total);
+        if (total > 0) {
+            log.info("В архив перенесено {} бронирований, закончившихся до {}", total, before);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Перенос старых бронирований в bookings_archive и месячные секции bookings в PostgreSQL.
+ */
+public interface BookingArchiveService {
+
+    /**
+     * Переносит в архив до {@code batchSize} бронирований, закончившихся раньше {@code horizon},
+     * и возвращает число перенесённых.
+     */
+    int archiveBatch(LocalDateTime horizon, int batchSize);
+
+    /**
+     * Месяцы с {@code from} по {@code to} включительно, для которых ещё нет секции bookings_pYYYYMM.
+     * Без секционирования (H2) список пуст.
+     */
+    List<YearMonth> missingPartitions(YearMonth from, YearMonth to);
+
+    /**
+     * Создаёт секцию за месяц и переносит в неё строки из секции по умолчанию, всё в одной транзакции.
+     */
+    void createPartition(YearMonth month);
+
+    /**
+     * Удаляет опустевшие после архивации секции за месяцы раньше {@code month}. Возвращает число удалённых.
+     */
+    int dropEmptyPartitionsBefore(YearMonth month);
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class BookingArchiveServiceImpl implements BookingArchiveService {
+    private static final String PARTITION_PREFIX = "bookings_p";
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final BookingRepository bookingRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private Boolean partitioned;
+
+    @Override
+    public int archiveBatch(LocalDateTime horizon, int batchSize) {
+        List<Long> ids = bookingRepository.findIdsEndedBefore(horizon, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String placeholders = "?" + ", ?".repeat(ids.size() - 1);
+        jdbcTemplate.update("insert into bookings_archive (id, start_date, end_date, item_id, booker_id, status) " +
+                "select id, start_date, end_date, item_id, booker_id, status from bookings " +
+                "where id in (" + placeholders + ")", ids.toArray());
+        bookingRepository.deleteByIdIn(ids);
+        return ids.size();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<YearMonth> missingPartitions(YearMonth from, YearMonth to) {
+        List<YearMonth> missing = new ArrayList<>();
+        if (!isPartitioned()) {
+            return missing;
+        }
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject("select to_regclass(?) is not null",
+                    Boolean.class, partitionName(month)))) {
+                missing.add(month);
+            }
+        }
+        return missing;
+    }
+
+    @Override
+    public void createPartition(YearMonth month) {
+        String name = partitionName(month);
+        String lower = month.atDay(1).atStartOfDay().toString();
+        String upper = month.plusMonths(1).atDay(1).atStartOfDay().toString();
+        // Секция не присоединится, пока в секции по умолчанию есть строки из её диапазона. Блокировка держит
+        // вставки в секцию по умолчанию до конца транзакции, чтобы между переносом и присоединением туда
+        // не попала новая строка; чтение не блокируется.
+        jdbcTemplate.execute("lock table bookings_default in share row exclusive mode");
+        jdbcTemplate.execute("create table " + name + " (like bookings including defaults)");
+        jdbcTemplate.update("with moved as (delete from bookings_default where end_date >= ?::timestamp " +
+                "and end_date < ?::timestamp returning *) insert into " + name + " select * from moved",
+                lower, upper);
+        jdbcTemplate.execute("alter table bookings attach partition " + name +
+                " for values from ('" + lower + "') to ('" + upper + "')");
+    }
+
+    @Override
+    public int dropEmptyPartitionsBefore(YearMonth month) {
+        if (!isPartitioned()) {
+            return 0;
+        }
+        List<String> partitions = jdbcTemplate.queryForList("select c.relname from pg_inherits i " +
+                "join pg_class c on c.oid = i.inhrelid join pg_class p on p.oid = i.inhparent " +
+                "where p.relname = 'bookings' and c.relname like 'bookings\\_p%'", String.class);
+        String limit = partitionName(month);
+        int dropped = 0;
+        for (String name : partitions) {
+            if (name.compareTo(limit) >= 0) {
+                continue;
+            }
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("select not exists (select 1 from " + name + ")",
+                    Boolean.class))) {
+                jdbcTemplate.execute("drop table " + name);
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_MONTH);
+    }
+
+    private boolean isPartitioned() {
+        if (partitioned == null) {
+            String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            partitioned = "PostgreSQL".equals(database) && Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "select exists (select 1 from pg_partitioned_table t join pg_class c on c.oid = t.partrelid " +
+                            "where c.relname = 'bookings')", Boolean.class));
+        }
+        return partitioned;
+    }
+}
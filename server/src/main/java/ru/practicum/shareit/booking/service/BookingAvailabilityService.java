@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingAvailabilityService {
+    List<BookingStatus> LIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    boolean isAvailable(Long itemId, LocalDateTime start, LocalDateTime end);
+
+    boolean reserve(Booking booking);
+
+    void release(Booking booking);
+
+    int evictEndedBefore(LocalDateTime moment);
+}
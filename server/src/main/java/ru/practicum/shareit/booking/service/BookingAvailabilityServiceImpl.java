@@ -0,0 +1,121 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static ru.practicum.shareit.booking.service.BookingIntervals.toEpochNanos;
+
+/**
+ * Индекс занятости вещей: для каждой вещи хранит интервалы бронирований в статусах WAITING и APPROVED.
+ * Прогревается из БД при старте и поддерживается при создании и подтверждении бронирований.
+ * Закончившиеся бронирования периодически вычищаются, вещи без действующих бронирований удаляются из индекса.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookingAvailabilityServiceImpl implements BookingAvailabilityService {
+    private final BookingRepository bookingRepository;
+    private final Map<Long, BookingIntervals> intervalsByItem = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        List<Booking> bookings = bookingRepository.findAllByStatusInAndEndIsAfter(LIVE_STATUSES, LocalDateTime.now());
+        for (Booking booking : bookings) {
+            intervals(booking.getItem().getId())
+                    .add(booking.getId(), toEpochNanos(booking.getStart()), toEpochNanos(booking.getEnd()));
+        }
+        log.info("Индекс занятости вещей прогрет: {} бронирований", bookings.size());
+    }
+
+    @Override
+    public boolean isAvailable(Long itemId, LocalDateTime start, LocalDateTime end) {
+        BookingIntervals intervals = intervalsByItem.get(itemId);
+        return intervals == null || !intervals.overlaps(toEpochNanos(start), toEpochNanos(end));
+    }
+
+    @Override
+    public boolean reserve(Booking booking) {
+        boolean[] added = new boolean[1];
+        // внутри compute, чтобы очистка не удалила вещь из индекса между поиском интервалов и вставкой
+        intervalsByItem.compute(booking.getItem().getId(), (itemId, intervals) -> {
+            BookingIntervals target = intervals == null ? new BookingIntervals() : intervals;
+            added[0] = target.addIfFree(booking.getId(),
+                    toEpochNanos(booking.getStart()), toEpochNanos(booking.getEnd()));
+            return target;
+        });
+        boolean reserved = added[0];
+        if (reserved && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        remove(booking);
+                    }
+                }
+            });
+        }
+        return reserved;
+    }
+
+    @Override
+    public void release(Booking booking) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remove(booking);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remove(booking);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-availability.eviction-interval:PT10M}",
+            initialDelayString = "${shareit.booking-availability.eviction-interval:PT10M}")
+    public void scheduledEviction() {
+        int evicted = evictEndedBefore(LocalDateTime.now());
+        log.debug("Из индекса занятости вычищено {} закончившихся бронирований", evicted);
+    }
+
+    @Override
+    public int evictEndedBefore(LocalDateTime moment) {
+        long nanos = toEpochNanos(moment);
+        int evicted = 0;
+        for (Long itemId : intervalsByItem.keySet()) {
+            int[] removed = new int[1];
+            intervalsByItem.computeIfPresent(itemId, (id, intervals) -> {
+                removed[0] = intervals.removeEndedBefore(nanos);
+                return intervals.size() == 0 ? null : intervals;
+            });
+            evicted += removed[0];
+        }
+        return evicted;
+    }
+
+    private void remove(Booking booking) {
+        BookingIntervals intervals = intervalsByItem.get(booking.getItem().getId());
+        if (intervals != null) {
+            intervals.remove(booking.getId(), toEpochNanos(booking.getStart()));
+        }
+    }
+
+    private BookingIntervals intervals(Long itemId) {
+        return intervalsByItem.computeIfAbsent(itemId, id -> new BookingIntervals());
+    }
+}
@@ -0,0 +1,176 @@
+package ru.practicum.shareit.booking.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Интервалы бронирований одной вещи в виде полуоткрытых отрезков [start, end).
+ * Отрезки хранятся в массивах, отсортированных по началу, вместе с префиксным максимумом концов,
+ * поэтому проверка пересечения выполняется бинарным поиском за O(log n).
+ * Закончившиеся отрезки не нужны для проверки новых бронирований и вычищаются
+ * {@link #removeEndedBefore(long)}, так что память ограничена действующими бронированиями.
+ */
+public class BookingIntervals {
+    private static final int INITIAL_CAPACITY = 8;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    // БД округляет время до микросекунд, перечитанное бронирование может начинаться чуть иначе
+    private static final long STORED_PRECISION = 1_000L;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] starts = new long[INITIAL_CAPACITY];
+    private long[] ends = new long[INITIAL_CAPACITY];
+    private long[] maxEnds = new long[INITIAL_CAPACITY];
+    private int size;
+
+    public static long toEpochNanos(LocalDateTime dateTime) {
+        long seconds = dateTime.toEpochSecond(ZoneOffset.UTC);
+        if (seconds >= Long.MAX_VALUE / NANOS_PER_SECOND) {
+            return Long.MAX_VALUE;
+        }
+        if (seconds <= Long.MIN_VALUE / NANOS_PER_SECOND) {
+            return Long.MIN_VALUE;
+        }
+        return seconds * NANOS_PER_SECOND + dateTime.getNano();
+    }
+
+    public synchronized boolean overlaps(long start, long end) {
+        int last = countStartedBefore(end) - 1;
+        return last >= 0 && maxEnds[last] > start;
+    }
+
+    public synchronized boolean addIfFree(long id, long start, long end) {
+        if (overlaps(start, end)) {
+            return false;
+        }
+        insert(id, start, end);
+        return true;
+    }
+
+    public synchronized void add(long id, long start, long end) {
+        insert(id, start, end);
+    }
+
+    /**
+     * Удаляет отрезок бронирования. Начало отрезка позволяет найти его бинарным поиском,
+     * а не перебором всех бронирований вещи: просматриваются только отрезки, начинающиеся
+     * в пределах микросекунды от него.
+     */
+    public synchronized boolean remove(long id, long start) {
+        long last = start > Long.MAX_VALUE - STORED_PRECISION ? Long.MAX_VALUE : start + STORED_PRECISION;
+        int from = countStartedBefore(start < Long.MIN_VALUE + STORED_PRECISION ? Long.MIN_VALUE
+                : start - STORED_PRECISION);
+        for (int i = from; i < size && starts[i] <= last; i++) {
+            if (ids[i] == id) {
+                int tail = size - i - 1;
+                System.arraycopy(ids, i + 1, ids, i, tail);
+                System.arraycopy(starts, i + 1, starts, i, tail);
+                System.arraycopy(ends, i + 1, ends, i, tail);
+                System.arraycopy(maxEnds, i + 1, maxEnds, i, tail);
+                size--;
+                repairMaxEnds(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Удаляет отрезки, закончившиеся не позже заданного момента, за один проход по массивам
+     * и уменьшает массивы, если они заполнены меньше чем на четверть.
+     *
+     * @return количество удалённых отрезков
+     */
+    public synchronized int removeEndedBefore(long moment) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (ends[i] > moment) {
+                ids[kept] = ids[i];
+                starts[kept] = starts[i];
+                ends[kept] = ends[i];
+                kept++;
+            }
+        }
+        int removed = size - kept;
+        if (removed == 0) {
+            return 0;
+        }
+        size = kept;
+        if (ids.length > INITIAL_CAPACITY && size < ids.length / 4) {
+            resize(Math.max(INITIAL_CAPACITY, ids.length / 2));
+        }
+        recomputeMaxEnds(0);
+        return removed;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void insert(long id, long start, long end) {
+        if (size == ids.length) {
+            resize(size * 2);
+        }
+        int position = countStartedBefore(start);
+        int tail = size - position;
+        System.arraycopy(ids, position, ids, position + 1, tail);
+        System.arraycopy(starts, position, starts, position + 1, tail);
+        System.arraycopy(ends, position, ends, position + 1, tail);
+        System.arraycopy(maxEnds, position, maxEnds, position + 1, tail);
+        ids[position] = id;
+        starts[position] = start;
+        ends[position] = end;
+        maxEnds[position] = Math.max(position == 0 ? Long.MIN_VALUE : maxEnds[position - 1], end);
+        size++;
+        repairMaxEnds(position + 1);
+    }
+
+    private void resize(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        ends = Arrays.copyOf(ends, capacity);
+        maxEnds = Arrays.copyOf(maxEnds, capacity);
+    }
+
+    /**
+     * Количество отрезков, начало которых строго меньше заданного момента.
+     */
+    private int countStartedBefore(long moment) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle] < moment) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Пересчитывает префиксный максимум после вставки или удаления одного отрезка, когда сдвинутые
+     * значения справа ещё верны для остальных отрезков. Как только пересчитанное значение совпало
+     * со старым, дальше максимум уже не меняется, и для непересекающихся бронирований проход
+     * заканчивается на первом же элементе.
+     */
+    private void repairMaxEnds(int from) {
+        long max = from == 0 ? Long.MIN_VALUE : maxEnds[from - 1];
+        for (int i = from; i < size; i++) {
+            max = Math.max(max, ends[i]);
+            if (maxEnds[i] == max) {
+                return;
+            }
+            maxEnds[i] = max;
+        }
+    }
+
+    private void recomputeMaxEnds(int from) {
+        long max = from == 0 ? Long.MIN_VALUE : maxEnds[from - 1];
+        for (int i = from; i < size; i++) {
+            max = Math.max(max, ends[i]);
+            maxEnds[i] = max;
+        }
+    }
+}
@@ -1,13 +1,18 @@
 package ru.practicum.shareit.booking.service;
 
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.model.BookingRole;
 
 import java.util.List;
 
 public interface BookingService {
     BookingDto addBooking(Long bookerId, BookItemRequestDto bookingDto);
 
+    List<BookingDto> addBookings(Long bookerId, List<BookItemRequestDto> bookingDtos);
+
     BookingDto approve(Long ownerId, Long bookingId, boolean approved);
 
     BookingDto getBooking(Long bookerId, Long id);
@@ -15,4 +20,10 @@ public interface BookingService {
     List<BookingDto> getBooking(String state, Long userId, int from, int size);
 
     List<BookingDto> ownerItemsBookingLists(String state, Long ownerId, int from, int size);
+
+    List<BookingDto> getBookingAfter(String state, Long userId, BookingCursor cursor, int size);
+
+    List<BookingDto> ownerItemsBookingListsAfter(String state, Long ownerId, BookingCursor cursor, int size);
+
+    StreamingResponseBody exportBookings(BookingRole role, String state, Long userId);
 }
\ No newline at end of file
@@ -2,16 +2,18 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dao.BookingHistoryRepository;
+import ru.practicum.shareit.booking.dao.BookingListQuery;
 import ru.practicum.shareit.booking.dao.BookingRepository;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
@@ -21,11 +23,11 @@ import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dao.UserRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.NdjsonExport;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
+import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.booking.mapper.BookingMapper.toBookingDto;
 
@@ -35,23 +37,88 @@ import static ru.practicum.shareit.booking.mapper.BookingMapper.toBookingDto;
 @Transactional
 public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
+    private final BookingHistoryRepository historyRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final BookingAvailabilityService availabilityService;
+    private final ItemLockStripes itemLocks;
+    private final ItemBookingSummaryService bookingSummaryService;
+    private final NdjsonExport ndjsonExport;
 
     @Override
     public BookingDto addBooking(Long bookerId, BookItemRequestDto bookingDto) {
         checkDates(bookingDto);
         User user = checkUser(bookerId);
-        Item item = itemRepository.findById(bookingDto.getItemId()).orElseThrow(()
-                -> new ObjectNotFoundException("Предмет с id нет " + bookingDto.getItemId()));
+        return itemLocks.withItemLock(bookingDto.getItemId(), () -> addBooking(user, bookingDto));
+    }
+
+    private BookingDto addBooking(User user, BookItemRequestDto bookingDto) {
+        Item item = lockBookableItem(bookingDto.getItemId(), user);
+        checkFree(item, bookingDto);
+        Booking booking = bookingRepository.save(BookingMapper.toBooking(bookingDto, item, user));
+        if (!availabilityService.reserve(booking)) {
+            throw new ValidationException("Предмет с id уже забронирован на эти даты " + item.getId());
+        }
+        return toBookingDto(booking);
+    }
+
+    @Override
+    public List<BookingDto> addBookings(Long bookerId, List<BookItemRequestDto> bookingDtos) {
+        bookingDtos.forEach(this::checkDates);
+        User user = checkUser(bookerId);
+        Set<Long> itemIds = bookingDtos.stream()
+                .map(BookItemRequestDto::getItemId)
+                .collect(Collectors.toSet());
+        return itemLocks.withItemLocks(itemIds, () -> addBookings(user, itemIds, bookingDtos));
+    }
+
+    // Строки вещей блокируются одним запросом по возрастанию id, в том же порядке, что и при пересчёте сводки,
+    // иначе пачка и пересчёт могут ждать друг друга в БД.
+    private List<BookingDto> addBookings(User user, Set<Long> itemIds, List<BookItemRequestDto> bookingDtos) {
+        Map<Long, Item> items = itemRepository.findAllByIdInForUpdate(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, item -> item));
+        List<Booking> bookings = new ArrayList<>();
+        for (BookItemRequestDto bookingDto : bookingDtos) {
+            Item item = items.get(bookingDto.getItemId());
+            if (item == null) {
+                throw new ObjectNotFoundException("Предмет с id нет " + bookingDto.getItemId());
+            }
+            checkBookable(item, user);
+            checkFree(item, bookingDto);
+            bookings.add(BookingMapper.toBooking(bookingDto, item, user));
+        }
+        List<Booking> saved = bookingRepository.saveAll(bookings);
+        for (Booking booking : saved) {
+            if (!availabilityService.reserve(booking)) {
+                throw new ValidationException("Предмет с id уже забронирован на эти даты " + booking.getItem().getId());
+            }
+        }
+        return BookingMapper.toBookingDtoList(saved);
+    }
+
+    private Item lockBookableItem(Long itemId, User user) {
+        Item item = itemRepository.findByIdForUpdate(itemId).orElseThrow(()
+                -> new ObjectNotFoundException("Предмет с id нет " + itemId));
+        checkBookable(item, user);
+        return item;
+    }
+
+    private void checkBookable(Item item, User user) {
         if (!item.getAvailable()) {
             throw new ValidationException("Предмет с id недоступен " + item.getId());
         }
         Long ownerId = item.getOwner().getId();
-        if (ownerId.equals(bookerId)) {
+        if (ownerId.equals(user.getId())) {
             throw new ObjectNotFoundException("Пользователь является обладатлем вещи");
         }
-        return toBookingDto(bookingRepository.save(BookingMapper.toBooking(bookingDto, item, user)));
+    }
+
+    private void checkFree(Item item, BookItemRequestDto bookingDto) {
+        if (!availabilityService.isAvailable(item.getId(), bookingDto.getStart(), bookingDto.getEnd())
+                || bookingRepository.existsOverlapping(item.getId(), BookingAvailabilityService.LIVE_STATUSES,
+                bookingDto.getStart(), bookingDto.getEnd())) {
+            throw new ValidationException("Предмет с id уже забронирован на эти даты " + item.getId());
+        }
     }
 
     @Override
@@ -69,12 +136,25 @@ public class BookingServiceImpl implements BookingService {
         BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
         booking.setStatus(status);
         bookingRepository.save(booking);
+        if (status == BookingStatus.REJECTED) {
+            availabilityService.release(booking);
+        } else {
+            // блокировка строки вещи упорядочивает параллельные подтверждения при пересчёте сводки
+            itemRepository.findByIdForUpdate(item.getId());
+            bookingSummaryService.refresh(List.of(item.getId()), LocalDateTime.now());
+        }
         return BookingMapper.toBookingDto(booking);
     }
 
     @Override
     public BookingDto getBooking(Long bookerId, Long id) {
-        return bookingRepository.findById(id)
+        Optional<Booking> booking = bookingRepository.findById(id);
+        if (booking.isEmpty()) {
+            // бронирование могло уйти в архив
+            return historyRepository.findVisibleTo(id, bookerId).orElseThrow(() ->
+                    new ObjectNotFoundException("Booking with id= " + bookerId + " not found"));
+        }
+        return booking
                 .filter(b -> Objects.equals(b.getBooker().getId(), bookerId)
                         || Objects.equals(b.getItem().getOwner().getId(), bookerId))
                 .map(BookingMapper::toBookingDto)
@@ -83,78 +163,56 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public List<BookingDto> getBooking(String state, Long userId, int from, int size) {
-        checkerState(state);
-        User user = checkUser(userId);
-        BookingState stateFromText = BookingState.getStateFromText(state);
-        Sort sort = Sort.unsorted();
-        Pageable page = PageRequest.of(from / size, size);
-        LocalDateTime now = LocalDateTime.now();
-        List<Booking> bookings = new ArrayList<>();
-        switch (stateFromText) {
-            case ALL:
-                bookings = bookingRepository
-                        .findAllByBooker_IdOrderByStartDesc(userId, page);
-                break;
-            case CURRENT:
-                bookings = bookingRepository
-                        .findAllByBooker_IdAndEndIsAfterAndStartIsBeforeOrderByStart(userId, now, now, page);
-                break;
-            case PAST:
-                bookings = bookingRepository
-                        .findAllByBooker_IdAndEndIsBeforeOrderByStartDesc(userId, now, page);
-                break;
-            case FUTURE:
-                bookings = bookingRepository
-                        .findAllByBooker_IdAndStartIsAfterOrderByStartDesc(userId, now, page);
-                break;
-            case WAITING:
-                bookings = bookingRepository
-                        .findAllByBooker_IdAndStartIsAfterAndStatusIsOrderByStartDesc(userId, now,
-                                BookingStatus.WAITING, page);
-                break;
-            case REJECTED:
-                bookings = bookingRepository
-                        .findAllByBooker_IdAndStatusIsOrderByStartDesc(userId, BookingStatus.REJECTED, page);
-                break;
-        }
-        return BookingMapper.toBookingDtoList(bookings);
+        return findBookings(BookingRole.BOOKER, state, userId, null, from, size);
     }
 
     @Override
     public List<BookingDto> ownerItemsBookingLists(String state, Long ownerId, int from, int size) {
-        User user = checkUser(ownerId);
+        return findBookings(BookingRole.OWNER, state, ownerId, null, from, size);
+    }
+
+    @Override
+    public List<BookingDto> getBookingAfter(String state, Long userId, BookingCursor cursor, int size) {
+        return findBookings(BookingRole.BOOKER, state, userId, firstIfNull(state, cursor), 0, size);
+    }
+
+    @Override
+    public List<BookingDto> ownerItemsBookingListsAfter(String state, Long ownerId, BookingCursor cursor, int size) {
+        return findBookings(BookingRole.OWNER, state, ownerId, firstIfNull(state, cursor), 0, size);
+    }
+
+    // Проверки выполняются сразу, сами строки читаются уже при записи ответа.
+    @Override
+    public StreamingResponseBody exportBookings(BookingRole role, String state, Long userId) {
         checkerState(state);
-        BookingState stateFromText = BookingState.getStateFromText(state);
-        Pageable page = PageRequest.of(from / size, size);
-        LocalDateTime now = LocalDateTime.now();
-        List<Booking> bookings = new ArrayList<>();
-        switch (stateFromText) {
-            case ALL:
-                bookings = bookingRepository
-                        .findAllByOwnerItems(ownerId, page);
-                break;
-            case CURRENT:
-                bookings = bookingRepository
-                        .findAllCurrentBookingsOwner(ownerId, now, page);
-                break;
-            case PAST:
-                bookings = bookingRepository
-                        .findAllPastBookingsOwner(ownerId, now, page);
-                break;
-            case FUTURE:
-                bookings = bookingRepository
-                        .findAllFutureBookingsOwner(ownerId, now, page);
-                break;
-            case WAITING:
-                bookings = bookingRepository
-                        .findByOwnerAndState(ownerId, BookingStatus.WAITING, page);
-                break;
-            case REJECTED:
-                bookings = bookingRepository
-                        .findByOwnerAndState(ownerId, BookingStatus.REJECTED, page);
-                break;
-        }
-        return BookingMapper.toBookingDtoList(bookings);
+        checkUser(userId);
+        BookingListQuery query = BookingListQuery.builder()
+                .role(role)
+                .state(BookingState.getStateFromText(state))
+                .userId(userId)
+                .now(LocalDateTime.now())
+                .build();
+        return ndjsonExport.of(BookingDto.class, () -> bookingRepository.streamBookings(query));
+    }
+
+    private List<BookingDto> findBookings(BookingRole role, String state, Long userId, BookingCursor cursor,
+                                          int from, int size) {
+        checkerState(state);
+        checkUser(userId);
+        return bookingRepository.findBookings(BookingListQuery.builder()
+                .role(role)
+                .state(BookingState.getStateFromText(state))
+                .userId(userId)
+                .now(LocalDateTime.now())
+                .cursor(cursor)
+                .from(from)
+                .size(size)
+                .build());
+    }
+
+    // CURRENT идёт по возрастанию start, остальные состояния — по убыванию
+    private BookingCursor firstIfNull(String state, BookingCursor cursor) {
+        return cursor != null ? cursor : BookingCursor.first(!BookingState.CURRENT.name().equals(state));
     }
 
     public void checkDates(BookItemRequestDto bookingDto) {
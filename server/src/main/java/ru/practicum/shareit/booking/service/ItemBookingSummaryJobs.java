@@ -0,0 +1,103 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dao.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Фоновые задачи сводки бронирований: сдвиг начавшихся бронирований из «ближайшего» в «последнее»
+ * и сверка всей сводки с таблицей бронирований. Расхождения исправляются и считаются
+ * в метрике shareit.booking.summary.mismatches.
+ */
+@Component
+@Slf4j
+public class ItemBookingSummaryJobs {
+    private final ItemBookingSummaryService summaryService;
+    private final ItemRepository itemRepository;
+    private final Counter mismatches;
+    private final int batchSize;
+    private final int sweepBatchSize;
+
+    public ItemBookingSummaryJobs(ItemBookingSummaryService summaryService,
+                                  ItemRepository itemRepository,
+                                  MeterRegistry registry,
+                                  @Value("${shareit.booking-summary.check-batch-size:1000}") int batchSize,
+                                  @Value("${shareit.booking-summary.sweep-batch-size:1000}") int sweepBatchSize) {
+        this.summaryService = summaryService;
+        this.itemRepository = itemRepository;
+        this.mismatches = Counter.builder("shareit.booking.summary.mismatches")
+                .description("Строки сводки бронирований, расходившиеся с таблицей бронирований")
+                .register(registry);
+        this.batchSize = batchSize;
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.sweep-interval:PT1M}")
+    public void scheduledSweep() {
+        int shifted = sweep(LocalDateTime.now());
+        if (shifted > 0) {
+            log.debug("Сводка бронирований: начались ближайшие бронирования у {} вещей", shifted);
+        }
+    }
+
+    /**
+     * Сдвигает начавшиеся бронирования порциями по id вещей, каждая порция в своей транзакции,
+     * чтобы не держать блокировки всех вещей сразу. Возвращает число обработанных вещей.
+     */
+    public int sweep(LocalDateTime now) {
+        int shifted = 0;
+        List<Long> itemIds = summaryService.sweep(now, 0L, sweepBatchSize);
+        while (!itemIds.isEmpty()) {
+            shifted += itemIds.size();
+            Long lastId = itemIds.get(itemIds.size() - 1);
+            itemIds = summaryService.sweep(now, lastId, sweepBatchSize);
+        }
+        return shifted;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.check-interval:PT1H}",
+            initialDelayString = "${shareit.booking-summary.check-interval:PT1H}")
+    public void scheduledCheck() {
+        checkConsistency();
+    }
+
+    /**
+     * Заполняет сводку при старте, если она пуста или отстала от бронирований.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        checkConsistency();
+    }
+
+    public int checkConsistency() {
+        LocalDateTime now = LocalDateTime.now();
+        sweep(now);
+        int found = 0;
+        int checked = 0;
+        Long lastId = 0L;
+        List<Long> itemIds = itemRepository.findIdsAfter(lastId, PageRequest.of(0, batchSize));
+        while (!itemIds.isEmpty()) {
+            found += summaryService.verify(itemIds, now);
+            checked += itemIds.size();
+            lastId = itemIds.get(itemIds.size() - 1);
+            itemIds = itemRepository.findIdsAfter(lastId, PageRequest.of(0, batchSize));
+        }
+        mismatches.increment(found);
+        if (found > 0) {
+            log.warn("Сводка бронирований расходилась с бронированиями у {} из {} вещей, исправлено", found, checked);
+        } else {
+            log.info("Сводка бронирований сверена: {} вещей без расхождений", checked);
+        }
+        return found;
+    }
+}
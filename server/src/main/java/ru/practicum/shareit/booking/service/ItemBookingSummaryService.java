@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ItemBookingSummaryService {
+    Map<Long, List<BookingShortDto>> findLastAndNext(Collection<Long> itemIds, LocalDateTime now);
+
+    void refresh(Collection<Long> itemIds, LocalDateTime now);
+
+    /**
+     * Сдвигает начавшиеся бронирования у не более чем batchSize вещей с id больше afterItemId
+     * и возвращает id обработанных вещей по возрастанию.
+     */
+    List<Long> sweep(LocalDateTime now, Long afterItemId, int batchSize);
+
+    int verify(Collection<Long> itemIds, LocalDateTime now);
+}
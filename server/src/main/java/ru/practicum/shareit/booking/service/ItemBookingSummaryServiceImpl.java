@@ -0,0 +1,152 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dao.BookingHistoryRepository;
+import ru.practicum.shareit.booking.dao.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.item.dao.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Сводка последнего и ближайшего бронирования вещей. При чтении берётся одна строка на вещь;
+ * строки, у которых ближайшее бронирование уже началось, а фоновая задача ещё не успела их сдвинуть,
+ * пересчитываются по таблице бронирований. Все записи сводки идут под блокировкой строк вещей, как и
+ * подтверждение бронирования: пересчёт не может прочитать бронирования до подтверждения, а записать
+ * сводку после него.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ItemBookingSummaryServiceImpl implements ItemBookingSummaryService {
+    private static final Comparator<BookingShortDto> BY_START =
+            Comparator.comparing(BookingShortDto::getStart).thenComparing(BookingShortDto::getId);
+    private static final Pageable FIRST = PageRequest.of(0, 1);
+
+    private final BookingHistoryRepository historyRepository;
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final ItemRepository itemRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, List<BookingShortDto>> findLastAndNext(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, List<BookingShortDto>> bookings = new HashMap<>();
+        List<Long> started = new ArrayList<>();
+        for (ItemBookingSummary summary : summaryRepository.findAllById(itemIds)) {
+            if (summary.getNextStart() != null && !summary.getNextStart().isAfter(now)) {
+                started.add(summary.getItemId());
+            } else {
+                bookings.put(summary.getItemId(), toBookings(summary));
+            }
+        }
+        if (!started.isEmpty()) {
+            bookings.putAll(loadFromBookings(started, now));
+        }
+        return bookings;
+    }
+
+    @Override
+    public void refresh(Collection<Long> itemIds, LocalDateTime now) {
+        reconcile(itemIds, now);
+    }
+
+    @Override
+    public List<Long> sweep(LocalDateTime now, Long afterItemId, int batchSize) {
+        List<Long> itemIds = summaryRepository.findItemIdsWithStartedNext(now, afterItemId,
+                PageRequest.of(0, batchSize));
+        if (!itemIds.isEmpty()) {
+            reconcile(itemIds, now);
+        }
+        return itemIds;
+    }
+
+    @Override
+    public int verify(Collection<Long> itemIds, LocalDateTime now) {
+        return reconcile(itemIds, now);
+    }
+
+    /**
+     * Приводит строки сводки к бронированиям и возвращает число строк, которые пришлось изменить.
+     */
+    private int reconcile(Collection<Long> itemIds, LocalDateTime now) {
+        itemRepository.findAllByIdInForUpdate(itemIds);
+        Map<Long, ItemBookingSummary> current = summaryRepository.findAllById(itemIds).stream()
+                .collect(toMap(ItemBookingSummary::getItemId, summary -> summary));
+        Map<Long, List<BookingShortDto>> bookings = loadFromBookings(itemIds, now);
+        int changed = 0;
+        for (Long itemId : itemIds) {
+            List<BookingShortDto> itemBookings = bookings.get(itemId);
+            ItemBookingSummary expected = itemBookings == null ? null : toSummary(itemId, itemBookings, now);
+            ItemBookingSummary actual = current.get(itemId);
+            if (Objects.equals(expected, actual)) {
+                continue;
+            }
+            changed++;
+            if (expected == null) {
+                summaryRepository.delete(actual);
+            } else {
+                summaryRepository.save(expected);
+            }
+        }
+        return changed;
+    }
+
+    private Map<Long, List<BookingShortDto>> loadFromBookings(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, List<BookingShortDto>> bookings = new HashMap<>();
+        for (Long itemId : itemIds) {
+            List<BookingShortDto> itemBookings = new ArrayList<>(2);
+            itemBookings.addAll(historyRepository.findLastBooking(itemId, BookingStatus.APPROVED, now, FIRST));
+            itemBookings.addAll(historyRepository.findNextBooking(itemId, BookingStatus.APPROVED, now, FIRST));
+            if (!itemBookings.isEmpty()) {
+                bookings.put(itemId, itemBookings);
+            }
+        }
+        return bookings;
+    }
+
+    private static ItemBookingSummary toSummary(Long itemId, List<BookingShortDto> bookings, LocalDateTime now) {
+        ItemBookingSummary summary = new ItemBookingSummary();
+        summary.setItemId(itemId);
+        bookings.stream()
+                .filter(booking -> !booking.getStart().isAfter(now))
+                .max(BY_START)
+                .ifPresent(last -> {
+                    summary.setLastBookingId(last.getId());
+                    summary.setLastBookerId(last.getBookerId());
+                    summary.setLastStart(last.getStart());
+                    summary.setLastEnd(last.getEnd());
+                });
+        bookings.stream()
+                .filter(booking -> booking.getStart().isAfter(now))
+                .min(BY_START)
+                .ifPresent(next -> {
+                    summary.setNextBookingId(next.getId());
+                    summary.setNextBookerId(next.getBookerId());
+                    summary.setNextStart(next.getStart());
+                    summary.setNextEnd(next.getEnd());
+                });
+        return summary;
+    }
+
+    private static List<BookingShortDto> toBookings(ItemBookingSummary summary) {
+        List<BookingShortDto> bookings = new ArrayList<>(2);
+        if (summary.getLastBookingId() != null) {
+            bookings.add(new BookingShortDto(summary.getItemId(), summary.getLastBookingId(),
+                    summary.getLastBookerId(), summary.getLastStart(), summary.getLastEnd()));
+        }
+        if (summary.getNextBookingId() != null) {
+            bookings.add(new BookingShortDto(summary.getItemId(), summary.getNextBookingId(),
+                    summary.getNextBookerId(), summary.getNextStart(), summary.getNextEnd()));
+        }
+        return bookings;
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Полосатая блокировка по id вещи: бронирования одной вещи выполняются последовательно,
+ * бронирования разных вещей (почти всегда попадающих в разные полосы) идут параллельно.
+ * Внутри транзакции блокировка удерживается до её завершения, чтобы следующий запрос увидел закоммиченные данные.
+ */
+@Component
+public class ItemLockStripes {
+    private final ReentrantLock[] stripes;
+
+    public ItemLockStripes(@Value("${shareit.booking.lock-stripes:64}") int stripeCount) {
+        int size = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T withItemLock(Long itemId, Supplier<T> action) {
+        return withItemLocks(List.of(itemId), action);
+    }
+
+    /**
+     * Полосы захватываются по возрастанию номера, поэтому пакеты с пересекающимися вещами не блокируют друг друга.
+     */
+    public <T> T withItemLocks(Collection<Long> itemIds, Supplier<T> action) {
+        int[] indexes = itemIds.stream().mapToInt(this::stripeIndex).distinct().sorted().toArray();
+        for (int index : indexes) {
+            stripes[index].lock();
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                return action.get();
+            } finally {
+                unlock(indexes);
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                unlock(indexes);
+            }
+        });
+        return action.get();
+    }
+
+    private void unlock(int[] indexes) {
+        for (int i = indexes.length - 1; i >= 0; i--) {
+            stripes[indexes[i]].unlock();
+        }
+    }
+
+    private int stripeIndex(Long itemId) {
+        int hash = Long.hashCode(itemId) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.cache")
+public class EntityCacheProperties {
+    private long entityMaximumSize = 10_000;
+    private Duration entityTimeToLive = Duration.ofMinutes(10);
+    private long queryMaximumSize = 1_000;
+    private Duration queryTimeToLive = Duration.ofMinutes(1);
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.utils.Sequences;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Сверяет при старте шаг последовательностей в базе с {@link Sequences#ALLOCATION_SIZE}.
+ * schema.sql создаёт последовательности только если их нет, поэтому база, созданная со старым шагом,
+ * его сохранит; если шаг меньше размера блока, Hibernate будет выдавать одни и те же id двум узлам.
+ */
+@Component
+@DependsOnDatabaseInitialization
+@RequiredArgsConstructor
+@Slf4j
+public class SequenceIncrementCheck implements InitializingBean {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        verify();
+    }
+
+    public void verify() {
+        Map<String, Long> increments = new HashMap<>();
+        jdbcTemplate.query("select sequence_name, increment from information_schema.sequences", rs -> {
+            increments.put(rs.getString(1).toLowerCase(Locale.ROOT), Long.parseLong(rs.getString(2)));
+        });
+        List<String> mismatches = new ArrayList<>();
+        for (String name : Sequences.NAMES) {
+            Long increment = increments.get(name);
+            if (increment == null || increment != Sequences.ALLOCATION_SIZE) {
+                mismatches.add(name + " INCREMENT BY " + increment);
+            }
+        }
+        if (!mismatches.isEmpty()) {
+            throw new IllegalStateException("Шаг последовательностей не совпадает с allocationSize "
+                    + Sequences.ALLOCATION_SIZE + ": " + String.join(", ", mismatches));
+        }
+        log.debug("Шаг последовательностей {} совпадает с allocationSize {}", Sequences.NAMES,
+                Sequences.ALLOCATION_SIZE);
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.actuate.metrics.data.DefaultRepositoryTagsProvider;
+import org.springframework.boot.actuate.metrics.data.RepositoryTagsProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.util.ReflectionUtils;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Метрики задержек по слоям: HTTP (http.server.requests), сервисы (shareit.service.invocations)
+ * и репозитории (spring.data.repository.invocations). Таймеры сервисов и репозиториев помечаются
+ * эндпоинтом и состоянием бронирования, поэтому время запроса можно разложить на слои.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ServiceMetricsConfig {
+    private static final List<Class<?>> SERVICES =
+            List.of(ItemService.class, BookingService.class, UserService.class, ItemRequestService.class);
+
+    /**
+     * Таймер стоит снаружи транзакции, чтобы в него попадала и фиксация.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    @ConditionalOnProperty(name = "shareit.metrics.services.enabled", havingValue = "true", matchIfMissing = true)
+    public static Advisor serviceTimingAdvisor(ObjectProvider<MeterRegistry> registry) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new ServicePointcut(),
+                new ServiceTimingInterceptor(SERVICES, registry));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    @Bean
+    public RepositoryTagsProvider repositoryTagsProvider() {
+        DefaultRepositoryTagsProvider defaults = new DefaultRepositoryTagsProvider();
+        return invocation -> Tags.concat(defaults.repositoryTags(invocation), ServiceTimingInterceptor.currentTags());
+    }
+
+    private static class ServicePointcut extends StaticMethodMatcherPointcut {
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return SERVICES.stream().anyMatch(service -> service.isAssignableFrom(targetClass)
+                    && ReflectionUtils.findMethod(service, method.getName(), method.getParameterTypes()) != null);
+        }
+    }
+}
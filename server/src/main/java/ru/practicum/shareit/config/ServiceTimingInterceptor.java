@@ -0,0 +1,154 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.Value;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Таймер shareit.service.invocations вокруг методов сервисов. Теги: сервис, метод, эндпоинт,
+ * из которого пришёл вызов, состояние бронирования (если метод принимает параметр state) и исключение.
+ * Эндпоинт и состояние запоминаются на время вызова, чтобы ими же помечались таймеры репозиториев.
+ * Таймеры регистрируются один раз на сочетание метода, эндпоинта, состояния и исключения и дальше
+ * берутся из кэша: сборка и регистрация таймера на каждый вызов дороже самого замера.
+ */
+class ServiceTimingInterceptor implements MethodInterceptor {
+    static final String METRIC = "shareit.service.invocations";
+    static final String NONE = "none";
+    private static final ThreadLocal<Tags> CURRENT = new ThreadLocal<>();
+
+    private final List<Class<?>> services;
+    private final ObjectProvider<MeterRegistry> registryProvider;
+    private final Map<Method, MethodTags> methodTags = new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+
+    ServiceTimingInterceptor(List<Class<?>> services, ObjectProvider<MeterRegistry> registryProvider) {
+        this.services = services;
+        this.registryProvider = registryProvider;
+    }
+
+    /**
+     * Теги эндпоинта и состояния бронирования текущего вызова сервиса.
+     */
+    static Tags currentTags() {
+        Tags tags = CURRENT.get();
+        return tags == null ? Tags.of(Tag.of("endpoint", endpoint()), Tag.of("state", NONE)) : tags;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MethodTags tags = methodTags.computeIfAbsent(invocation.getMethod(), this::describe);
+        Tags previous = CURRENT.get();
+        Tags context = previous != null ? previous
+                : Tags.of(Tag.of("endpoint", endpoint()), Tag.of("state", tags.state(invocation.getArguments())));
+        CURRENT.set(context);
+        Timer.Sample sample = Timer.start();
+        String exception = NONE;
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            }
+            sample.stop(tags.timer(context, exception, this::registry));
+        }
+    }
+
+    private MeterRegistry registry() {
+        MeterRegistry current = registry;
+        if (current == null) {
+            current = registryProvider.getObject();
+            registry = current;
+        }
+        return current;
+    }
+
+    private MethodTags describe(Method method) {
+        String service = services.stream()
+                .filter(type -> type.isAssignableFrom(method.getDeclaringClass()))
+                .map(Class::getSimpleName)
+                .findFirst()
+                .orElse(method.getDeclaringClass().getSimpleName());
+        Parameter[] parameters = method.getParameters();
+        int stateIndex = -1;
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i].getType() == String.class && parameters[i].getName().equals("state")) {
+                stateIndex = i;
+            }
+        }
+        return new MethodTags(Tags.of("service", service, "method", method.getName()), stateIndex);
+    }
+
+    private static String endpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return NONE;
+        }
+        Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (pattern == null) {
+            return NONE;
+        }
+        return ((ServletRequestAttributes) attributes).getRequest().getMethod() + " " + pattern;
+    }
+
+    private static class MethodTags {
+        private static final List<String> STATES = Arrays.stream(BookingState.values())
+                .map(Enum::name)
+                .collect(toList());
+
+        private final Tags tags;
+        private final int stateIndex;
+        private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+        MethodTags(Tags tags, int stateIndex) {
+            this.tags = tags;
+            this.stateIndex = stateIndex;
+        }
+
+        Timer timer(Tags context, String exception, Supplier<MeterRegistry> registry) {
+            return timers.computeIfAbsent(new TimerKey(context, exception), key -> Timer.builder(METRIC)
+                    .tags(tags)
+                    .tags(context)
+                    .tag("exception", exception)
+                    .register(registry.get()));
+        }
+
+        // неизвестные состояния сводятся к одному значению, чтобы число тегов оставалось ограниченным
+        String state(Object[] arguments) {
+            if (stateIndex < 0) {
+                return NONE;
+            }
+            Object state = arguments[stateIndex];
+            return STATES.contains(state) ? (String) state : "UNKNOWN";
+        }
+    }
+
+    @Value
+    private static class TimerKey {
+        Tags context;
+        String exception;
+    }
+}
@@ -2,7 +2,10 @@ package ru.practicum.shareit.item;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemsDto;
@@ -28,6 +31,13 @@ public class ItemController {
         return itemService.addItem(idOwner, item);
     }
 
+    @PostMapping("/batch")
+    public List<ItemDto> createAll(@RequestHeader(value = Headers.IdOwner) Long idOwner,
+                                   @RequestBody List<ItemDto> items) {
+        log.info("Получен запрос на пакетное создание {} предметов к эндпоинту: 'POST /items/batch'", items.size());
+        return itemService.addItems(idOwner, items);
+    }
+
     @PatchMapping("/{id}")
     public ItemDto update(@RequestHeader(value = Headers.IdOwner) Long idOwner,
                           @PathVariable Long id,
@@ -51,6 +61,14 @@ public class ItemController {
         return itemService.getItemsOwner(idOwner, from, size);
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportItems(@RequestHeader(value = Headers.IdOwner) Long idOwner) {
+        log.info("Получен запрос на выгрузку всех предметов пользователя к эндпоинту: 'GET /items/export'");
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(itemService.exportItems(idOwner));
+    }
+
     @GetMapping("/search")
     public List<ItemDto> getItems(@RequestParam(name = "text") String text,
                                   @RequestParam(defaultValue = "0") Integer from,
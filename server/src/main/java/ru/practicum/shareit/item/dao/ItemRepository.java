@@ -2,23 +2,69 @@ package ru.practicum.shareit.item.dao;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    // Списки для чтения строятся сразу в ItemDto, без владельца и отслеживания изменений.
+    String ITEM_DTO = "select new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, " +
+            "i.requestId) from Item i ";
+
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Item> findAllByOwnerIdOrderById(Long userId, Pageable page);
 
     List<Item> findByOwner(User owner);
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Item> findByRequestId(Long requestId);
 
-    List<Item> findByRequestIdIn(List<Long> requestIds);
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    @Query(ITEM_DTO + "where i.requestId in ?1")
+    List<ItemDto> findByRequestIdIn(List<Long> requestIds);
+
+    // Выгрузка: строки читаются курсором по мере обхода потока, только внутри транзакции.
+    @QueryHints({@QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")})
+    @Query(ITEM_DTO + "where i.owner.id = ?1 order by i.id")
+    Stream<ItemDto> streamByOwnerId(Long ownerId);
 
-    @Query(" select i from Item i where i.available = true and " +
+    @Query(ITEM_DTO + "where i.id in ?1")
+    List<ItemDto> findItemDtosByIdIn(Collection<Long> ids);
+
+    @Query(ITEM_DTO + "where i.available = true and " +
             "(upper(i.name) like upper(concat('%', ?1, '%'))" +
-            "or upper(i.description) like upper(concat('%', ?1, '%')))")
-    List<Item> getItemsText(String text, Pageable page);
+            "or upper(i.description) like upper(concat('%', ?1, '%'))) order by i.id")
+    List<ItemDto> getItemsText(String text, Pageable page);
+
+    // Нативный запрос возвращает только идентификаторы в порядке релевантности; BIGINT приходит как BigInteger.
+    @Query(value = "select i.id from items i where i.available = true and " +
+            "(upper(i.name) like upper(concat('%', ?1, '%')) " +
+            "or upper(i.description) like upper(concat('%', ?1, '%'))) " +
+            "order by greatest(similarity(upper(i.name), upper(?1)), " +
+            "similarity(upper(i.description), upper(?1))) desc, i.id",
+            nativeQuery = true)
+    List<Number> searchAvailableRankedIds(String text, Pageable page);
+
+    @Query("select i.id from Item i where i.id > ?1 order by i.id")
+    List<Long> findIdsAfter(Long id, Pageable page);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = ?1")
+    Optional<Item> findByIdForUpdate(Long itemId);
+
+    // Блокировки берутся по возрастанию id, чтобы две пачки с общими вещами не ждали друг друга по кругу.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id in ?1 order by i.id")
+    List<Item> findAllByIdInForUpdate(Collection<Long> itemIds);
 }
\ No newline at end of file
@@ -0,0 +1,284 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс доступных вещей по словам из названия и описания.
+ * Списки вхождений хранятся в отсортированных массивах long; слово запроса совпадает с любым словом,
+ * которое с него начинается, а все слова запроса должны встретиться в вещи.
+ * Слова вещи хранятся номерами в примитивных массивах, строка слова есть только в словаре. Индекс держит
+ * в куче около 245 байт на вещь с тремя-четырьмя словами, из них одно уникальное; больше всего занимает
+ * уникальное слово в словаре (235 МБ на миллион вещей, замер SearchIndexFootprint в модуле benchmarks).
+ */
+@Service
+@Slf4j
+public class ItemSearchIndex {
+    private static final int BUILD_BATCH_SIZE = 1000;
+    private static final int[] NO_TOKENS = new int[0];
+
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+    // списки вхождений по номеру слова; номера опустевших слов используются повторно
+    private Postings[] postingsByOrdinal = new Postings[1024];
+    private int ordinals;
+    private int[] freeOrdinals = new int[16];
+    private int freeCount;
+    // слова каждой вещи номерами, чтобы при изменении вещи убрать её из прежних списков:
+    // id по возрастанию и номера слов на тех же позициях
+    private long[] itemIds = new long[1024];
+    private int[][] itemTokens = new int[1024][];
+    private int itemCount;
+    private int indexedItems;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           @Value("${shareit.search.index.enabled:false}") boolean enabled) {
+        this.itemRepository = itemRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+        Slice<Item> slice = itemRepository.findAll(PageRequest.of(0, BUILD_BATCH_SIZE, Sort.by("id")));
+        slice.forEach(this::apply);
+        while (slice.hasNext()) {
+            slice = itemRepository.findAll(slice.nextPageable());
+            slice.forEach(this::apply);
+        }
+        log.info("Поисковый индекс вещей построен: {} вещей, {} слов", indexedItems, postings.size());
+    }
+
+    public void index(Item item) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(item);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(item);
+            }
+        });
+    }
+
+    /**
+     * Id подходящих вещей по возрастанию, страница отсчитывается так же, как в поиске через БД.
+     */
+    public List<Long> search(String text, Pageable page) {
+        String[] queryTokens = tokenize(text);
+        if (queryTokens.length == 0) {
+            return Collections.emptyList();
+        }
+        long[] matches;
+        lock.readLock().lock();
+        try {
+            matches = matching(queryTokens[0]);
+            for (int i = 1; i < queryTokens.length && matches.length > 0; i++) {
+                matches = intersect(matches, matching(queryTokens[i]));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Long> ids = new ArrayList<>();
+        for (long i = page.getOffset(); i < matches.length && ids.size() < page.getPageSize(); i++) {
+            ids.add(matches[(int) i]);
+        }
+        return ids;
+    }
+
+    private void apply(Item item) {
+        String[] tokens = Boolean.TRUE.equals(item.getAvailable())
+                ? tokenize(item.getName() + " " + item.getDescription())
+                : new String[0];
+        long id = item.getId();
+        lock.writeLock().lock();
+        try {
+            int position = Arrays.binarySearch(itemIds, 0, itemCount, id);
+            int[] previous = position >= 0 ? itemTokens[position] : NO_TOKENS;
+            for (int ordinal : previous) {
+                Postings list = postingsByOrdinal[ordinal];
+                if (list.remove(id) && list.isEmpty()) {
+                    postings.remove(list.token);
+                    releaseOrdinal(ordinal);
+                }
+            }
+            int[] current = tokens.length == 0 ? NO_TOKENS : new int[tokens.length];
+            for (int i = 0; i < tokens.length; i++) {
+                Postings list = postings.computeIfAbsent(tokens[i], this::newPostings);
+                list.add(id);
+                current[i] = list.ordinal;
+            }
+            indexedItems += (current.length > 0 ? 1 : 0) - (previous.length > 0 ? 1 : 0);
+            if (position >= 0) {
+                itemTokens[position] = current;
+            } else if (current.length > 0) {
+                insertItem(-position - 1, id, current);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void insertItem(int position, long id, int[] tokens) {
+        if (itemCount == itemIds.length) {
+            itemIds = Arrays.copyOf(itemIds, itemCount * 2);
+            itemTokens = Arrays.copyOf(itemTokens, itemCount * 2);
+        }
+        System.arraycopy(itemIds, position, itemIds, position + 1, itemCount - position);
+        System.arraycopy(itemTokens, position, itemTokens, position + 1, itemCount - position);
+        itemIds[position] = id;
+        itemTokens[position] = tokens;
+        itemCount++;
+    }
+
+    private Postings newPostings(String token) {
+        int ordinal;
+        if (freeCount > 0) {
+            ordinal = freeOrdinals[--freeCount];
+        } else {
+            if (ordinals == postingsByOrdinal.length) {
+                postingsByOrdinal = Arrays.copyOf(postingsByOrdinal, ordinals * 2);
+            }
+            ordinal = ordinals++;
+        }
+        Postings list = new Postings(token, ordinal);
+        postingsByOrdinal[ordinal] = list;
+        return list;
+    }
+
+    private void releaseOrdinal(int ordinal) {
+        postingsByOrdinal[ordinal] = null;
+        if (freeCount == freeOrdinals.length) {
+            freeOrdinals = Arrays.copyOf(freeOrdinals, freeCount * 2);
+        }
+        freeOrdinals[freeCount++] = ordinal;
+    }
+
+    private long[] matching(String prefix) {
+        Collection<Postings> lists = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+        if (lists.size() == 1) {
+            return lists.iterator().next().toArray();
+        }
+        int total = 0;
+        for (Postings list : lists) {
+            total += list.size;
+        }
+        long[] merged = new long[total];
+        int position = 0;
+        for (Postings list : lists) {
+            System.arraycopy(list.ids, 0, merged, position, list.size);
+            position += list.size;
+        }
+        Arrays.sort(merged);
+        int distinct = 0;
+        for (int i = 0; i < merged.length; i++) {
+            if (i == 0 || merged[i] != merged[i - 1]) {
+                merged[distinct++] = merged[i];
+            }
+        }
+        return Arrays.copyOf(merged, distinct);
+    }
+
+    private static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static String[] tokenize(String text) {
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Отсортированный по возрастанию список id вещей, содержащих слово.
+     */
+    private static class Postings {
+        private final String token;
+        private final int ordinal;
+        // большинство слов встречается в одной вещи (номер, фамилия)
+        private long[] ids = new long[1];
+        private int size;
+
+        Postings(String token, int ordinal) {
+            this.token = token;
+            this.ordinal = ordinal;
+        }
+
+        void add(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.service;
 
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemsDto;
@@ -9,12 +10,16 @@ import java.util.List;
 public interface ItemService {
     ItemDto addItem(Long ownerId, ItemDto itemDto);
 
+    List<ItemDto> addItems(Long ownerId, List<ItemDto> itemDtos);
+
     ItemDto update(Long ownerId, Long itemId, ItemDto itemDto);
 
     ItemsDto getItem(Long itemId, Long userId);
 
     List<ItemsDto> getItemsOwner(Long ownerId, int fom, int size);
 
+    StreamingResponseBody exportItems(Long ownerId);
+
     List<ItemDto> getItemsText(String text, int fom, int size);
 
     CommentDto addComment(Long authorId, Long itemId, CommentDto commentDto);
@@ -2,16 +2,19 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.dao.BookingRepository;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dao.BookingHistoryRepository;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.dto.ItemBookingInfoDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
-import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dao.CommentRepository;
@@ -25,6 +28,7 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dao.UserRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.NdjsonExport;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -40,8 +44,14 @@ import static org.springframework.data.domain.Sort.Direction.DESC;
 public class ItemServiceImpl implements ItemService {
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
-    private final BookingRepository bookingRepository;
+    private final BookingHistoryRepository bookingHistoryRepository;
+    private final ItemBookingSummaryService bookingSummaryService;
     private final CommentRepository commentRepository;
+    private final ItemSearchIndex searchIndex;
+    private final NdjsonExport ndjsonExport;
+
+    @Value("${shareit.search.trigram:false}")
+    private boolean trigramSearch;
 
     @Transactional
     @Override
@@ -49,23 +59,34 @@ public class ItemServiceImpl implements ItemService {
         if (ownerId == null) {
             throw new ValidationException("Owner ID не может быть null");
         }
-        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
-            throw new ValidationException("Название не может быть пустым");
-        }
-        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
-            throw new ValidationException("Описание не может быть пустым");
-        }
-        if (itemDto.getAvailable() == null) {
-            throw new ValidationException("Статус не может быть пустой");
-        }
+        checkNewItem(itemDto);
         checkOwner(ownerId);
         Item item = ItemMapper.toItem(itemDto);
         Optional<User> user = userRepository.findById(ownerId);
         item.setOwner(user.get());
         Item newItem = itemRepository.save(item);
+        searchIndex.index(newItem);
         return ItemMapper.toItemDto(newItem);
     }
 
+    @Transactional
+    @Override
+    public List<ItemDto> addItems(Long ownerId, List<ItemDto> itemDtos) {
+        if (ownerId == null) {
+            throw new ValidationException("Owner ID не может быть null");
+        }
+        itemDtos.forEach(this::checkNewItem);
+        User owner = userRepository.findById(ownerId)
+                .orElseThrow(() -> new ObjectNotFoundException("Пользователь не найден"));
+        List<Item> items = itemDtos.stream()
+                .map(ItemMapper::toItem)
+                .collect(toList());
+        items.forEach(item -> item.setOwner(owner));
+        List<Item> newItems = itemRepository.saveAll(items);
+        newItems.forEach(searchIndex::index);
+        return ItemMapper.toItemDtoList(newItems);
+    }
+
     @Transactional
     @Override
     public ItemDto update(Long ownerId, Long itemId, ItemDto itemDto) {
@@ -91,6 +112,7 @@ public class ItemServiceImpl implements ItemService {
                 item.setRequestId(oldItem.getRequestId());
             }
             Item newItem = itemRepository.save(item);
+            searchIndex.index(newItem);
             return ItemMapper.toItemDto(newItem);
         }
     }
@@ -108,13 +130,27 @@ public class ItemServiceImpl implements ItemService {
         return fillWithBookingInfo(itemRepository.findAllByOwnerIdOrderById(ownerId, page), ownerId);
     }
 
+    @Override
+    public StreamingResponseBody exportItems(Long ownerId) {
+        checkOwner(ownerId);
+        return ndjsonExport.of(ItemDto.class, () -> itemRepository.streamByOwnerId(ownerId));
+    }
+
     @Override
     public List<ItemDto> getItemsText(String text, int from, int size) {
         Pageable page = PageRequest.of(from / size, size);
         if (text.isBlank()) {
             return Collections.emptyList();
         }
-        return ItemMapper.toItemDtoList(itemRepository.getItemsText(text, page));
+        if (searchIndex.isEnabled()) {
+            return hydrate(searchIndex.search(text, page));
+        }
+        if (trigramSearch) {
+            return hydrate(itemRepository.searchAvailableRankedIds(text, page).stream()
+                    .map(Number::longValue)
+                    .collect(toList()));
+        }
+        return itemRepository.getItemsText(text, page);
     }
 
     @Override
@@ -124,9 +160,8 @@ public class ItemServiceImpl implements ItemService {
                 new ObjectNotFoundException("Автор не найден"));
         Item item = itemRepository.findById(itemId).orElseThrow(() ->
                 new ObjectNotFoundException("Предмет не найден"));
-        List<Booking> authorBooked = bookingRepository
-                .findBookingsByItem(item, BookingStatus.APPROVED, authorId, LocalDateTime.now());
-        if (authorBooked.isEmpty()) {
+        if (!bookingHistoryRepository.existsFinishedBooking(item.getId(), BookingStatus.APPROVED, authorId,
+                LocalDateTime.now())) {
             throw new ValidationException("Неверные параметры");
         }
         CommentDto newComment = CommentMapper.toCommentDto(commentRepository
@@ -135,40 +170,52 @@ public class ItemServiceImpl implements ItemService {
         return newComment;
     }
 
+    private List<ItemDto> hydrate(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, ItemDto> items = new HashMap<>();
+        itemRepository.findItemDtosByIdIn(ids).forEach(item -> items.put(item.getId(), item));
+        return ids.stream()
+                .map(items::get)
+                .filter(item -> item != null && Boolean.TRUE.equals(item.getAvailable()))
+                .collect(toList());
+    }
+
     private List<ItemsDto> fillWithBookingInfo(List<Item> items, Long userId) {
-        Map<Item, List<Comment>> comments = commentRepository.findByItemIn(
+        Map<Long, List<Comment>> comments = commentRepository.findByItemIn(
                         items, Sort.by(DESC, "created"))
                 .stream()
-                .collect(groupingBy(Comment::getItem, toList()));
-        Map<Item, List<Booking>> bookings = bookingRepository.findByItemInAndStatus(
-                        items, BookingStatus.APPROVED,
-                        Sort.by(DESC, "start"))
-                .stream()
-                .collect(groupingBy(Booking::getItem, toList()));
+                .collect(groupingBy(comment -> comment.getItem().getId(), toList()));
         LocalDateTime now = LocalDateTime.now();
-        return items.stream().map(item -> addBookingAndComment(item, userId, comments.getOrDefault(item, List.of()),
-                        bookings.getOrDefault(item, List.of()), now))
+        List<Long> ownItemIds = items.stream()
+                .filter(item -> item.getOwner().getId().equals(userId))
+                .map(Item::getId)
+                .collect(toList());
+        Map<Long, List<BookingShortDto>> bookings = ownItemIds.isEmpty() ? Map.of()
+                : bookingSummaryService.findLastAndNext(ownItemIds, now);
+        return items.stream().map(item -> addBookingAndComment(item, userId, comments.getOrDefault(item.getId(), List.of()),
+                        bookings.getOrDefault(item.getId(), List.of()), now))
                 .collect(toList());
     }
 
     public ItemsDto addBookingAndComment(Item item,
                                          Long userId,
                                          List<Comment> comments,
-                                         List<Booking> bookings,
+                                         List<BookingShortDto> bookings,
                                          LocalDateTime now) {
         if (!item.getOwner().getId().equals(userId)) {
             return ItemMapper.toItemsDto(item, null, null, CommentMapper.commentDtoList(comments));
         }
 
-        Booking lastBooking = bookings.stream()
+        BookingShortDto lastBooking = bookings.stream()
                 .filter(b -> !b.getStart().isAfter(now))
-                .sorted(Comparator.comparing(Booking::getStart).reversed())
-                .findFirst()
+                .max(Comparator.comparing(BookingShortDto::getStart))
                 .orElse(null);
 
-        Booking nextBooking = bookings.stream()
+        BookingShortDto nextBooking = bookings.stream()
                 .filter(b -> b.getStart().isAfter(now))
-                .reduce((a, b) -> a.getStart().isBefore(b.getStart()) ? a : b)
+                .min(Comparator.comparing(BookingShortDto::getStart))
                 .orElse(null);
 
         ItemBookingInfoDto lastBookingDto = lastBooking != null
@@ -178,6 +225,18 @@ public class ItemServiceImpl implements ItemService {
         return ItemMapper.toItemsDto(item, lastBookingDto, nextBookingDto, CommentMapper.commentDtoList(comments));
     }
 
+    private void checkNewItem(ItemDto itemDto) {
+        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
+            throw new ValidationException("Название не может быть пустым");
+        }
+        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
+            throw new ValidationException("Описание не может быть пустым");
+        }
+        if (itemDto.getAvailable() == null) {
+            throw new ValidationException("Статус не может быть пустой");
+        }
+    }
+
     private void checkOwner(Long ownerId) {
         userRepository.findById(ownerId)
                 .orElseThrow(() -> new ObjectNotFoundException("Пользователь не найден"));
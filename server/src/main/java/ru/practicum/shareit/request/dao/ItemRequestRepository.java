@@ -1,16 +1,27 @@
 package ru.practicum.shareit.request.dao;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
+    @Override
+    @EntityGraph(attributePaths = "requestor")
+    Optional<ItemRequest> findById(Long id);
+
+    @EntityGraph(attributePaths = "requestor")
     List<ItemRequest> findByRequestorOrderByCreated(User requestor);
 
-    Page<ItemRequest> findAllByRequestorIdNot(long userId, Pageable pageable);
+    @Query("select new ru.practicum.shareit.request.dto.ItemRequestDto(r.id, r.description, " +
+            "u.id, u.email, u.name, r.created) " +
+            "from ItemRequest r join r.requestor u where u.id <> ?1")
+    List<ItemRequestDto> findAllByRequestorIdNot(long userId, Pageable pageable);
 }
\ No newline at end of file
@@ -28,4 +28,12 @@ public class ItemRequestDto {
     private LocalDateTime created;
 
     private List<ItemDto> items;
+
+    /**
+     * Конструктор для JPQL-проекции: автор запроса читается из тех же строк, вещи добавляются отдельно.
+     */
+    public ItemRequestDto(Long id, String description, Long requestorId, String requestorEmail,
+                          String requestorName, LocalDateTime created) {
+        this(id, description, new UserDto(requestorId, requestorEmail, requestorName), created, null);
+    }
 }
\ No newline at end of file
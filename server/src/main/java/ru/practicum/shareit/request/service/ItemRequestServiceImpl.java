@@ -8,6 +8,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dao.ItemRequestRepository;
@@ -74,12 +75,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         }
         Sort sort = Sort.by(Sort.Direction.DESC, "created");
         PageRequest pageRequest = PageRequest.of(from / size, size, sort);
-        List<ItemRequestDto> itemRequestDtoList = itemRequestRepository.findAllByRequestorIdNot(
-                        userId,
-                        pageRequest)
-                .stream()
-                .map(ItemRequestMapper::toItemRequestDto)
-                .collect(Collectors.toList());
+        List<ItemRequestDto> itemRequestDtoList = itemRequestRepository.findAllByRequestorIdNot(userId, pageRequest);
 
         addItems(itemRequestDtoList);
         return itemRequestDtoList;
@@ -96,11 +92,9 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         List<Long> requestIds = itemRequestDtoList.stream()
                 .map(ItemRequestDto::getId)
                 .collect(Collectors.toList());
-        Map<Long, List<Item>> itemsByRequestId = itemRepository.findByRequestIdIn(requestIds).stream()
-                .collect(Collectors.groupingBy(Item::getRequestId));
-        itemRequestDtoList.forEach(requestDto -> {
-            List<Item> itemList = itemsByRequestId.getOrDefault(requestDto.getId(), Collections.emptyList());
-            requestDto.setItems(ItemMapper.toItemDtoList(itemList));
-        });
+        Map<Long, List<ItemDto>> itemsByRequestId = itemRepository.findByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(ItemDto::getRequestId));
+        itemRequestDtoList.forEach(requestDto ->
+                requestDto.setItems(itemsByRequestId.getOrDefault(requestDto.getId(), Collections.emptyList())));
     }
 }
\ No newline at end of file
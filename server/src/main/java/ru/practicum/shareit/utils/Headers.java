@@ -2,4 +2,5 @@ package ru.practicum.shareit.utils;
 
 public class Headers {
     public static final String IdOwner = "X-Sharer-User-Id";
+    public static final String NextCursor = "X-Next-Cursor";
 }
\ No newline at end of file
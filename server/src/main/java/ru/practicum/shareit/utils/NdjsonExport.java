@@ -0,0 +1,59 @@
+package ru.practicum.shareit.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Выгрузка в NDJSON: по одному JSON-объекту в строке. Строки берутся из потока, который репозиторий читает
+ * курсором, и сразу пишутся в ответ, поэтому память не зависит от их числа.
+ */
+@Component
+public class NdjsonExport {
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnly;
+
+    public NdjsonExport(ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.objectMapper = objectMapper;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    /**
+     * Тело ответа, которое при записи открывает {@code rows} в своей транзакции только для чтения:
+     * ответ пишется уже после выхода из метода контроллера, в другом потоке.
+     */
+    public <T> StreamingResponseBody of(Class<T> type, Supplier<Stream<T>> rows) {
+        // без сброса после каждой строки: ответ уходит кусками по мере заполнения буферов
+        ObjectWriter writer = objectMapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return out -> readOnly.executeWithoutResult(status -> {
+            try (Stream<T> stream = rows.get()) {
+                write(writer, stream, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static <T> void write(ObjectWriter writer, Stream<T> rows, OutputStream out) throws IOException {
+        try (JsonGenerator generator = writer.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            for (T row : (Iterable<T>) rows::iterator) {
+                writer.writeValue(generator, row);
+                generator.writeRaw('\n');
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.utils;
+
+import java.util.List;
+
+/**
+ * Размер блока id, который Hibernate забирает из последовательности за одно обращение.
+ * Значение фиксированное: оно стоит в аннотациях сущностей, а миграция создаёт последовательности
+ * с тем же INCREMENT BY 50 в schema.sql. Менять нужно в обоих местах; при расхождении сервер не
+ * запустится, см. {@link ru.practicum.shareit.config.SequenceIncrementCheck}.
+ */
+public class Sequences {
+    public static final int ALLOCATION_SIZE = 50;
+
+    public static final List<String> NAMES =
+            List.of("users_seq", "requests_seq", "items_seq", "bookings_seq", "comments_seq");
+}
@@ -0,0 +1,34 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING gin (upper(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING gin (upper(description) gin_trgm_ops);
+
+-- В PostgreSQL живые бронирования секционированы по end_date: списки CURRENT и FUTURE
+-- читают только секции, которые ещё не закончились. Месячные секции bookings_pYYYYMM создаёт
+-- BookingArchiveJobs, в секцию по умолчанию попадает всё, для чего секции ещё нет.
+DROP VIEW IF EXISTS bookings_history;
+DROP TABLE IF EXISTS bookings CASCADE;
+
+CREATE TABLE IF NOT EXISTS bookings
+(
+    id         BIGINT                                  NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE             not null,
+    end_date   TIMESTAMP WITHOUT TIME ZONE             not null,
+    item_id    BIGINT,
+    booker_id  BIGINT,
+    status     VARCHAR                                 not null,
+    CONSTRAINT pk_booking PRIMARY KEY (id, end_date),
+    CONSTRAINT fk_bookings_item_id FOREIGN KEY (item_id) REFERENCES items (id),
+    CONSTRAINT fk_bookings_booker_id FOREIGN KEY (booker_id) REFERENCES users (id)
+) PARTITION BY RANGE (end_date);
+
+CREATE TABLE IF NOT EXISTS bookings_default PARTITION OF bookings DEFAULT;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_end ON bookings (end_date);
+
+CREATE VIEW bookings_history AS
+SELECT id, start_date, end_date, item_id, booker_id, status FROM bookings
+UNION ALL
+SELECT id, start_date, end_date, item_id, booker_id, status FROM bookings_archive;
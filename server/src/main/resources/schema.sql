@@ -1,12 +1,26 @@
+DROP VIEW IF EXISTS bookings_history;
 DROP TABLE IF EXISTS users CASCADE;
 DROP TABLE IF EXISTS items CASCADE;
 DROP TABLE IF EXISTS bookings CASCADE;
+DROP TABLE IF EXISTS bookings_archive CASCADE;
 DROP TABLE IF EXISTS requests CASCADE;
 DROP TABLE IF EXISTS comments CASCADE;
+DROP TABLE IF EXISTS item_booking_summary CASCADE;
+DROP SEQUENCE IF EXISTS users_seq;
+DROP SEQUENCE IF EXISTS requests_seq;
+DROP SEQUENCE IF EXISTS items_seq;
+DROP SEQUENCE IF EXISTS bookings_seq;
+DROP SEQUENCE IF EXISTS comments_seq;
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS users
 (
-    id    BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id    BIGINT                                  NOT NULL,
     name  VARCHAR(255)                            NOT NULL,
     email VARCHAR(512)                            NOT NULL,
     CONSTRAINT pk_user PRIMARY KEY (id),
@@ -17,7 +31,7 @@ CREATE TABLE IF NOT EXISTS users
 
 CREATE TABLE IF NOT EXISTS requests
 (
-    id           BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id           BIGINT                                  NOT NULL,
     description  VARCHAR(1000)                           NOT NULL,
     requestor_id BIGINT,
     created      TIMESTAMP WITHOUT TIME ZONE,
@@ -25,9 +39,12 @@ CREATE TABLE IF NOT EXISTS requests
     CONSTRAINT fk_requestor FOREIGN KEY (requestor_id) REFERENCES users (id)
 );
 
+CREATE INDEX IF NOT EXISTS idx_requests_requestor_created ON requests (requestor_id, created);
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (created);
+
 CREATE TABLE IF NOT EXISTS items
 (
-    id          BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id          BIGINT                                  NOT NULL,
     name        VARCHAR(255)                            NOT NULL,
     description VARCHAR(1000)                           NOT NULL,
     available   BOOLEAN,
@@ -39,9 +56,12 @@ CREATE TABLE IF NOT EXISTS items
     CONSTRAINT fk_request FOREIGN KEY (request) REFERENCES requests (id)
 );
 
+CREATE INDEX IF NOT EXISTS idx_items_owner_id ON items (owner_id);
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request);
+
 CREATE TABLE IF NOT EXISTS bookings
 (
-    id         BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id         BIGINT                                  NOT NULL,
     start_date TIMESTAMP WITHOUT TIME ZONE             not null,
     end_date   TIMESTAMP WITHOUT TIME ZONE             not null,
     item_id    BIGINT,
@@ -52,11 +72,39 @@ CREATE TABLE IF NOT EXISTS bookings
     CONSTRAINT fk_bookings_booker_id FOREIGN KEY (booker_id) REFERENCES users (id)
 );
 
+-- id в конце: списки упорядочены по (start, id), и страница читается из индекса без сортировки
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_end ON bookings (end_date);
+
+-- Бронирования, закончившиеся раньше горизонта архивации. Переносятся фоновой задачей из bookings.
+CREATE TABLE IF NOT EXISTS bookings_archive
+(
+    id         BIGINT                                  NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE             not null,
+    end_date   TIMESTAMP WITHOUT TIME ZONE             not null,
+    item_id    BIGINT,
+    booker_id  BIGINT,
+    status     VARCHAR                                 not null,
+    CONSTRAINT pk_booking_archive PRIMARY KEY (id),
+    CONSTRAINT fk_bookings_archive_item_id FOREIGN KEY (item_id) REFERENCES items (id),
+    CONSTRAINT fk_bookings_archive_booker_id FOREIGN KEY (booker_id) REFERENCES users (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_booker_start ON bookings_archive (booker_id, start_date, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_item_status_start ON bookings_archive (item_id, status, start_date);
+
+-- Вся история бронирований: её читают списки ALL, PAST, REJECTED и проверка отзывов.
+CREATE VIEW bookings_history AS
+SELECT id, start_date, end_date, item_id, booker_id, status FROM bookings
+UNION ALL
+SELECT id, start_date, end_date, item_id, booker_id, status FROM bookings_archive;
+
 
 
 CREATE TABLE IF NOT EXISTS comments
 (
-    id        BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id        BIGINT                                  NOT NULL,
     text      VARCHAR(1000)                           NOT NULL,
     item_id   BIGINT,
     author_id BIGINT,
@@ -66,5 +114,21 @@ CREATE TABLE IF NOT EXISTS comments
     CONSTRAINT fk_comments_author_id FOREIGN KEY (author_id) REFERENCES users (id)
 );
 
+CREATE INDEX IF NOT EXISTS idx_comments_item_created ON comments (item_id, created);
 
+CREATE TABLE IF NOT EXISTS item_booking_summary
+(
+    item_id         BIGINT                      NOT NULL,
+    last_booking_id BIGINT,
+    last_booker_id  BIGINT,
+    last_start      TIMESTAMP WITHOUT TIME ZONE,
+    last_end        TIMESTAMP WITHOUT TIME ZONE,
+    next_booking_id BIGINT,
+    next_booker_id  BIGINT,
+    next_start      TIMESTAMP WITHOUT TIME ZONE,
+    next_end        TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT pk_item_booking_summary PRIMARY KEY (item_id),
+    CONSTRAINT fk_item_booking_summary_item_id FOREIGN KEY (item_id) REFERENCES items (id)
+);
 
+CREATE INDEX IF NOT EXISTS idx_item_booking_summary_next_start ON item_booking_summary (next_start);
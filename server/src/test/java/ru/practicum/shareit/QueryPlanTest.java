@@ -0,0 +1,232 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dao.BookingHistoryRepository;
+import ru.practicum.shareit.booking.dao.BookingListQuery;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dao.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dao.CommentRepository;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dao.ItemRequestRepository;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверяет планы запросов репозиториев на заполненной базе: горячие запросы не должны читать таблицы целиком.
+ * SQL перехватывается у Hibernate и передаётся в EXPLAIN без значений параметров.
+ */
+@SpringBootTest(
+        properties = {
+                "db.name=test",
+                "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                        + "ru.practicum.shareit.QueryPlanTest$SqlRecorder"
+        },
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class QueryPlanTest {
+    private static final int USERS = 50;
+    private static final int REQUESTS = 200;
+    private static final int ITEMS = 500;
+    private static final int BOOKINGS = 5000;
+    private static final int COMMENTS = 1000;
+    private static final List<String> FULL_SCAN_MARKERS = List.of(".tableScan", "Seq Scan");
+    // Запросы, которые на H2 читают таблицу целиком по известной причине. Исключение, переставшее
+    // сканировать таблицу, тоже считается ошибкой: его нужно убрать из списка.
+    private static final Map<String, String> KNOWN_FULL_SCANS = Map.of(
+            "findAllByRequestorIdNot", "H2 не использует индекс для ORDER BY ... LIMIT, а по requestor_id <> "
+                    + "индекс не подходит; PostgreSQL читает idx_requests_created с конца до первых size строк");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingRepository bookingRepository;
+    private final BookingHistoryRepository historyRepository;
+    private final ItemRepository itemRepository;
+    private final CommentRepository commentRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final UserRepository userRepository;
+    private final List<String> failures = new ArrayList<>();
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeAll
+    void seed() {
+        List<Object[]> users = new ArrayList<>();
+        for (long i = 1; i <= USERS; i++) {
+            users.add(new Object[]{i, "user" + i, "user" + i + "@mail.com"});
+        }
+        jdbcTemplate.batchUpdate("insert into users (id, name, email) values (?, ?, ?)", users);
+        List<Object[]> requests = new ArrayList<>();
+        for (long i = 1; i <= REQUESTS; i++) {
+            requests.add(new Object[]{i, "request" + i, i % USERS + 1, at(-i)});
+        }
+        jdbcTemplate.batchUpdate("insert into requests (id, description, requestor_id, created) values (?, ?, ?, ?)",
+                requests);
+        List<Object[]> items = new ArrayList<>();
+        for (long i = 1; i <= ITEMS; i++) {
+            items.add(new Object[]{i, "item" + i, "description" + i, i % 7 != 0, i % USERS + 1,
+                    i % 3 == 0 ? i % REQUESTS + 1 : null});
+        }
+        jdbcTemplate.batchUpdate("insert into items (id, name, description, available, owner_id, request) " +
+                "values (?, ?, ?, ?, ?, ?)", items);
+        List<Object[]> bookings = new ArrayList<>();
+        BookingStatus[] statuses = BookingStatus.values();
+        for (long i = 1; i <= BOOKINGS; i++) {
+            long offset = i - BOOKINGS / 2;
+            bookings.add(new Object[]{i, at(offset), at(offset + 1), i % ITEMS + 1, (i * 7) % USERS + 1,
+                    statuses[(int) (i % statuses.length)].name()});
+        }
+        jdbcTemplate.batchUpdate("insert into bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                "values (?, ?, ?, ?, ?, ?)", bookings);
+        List<Object[]> comments = new ArrayList<>();
+        for (long i = 1; i <= COMMENTS; i++) {
+            comments.add(new Object[]{i, "comment" + i, i % ITEMS + 1, i % USERS + 1, at(-i)});
+        }
+        jdbcTemplate.batchUpdate("insert into comments (id, text, item_id, author_id, created) " +
+                "values (?, ?, ?, ?, ?)", comments);
+        List<Object[]> summaries = new ArrayList<>();
+        for (long i = 1; i <= ITEMS; i++) {
+            summaries.add(new Object[]{i, i, i % USERS + 1, at(i - ITEMS), at(i - ITEMS + 1)});
+        }
+        jdbcTemplate.batchUpdate("insert into item_booking_summary (item_id, next_booking_id, next_booker_id, " +
+                "next_start, next_end) values (?, ?, ?, ?, ?)", summaries);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void bookingQueriesShouldUseIndexes() {
+        Item item = itemRepository.findById(2L).orElseThrow();
+        PageRequest page = PageRequest.of(0, 10);
+
+        check("existsFinishedBooking", () -> historyRepository
+                .existsFinishedBooking(item.getId(), BookingStatus.APPROVED, 1L, now));
+        check("findLastBooking", () -> historyRepository.findLastBooking(1L, BookingStatus.APPROVED, now, page));
+        check("findNextBooking", () -> historyRepository.findNextBooking(1L, BookingStatus.APPROVED, now, page));
+        check("findItemIdsWithStartedNext", () -> summaryRepository
+                .findItemIdsWithStartedNext(now.minusHours(490), 0L, page));
+        check("findIdsEndedBefore", () -> bookingRepository.findIdsEndedBefore(now.minusYears(1), page));
+        check("existsOverlapping", () -> bookingRepository
+                .existsOverlapping(1L, List.of(BookingStatus.WAITING, BookingStatus.APPROVED), now, now.plusDays(1)));
+        for (BookingRole role : BookingRole.values()) {
+            for (BookingState state : BookingState.values()) {
+                BookingCursor after = BookingCursor.first(state != BookingState.CURRENT);
+                check("findBookings " + role + " " + state, () -> bookingRepository
+                        .findBookings(listQuery(role, state, null)));
+                check("findBookings " + role + " " + state + " after", () -> bookingRepository
+                        .findBookings(listQuery(role, state, after)));
+            }
+        }
+
+        assertNoFullScans();
+    }
+
+    @Test
+    void itemCommentAndRequestQueriesShouldUseIndexes() {
+        User user = userRepository.findById(3L).orElseThrow();
+        List<Item> items = itemRepository.findAllById(List.of(1L, 2L, 3L));
+
+        check("findAllByOwnerIdOrderById", () -> itemRepository
+                .findAllByOwnerIdOrderById(1L, PageRequest.of(0, 10)));
+        check("findByOwner", () -> itemRepository.findByOwner(user));
+        check("findByRequestId", () -> itemRepository.findByRequestId(4L));
+        check("findByRequestIdIn", () -> itemRepository.findByRequestIdIn(List.of(5L, 6L)));
+        check("findItemDtosByIdIn", () -> itemRepository.findItemDtosByIdIn(List.of(5L, 6L)));
+        check("findByIdForUpdate", () -> itemRepository.findByIdForUpdate(7L));
+        check("findByItemIn", () -> commentRepository.findByItemIn(items, Sort.by(Sort.Direction.DESC, "created")));
+        check("findByRequestorOrderByCreated", () -> itemRequestRepository.findByRequestorOrderByCreated(user));
+        check("findAllByRequestorIdNot", () -> itemRequestRepository.findAllByRequestorIdNot(3L,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "created"))));
+        check("findIdsAfter", () -> itemRepository.findIdsAfter(100L, PageRequest.of(0, 10)));
+        check("streamByOwnerId", () -> {
+            try (Stream<ItemDto> stream = itemRepository.streamByOwnerId(1L)) {
+                stream.forEach(item -> {
+                });
+            }
+        });
+
+        assertNoFullScans();
+    }
+
+    private void check(String query, Runnable call) {
+        SqlRecorder.STATEMENTS.clear();
+        transactionTemplate.executeWithoutResult(status -> call.run());
+        if (SqlRecorder.STATEMENTS.isEmpty()) {
+            failures.add(query + ": запрос не дошёл до базы");
+        }
+        boolean fullScan = false;
+        for (String sql : SqlRecorder.STATEMENTS) {
+            String plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class).get(0);
+            if (FULL_SCAN_MARKERS.stream().anyMatch(plan::contains)) {
+                fullScan = true;
+                if (!KNOWN_FULL_SCANS.containsKey(query)) {
+                    failures.add(query + ":\n" + plan);
+                }
+            }
+        }
+        if (KNOWN_FULL_SCANS.containsKey(query) && !fullScan) {
+            failures.add(query + ": больше не читает таблицу целиком, исключение устарело");
+        }
+    }
+
+    private void assertNoFullScans() {
+        String report = String.join("\n\n", failures);
+        failures.clear();
+        assertTrue(report.isEmpty(), "Запросы читают таблицы целиком:\n" + report);
+    }
+
+    private BookingListQuery listQuery(BookingRole role, BookingState state, BookingCursor cursor) {
+        return BookingListQuery.builder()
+                .role(role)
+                .state(state)
+                .userId(1L)
+                .now(now)
+                .cursor(cursor)
+                .size(10)
+                .build();
+    }
+
+    private Timestamp at(long hoursFromNow) {
+        return Timestamp.valueOf(now.plusHours(hoursFromNow));
+    }
+
+    public static class SqlRecorder implements StatementInspector {
+        static final Queue<String> STATEMENTS = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.trim().toLowerCase().startsWith("select")) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
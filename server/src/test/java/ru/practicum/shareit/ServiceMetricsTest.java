@@ -0,0 +1,73 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "db.name=test")
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class ServiceMetricsTest {
+    private final MockMvc mvc;
+    private final MeterRegistry registry;
+    private final UserService userService;
+    private final BookingService bookingService;
+
+    @Test
+    void serviceAndRepositoryTimersShouldCarryEndpointAndState() throws Exception {
+        UserDto owner = userService.addUser(UserDto.builder().name("Ash").email("ash@metrics.com").build());
+
+        mvc.perform(get("/bookings/owner")
+                        .param("state", "PAST")
+                        .header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk());
+
+        Timer service = registry.get("shareit.service.invocations")
+                .tags("service", "BookingService", "method", "ownerItemsBookingLists",
+                        "endpoint", "GET /bookings/owner", "state", "PAST", "exception", "none")
+                .timer();
+        assertEquals(1, service.count());
+        Timer repository = registry.get("spring.data.repository.invocations")
+                .tags("repository", "BookingRepository", "endpoint", "GET /bookings/owner", "state", "PAST")
+                .timer();
+        assertTrue(repository.count() > 0);
+    }
+
+    @Test
+    void failedCallsShouldBeTaggedWithException() {
+        assertThrows(ObjectNotFoundException.class, () -> userService.getUser(Long.MAX_VALUE));
+
+        assertEquals(1, registry.get("shareit.service.invocations")
+                .tags("service", "UserService", "method", "getUser", "endpoint", "none",
+                        "exception", "ObjectNotFoundException")
+                .timer().count());
+    }
+
+    @Test
+    void prometheusEndpointShouldExposeHistograms() throws Exception {
+        userService.getUsersList();
+
+        mvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("shareit_service_invocations_seconds_bucket")));
+    }
+}
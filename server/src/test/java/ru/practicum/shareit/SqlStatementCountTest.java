@@ -0,0 +1,149 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.service.ItemRequestService;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Считает SQL-запросы, которые выполняет каждый списочный эндпоинт. Число запросов не должно зависеть
+ * от размера страницы: если на странице из {@value #PAGE} строк запросов больше, чем на странице из одной,
+ * где-то появился N+1. Перед каждым вызовом кэш второго уровня очищается, чтобы он не скрывал лишние запросы.
+ */
+@SpringBootTest(
+        properties = {
+                "db.name=test",
+                "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                        + "ru.practicum.shareit.SqlStatementCountTest$SqlCounter"
+        },
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class SqlStatementCountTest {
+    private static final int PAGE = 20;
+    private static final long BASE = 1_000_000;
+    private static final long OWNER = BASE + 1;
+    private static final long BOOKER = BASE + 2;
+    private static final long FIRST_OTHER_USER = BASE + 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final ItemRequestService itemRequestService;
+    private final List<String> failures = new ArrayList<>();
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeAll
+    void seed() {
+        List<Object[]> users = new ArrayList<>();
+        for (long id = OWNER; id < FIRST_OTHER_USER + PAGE; id++) {
+            users.add(new Object[]{id, "user" + id, "user" + id + "@statements.com"});
+        }
+        jdbcTemplate.batchUpdate("insert into users (id, name, email) values (?, ?, ?)", users);
+        List<Object[]> requests = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        List<Object[]> bookings = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        for (int i = 0; i < PAGE; i++) {
+            long otherUser = FIRST_OTHER_USER + i;
+            long ownItem = BASE + i;
+            long answerItem = BASE + PAGE + i;
+            requests.add(new Object[]{BASE + i, "request" + i, otherUser, at(-i)});
+            items.add(new Object[]{ownItem, "statcount" + i, "description" + i, true, OWNER, null});
+            items.add(new Object[]{answerItem, "answer" + i, "description" + i, true, otherUser, BASE + i});
+            bookings.add(new Object[]{BASE + i, at(-i - 2), at(-i - 1), ownItem, BOOKER,
+                    BookingStatus.APPROVED.name()});
+            bookings.add(new Object[]{BASE + PAGE + i, at(i + 1), at(i + 2), ownItem, otherUser,
+                    BookingStatus.APPROVED.name()});
+            comments.add(new Object[]{BASE + i, "comment" + i, ownItem, otherUser, at(-i)});
+        }
+        jdbcTemplate.batchUpdate("insert into requests (id, description, requestor_id, created) values (?, ?, ?, ?)",
+                requests);
+        jdbcTemplate.batchUpdate("insert into items (id, name, description, available, owner_id, request) " +
+                "values (?, ?, ?, ?, ?, ?)", items);
+        jdbcTemplate.batchUpdate("insert into bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                "values (?, ?, ?, ?, ?, ?)", bookings);
+        jdbcTemplate.batchUpdate("insert into comments (id, text, item_id, author_id, created) " +
+                "values (?, ?, ?, ?, ?)", comments);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        for (String table : List.of("comments", "bookings", "items", "requests", "users")) {
+            jdbcTemplate.update("delete from " + table + " where id >= ?", BASE);
+        }
+    }
+
+    @Test
+    void listEndpointsShouldNotIssueStatementPerRow() {
+        check("GET /bookings", size -> bookingService.getBooking("ALL", BOOKER, 0, size));
+        check("GET /bookings/owner", size -> bookingService.ownerItemsBookingLists("ALL", OWNER, 0, size));
+        check("GET /bookings/page", size -> bookingService.getBookingAfter("ALL", BOOKER, null, size));
+        check("GET /bookings/owner/page", size -> bookingService
+                .ownerItemsBookingListsAfter("ALL", OWNER, null, size));
+        check("GET /items", size -> itemService.getItemsOwner(OWNER, 0, size));
+        check("GET /items/search", size -> itemService.getItemsText("statcount", 0, size));
+        check("GET /requests/all", size -> itemRequestService.getAllRequest(OWNER, 0, size));
+
+        String report = String.join("\n", failures);
+        failures.clear();
+        assertTrue(report.isEmpty(), "Число SQL-запросов растёт вместе со страницей:\n" + report);
+    }
+
+    private void check(String endpoint, IntFunction<List<?>> call) {
+        int single = count(() -> call.apply(1));
+        int page = count(() -> {
+            List<?> result = call.apply(PAGE);
+            if (result.size() != PAGE) {
+                failures.add(endpoint + ": вместо " + PAGE + " строк вернулось " + result.size());
+            }
+        });
+        if (page != single) {
+            failures.add(endpoint + ": " + single + " запросов на одну строку, " + page + " на " + PAGE);
+        }
+    }
+
+    private int count(Runnable call) {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        SqlCounter.STATEMENTS.set(0);
+        call.run();
+        return SqlCounter.STATEMENTS.get();
+    }
+
+    private Timestamp at(long hoursFromNow) {
+        return Timestamp.valueOf(now.plusHours(hoursFromNow));
+    }
+
+    public static class SqlCounter implements StatementInspector {
+        static final AtomicInteger STATEMENTS = new AtomicInteger();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.incrementAndGet();
+            return sql;
+        }
+    }
+}
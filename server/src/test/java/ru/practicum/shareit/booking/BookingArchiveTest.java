@@ -0,0 +1,144 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingArchiveJobs;
+import ru.practicum.shareit.booking.service.BookingArchiveService;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class BookingArchiveTest {
+    private static final long OLD = 1_000_000L;
+    private static final long RECENT = 1_000_001L;
+    private static final long FUTURE = 1_000_002L;
+
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final BookingArchiveJobs archiveJobs;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private UserDto owner;
+    private UserDto booker;
+    private ItemDto item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.addUser(UserDto.builder().name("Ash").email("ash@archive.com").build());
+        booker = userService.addUser(UserDto.builder().name("Misty").email("misty@archive.com").build());
+        item = itemService.addItem(owner.getId(), ItemDto.builder()
+                .name("Poke Ball")
+                .description("The Poke Ball is a sphere")
+                .available(true)
+                .build());
+        // бронирования в прошлом через сервис не создать, поэтому вставляются напрямую
+        entityManager.flush();
+        insertBooking(OLD, now.minusYears(2), now.minusYears(2).plusDays(1));
+        insertBooking(RECENT, now.minusDays(3), now.minusDays(2));
+        insertBooking(FUTURE, now.plusDays(2), now.plusDays(3));
+    }
+
+    @Test
+    void archiveShouldMoveOnlyBookingsOlderThanHorizon() {
+        assertEquals(1, archiveJobs.archive());
+
+        assertTrue(bookingRepository.findById(OLD).isEmpty());
+        assertTrue(bookingRepository.findById(RECENT).isPresent());
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from bookings_archive where id = ?",
+                Integer.class, OLD));
+        assertEquals(0, archiveJobs.archive());
+    }
+
+    @Test
+    void archivedBookingsShouldStayVisibleInHistoryLists() {
+        archiveJobs.archive();
+
+        assertEquals(List.of(FUTURE, RECENT, OLD), ids(bookingService.getBooking("ALL", booker.getId(), 0, 10)));
+        assertEquals(List.of(RECENT, OLD), ids(bookingService.getBooking("PAST", booker.getId(), 0, 10)));
+        assertEquals(List.of(RECENT, OLD),
+                ids(bookingService.ownerItemsBookingLists("PAST", owner.getId(), 0, 10)));
+        assertEquals(List.of(FUTURE), ids(bookingService.getBooking("FUTURE", booker.getId(), 0, 10)));
+        assertEquals(OLD, bookingService.getBooking(owner.getId(), OLD).getId());
+    }
+
+    @Test
+    void archivedBookingShouldAllowComment() {
+        jdbcTemplate.update("delete from bookings where id = ?", RECENT);
+        archiveJobs.archive();
+
+        CommentDto comment = itemService.addComment(booker.getId(), item.getId(),
+                CommentDto.builder().text("Still works").build());
+
+        assertEquals("Still works", comment.getText());
+    }
+
+    /**
+     * Ошибка при создании секции на старте не должна останавливать приложение и остальные секции.
+     */
+    @Test
+    void partitionFailureShouldNotStopStartupOrOtherMonths() {
+        BookingArchiveService failing = Mockito.mock(BookingArchiveService.class);
+        YearMonth broken = YearMonth.now();
+        YearMonth next = broken.plusMonths(1);
+        Mockito.when(failing.missingPartitions(Mockito.any(), Mockito.any())).thenReturn(List.of(broken, next));
+        Mockito.doThrow(new DataIntegrityViolationException("updated partition constraint for default partition"))
+                .when(failing).createPartition(broken);
+        BookingArchiveJobs jobs = new BookingArchiveJobs(failing, new SimpleMeterRegistry(), Duration.ofDays(365),
+                1000, 3);
+
+        assertDoesNotThrow(jobs::maintainPartitions);
+
+        Mockito.verify(failing).createPartition(next);
+        Mockito.verify(failing).dropEmptyPartitionsBefore(Mockito.any());
+
+        Mockito.when(failing.missingPartitions(Mockito.any(), Mockito.any()))
+                .thenThrow(new DataAccessResourceFailureException("database is down"));
+        assertDoesNotThrow(jobs::maintainPartitions);
+    }
+
+    private void insertBooking(long id, LocalDateTime start, LocalDateTime end) {
+        jdbcTemplate.update("insert into bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                        "values (?, ?, ?, ?, ?, ?)", id, Timestamp.valueOf(start), Timestamp.valueOf(end),
+                item.getId(), booker.getId(), BookingStatus.APPROVED.name());
+    }
+
+    private List<Long> ids(List<BookingDto> bookings) {
+        return bookings.stream().map(BookingDto::getId).collect(Collectors.toList());
+    }
+}
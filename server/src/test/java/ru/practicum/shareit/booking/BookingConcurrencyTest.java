@@ -0,0 +1,237 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dao.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class BookingConcurrencyTest {
+    private static final int ITEMS = 5;
+    private static final int BOOKINGS = 2000;
+    private static final int THREADS = 16;
+
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final ItemBookingSummaryService summaryService;
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+
+    @Test
+    void concurrentBookingsOfSameItemsMustNotOverlap() throws Exception {
+        UserDto owner = userService.addUser(new UserDto(null, "owner@email.com", "owner"));
+        UserDto booker = userService.addUser(new UserDto(null, "booker@email.com", "booker"));
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            itemIds.add(itemService.addItem(owner.getId(),
+                    new ItemDto(null, "item" + i, "description" + i, true, null)).getId());
+        }
+        LocalDateTime base = LocalDateTime.now().plusDays(1);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            LocalDateTime start = base.plusHours(random.nextInt(500));
+            BookItemRequestDto request = new BookItemRequestDto(itemIds.get(random.nextInt(ITEMS)),
+                    start, start.plusHours(1 + random.nextInt(5)));
+            tasks.add(() -> {
+                try {
+                    bookingService.addBooking(booker.getId(), request);
+                    accepted.incrementAndGet();
+                } catch (ValidationException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long started = System.nanoTime();
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        log.info("{} бронирований за {} мс ({} в секунду): принято {}, отклонено {}", BOOKINGS, elapsedMillis,
+                BOOKINGS * 1000L / elapsedMillis, accepted.get(), rejected.get());
+
+        assertEquals(BOOKINGS, accepted.get() + rejected.get());
+        assertTrue(accepted.get() > 0);
+        Map<Long, List<Booking>> bookingsByItem = bookingRepository.findAll().stream()
+                .collect(Collectors.groupingBy(b -> b.getItem().getId()));
+        assertEquals(accepted.get(), bookingsByItem.values().stream().mapToInt(List::size).sum());
+        for (List<Booking> bookings : bookingsByItem.values()) {
+            bookings.sort(Comparator.comparing(Booking::getStart));
+            for (int i = 1; i < bookings.size(); i++) {
+                assertFalse(bookings.get(i).getStart().isBefore(bookings.get(i - 1).getEnd()),
+                        "Пересекающиеся бронирования " + bookings.get(i - 1).getId() + " и " + bookings.get(i).getId());
+            }
+        }
+    }
+
+    /**
+     * Сверка начинается, когда подтверждение уже записало сводку, но ещё не зафиксировано. Без блокировки
+     * вещи она прочитала бы бронирования до подтверждения и после его фиксации записала бы в сводку
+     * устаревшее ближайшее.
+     */
+    @Test
+    void summaryCheckDuringApproveMustNotOverwriteFreshSummary() throws Exception {
+        UserDto owner = userService.addUser(new UserDto(null, "owner@email.com", "owner"));
+        UserDto booker = userService.addUser(new UserDto(null, "booker@email.com", "booker"));
+        Long itemId = itemService.addItem(owner.getId(),
+                new ItemDto(null, "item", "description", true, null)).getId();
+        LocalDateTime base = LocalDateTime.now().plusDays(1);
+        Long later = bookingService.addBooking(booker.getId(),
+                new BookItemRequestDto(itemId, base.plusDays(5), base.plusDays(6))).getId();
+        bookingService.approve(owner.getId(), later, true);
+        Long sooner = bookingService.addBooking(booker.getId(),
+                new BookItemRequestDto(itemId, base, base.plusHours(1))).getId();
+        ItemBookingSummary corrupted = summaryRepository.findById(itemId).orElseThrow();
+        corrupted.setNextBookingId(null);
+        corrupted.setNextBookerId(null);
+        corrupted.setNextStart(null);
+        corrupted.setNextEnd(null);
+        summaryRepository.save(corrupted);
+
+        CountDownLatch approved = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService approver = Executors.newSingleThreadExecutor();
+        Future<?> approve = approver.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> {
+                    bookingService.approve(owner.getId(), sooner, true);
+                    entityManager.flush();
+                    approved.countDown();
+                    awaitQuietly(commit);
+                }));
+        AtomicReference<Throwable> checkFailure = new AtomicReference<>();
+        Thread check = new Thread(() -> {
+            try {
+                summaryService.verify(List.of(itemId), LocalDateTime.now());
+            } catch (Throwable e) {
+                checkFailure.set(e);
+            }
+        });
+        try {
+            assertTrue(approved.await(10, TimeUnit.SECONDS));
+            check.start();
+            awaitBlockedInDatabase(check);
+            commit.countDown();
+            approve.get(10, TimeUnit.SECONDS);
+            check.join(TimeUnit.SECONDS.toMillis(10));
+        } finally {
+            commit.countDown();
+            approver.shutdown();
+        }
+
+        assertNull(checkFailure.get());
+        assertEquals(sooner, summaryRepository.findById(itemId).orElseThrow().getNextBookingId());
+    }
+
+    /**
+     * Пачка перечисляет вещи по убыванию id, а сверка сводки блокирует их по возрастанию. Если бы пачка
+     * блокировала строки по одной в порядке запроса, они ждали бы друг друга в БД до обнаружения взаимной
+     * блокировки.
+     */
+    @Test
+    void batchBookingsAlongsideSummaryCheckMustNotDeadlock() throws Exception {
+        UserDto owner = userService.addUser(new UserDto(null, "owner@email.com", "owner"));
+        UserDto booker = userService.addUser(new UserDto(null, "booker@email.com", "booker"));
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            itemIds.add(itemService.addItem(owner.getId(),
+                    new ItemDto(null, "item" + i, "description" + i, true, null)).getId());
+        }
+        List<Long> descending = new ArrayList<>(itemIds);
+        descending.sort(Comparator.reverseOrder());
+        LocalDateTime base = LocalDateTime.now().plusDays(1);
+        int batches = 200;
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < batches; i++) {
+            LocalDateTime start = base.plusHours(i);
+            List<BookItemRequestDto> batch = descending.stream()
+                    .map(itemId -> new BookItemRequestDto(itemId, start, start.plusMinutes(30)))
+                    .collect(Collectors.toList());
+            tasks.add(() -> {
+                bookingService.addBookings(booker.getId(), batch);
+                return null;
+            });
+            tasks.add(() -> {
+                summaryService.verify(itemIds, LocalDateTime.now());
+                return null;
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(batches * ITEMS, bookingRepository.count());
+    }
+
+    // поток ждёт блокировку строки внутри H2 или уже закончил
+    private static void awaitBlockedInDatabase(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.isAlive() && System.nanoTime() < deadline) {
+            if (thread.getState() != Thread.State.RUNNABLE && Arrays.stream(thread.getStackTrace())
+                    .anyMatch(frame -> frame.getClassName().startsWith("org.h2.mvstore.tx"))) {
+                return;
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
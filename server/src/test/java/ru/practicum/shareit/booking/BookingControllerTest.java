@@ -9,9 +9,13 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingRole;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.utils.Headers;
@@ -24,6 +28,8 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
@@ -121,6 +127,38 @@ public class BookingControllerTest {
                 .andExpect(content().json(mapper.writeValueAsString(List.of(bookingDto))));
     }
 
+    @Test
+    void getAllBookingsByUserWithCursor() throws Exception {
+        BookingDto last = BookingDto.builder().id(7L).start(LocalDateTime.of(2222, 12, 12, 12, 12, 12)).build();
+        when(bookingService.getBookingAfter(eq("ALL"), eq(1L), isNull(), eq(1)))
+                .thenReturn(List.of(last));
+
+        mvc.perform(get(BASE_PATH_BOOKINGS + "?state=ALL&size=1&cursor=")
+                        .header(Headers.IdOwner, 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Headers.NextCursor, BookingCursor.after(last).encode()))
+                .andExpect(content().json(mapper.writeValueAsString(List.of(last))));
+
+        when(bookingService.ownerItemsBookingListsAfter(eq("ALL"), eq(1L), eq(BookingCursor.after(last)), eq(10)))
+                .thenReturn(List.of(bookingDto));
+
+        mvc.perform(get(BASE_PATH_BOOKINGS + "/owner?state=ALL&cursor=" + BookingCursor.after(last).encode())
+                        .header(Headers.IdOwner, 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(Headers.NextCursor))
+                .andExpect(content().json(mapper.writeValueAsString(List.of(bookingDto))));
+    }
+
+    @Test
+    void getAllBookingsByUserWithBrokenCursor() throws Exception {
+        mvc.perform(get(BASE_PATH_BOOKINGS + "?cursor=not-a-cursor")
+                        .header(Headers.IdOwner, 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void shouldFailOnApproveWithErrorParam() throws Exception {
         Mockito.when(
@@ -138,4 +176,33 @@ public class BookingControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(result -> Assertions.assertNotNull(result.getResolvedException()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void exportOwnerBookings() throws Exception {
+        String lines = mapper.writeValueAsString(bookingDto) + "\n" + mapper.writeValueAsString(bookingDto) + "\n";
+        when(bookingService.exportBookings(BookingRole.OWNER, "PAST", 1L))
+                .thenReturn(out -> out.write(lines.getBytes(StandardCharsets.UTF_8)));
+
+        MvcResult result = mvc.perform(get(BASE_PATH_BOOKINGS + "/owner/export?state=PAST")
+                        .header(Headers.IdOwner, 1L)
+                        .accept(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(lines));
+    }
+
+    @Test
+    void exportBookingsOfUnknownUserIsJsonError() throws Exception {
+        when(bookingService.exportBookings(BookingRole.BOOKER, "ALL", 99L))
+                .thenThrow(new ObjectNotFoundException("Пользователь не найден"));
+
+        mvc.perform(get(BASE_PATH_BOOKINGS + "/export")
+                        .header(Headers.IdOwner, 99L)
+                        .accept(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+}
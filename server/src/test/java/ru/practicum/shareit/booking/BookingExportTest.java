@@ -0,0 +1,203 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.exception.RequestFailedException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class BookingExportTest {
+    private static final int MILLION = 1_000_000;
+    // список из миллиона BookingDto занимает в несколько раз больше
+    private static final String SMALL_HEAP = "-Xmx128m";
+
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
+    private UserDto owner;
+    private UserDto booker;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.addUser(UserDto.builder().name("Ash").email("ash@export.com").build());
+        booker = userService.addUser(UserDto.builder().name("Misty").email("misty@export.com").build());
+    }
+
+    @Test
+    void exportWritesOneBookingPerLineInListOrder() throws IOException {
+        ItemDto item = itemService.addItem(owner.getId(), item("Poke Ball"));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(0, bookingService.addBooking(booker.getId(), BookItemRequestDto.builder()
+                    .itemId(item.getId())
+                    .start(start.plusDays(i * 2L))
+                    .end(start.plusDays(i * 2L + 1))
+                    .build()).getId());
+        }
+
+        List<String> lines = export(bookingService.exportBookings(BookingRole.OWNER, "ALL", owner.getId()));
+
+        assertEquals(3, lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            BookingDto booking = objectMapper.readValue(lines.get(i), BookingDto.class);
+            assertEquals(ids.get(i), booking.getId());
+            assertEquals(item.getId(), booking.getItem().getId());
+            assertEquals(booker.getId(), booking.getBooker().getId());
+        }
+        assertTrue(export(bookingService.exportBookings(BookingRole.BOOKER, "ALL", owner.getId())).isEmpty());
+    }
+
+    @Test
+    void exportItemsOfOwner() throws IOException {
+        ItemDto first = itemService.addItem(owner.getId(), item("Poke Ball"));
+        ItemDto second = itemService.addItem(owner.getId(), item("Great Ball"));
+        itemService.addItem(booker.getId(), item("Ultra Ball"));
+
+        List<String> lines = export(itemService.exportItems(owner.getId()));
+
+        assertEquals(List.of(first.getId(), second.getId()), List.of(
+                objectMapper.readValue(lines.get(0), ItemDto.class).getId(),
+                objectMapper.readValue(lines.get(1), ItemDto.class).getId()));
+        assertEquals(2, lines.size());
+    }
+
+    @Test
+    void exportChecksUserAndStateBeforeStreaming() {
+        assertThrows(ObjectNotFoundException.class,
+                () -> bookingService.exportBookings(BookingRole.OWNER, "ALL", 999L));
+        assertThrows(RequestFailedException.class,
+                () -> bookingService.exportBookings(BookingRole.OWNER, "SOON", owner.getId()));
+        assertThrows(ObjectNotFoundException.class, () -> itemService.exportItems(999L));
+    }
+
+    /**
+     * Миллион бронирований выгружается в отдельной JVM с маленькой кучей: если строки копятся в памяти,
+     * процесс падает с OutOfMemoryError и ненулевым кодом.
+     */
+    @Test
+    void exportsMillionBookingsWithSmallHeap(@TempDir Path dir) throws Exception {
+        Path log = dir.resolve("export.log");
+        Process process = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                SMALL_HEAP, "-XX:+ExitOnOutOfMemoryError",
+                "-Dspring.profiles.active=test",
+                "-Dspring.datasource.url=jdbc:h2:file:" + dir.resolve("shareit").toAbsolutePath(),
+                "-cp", System.getProperty("java.class.path"),
+                MillionBookingsExport.class.getName())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+
+        assertTrue(process.waitFor(10, TimeUnit.MINUTES), "выгрузка не закончилась за 10 минут");
+        String output = Files.readString(log);
+        assertEquals(0, process.exitValue(), () -> output.substring(Math.max(0, output.length() - 4000)));
+        assertTrue(output.contains("exported " + MILLION + " bookings"), "в выводе нет итога выгрузки");
+    }
+
+    private List<String> export(StreamingResponseBody body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        String text = out.toString(StandardCharsets.UTF_8);
+        assertTrue(text.isEmpty() || text.endsWith("\n"));
+        return text.isEmpty() ? List.of() : List.of(text.split("\n"));
+    }
+
+    private static ItemDto item(String name) {
+        return ItemDto.builder().name(name).description("The Poke Ball is a sphere").available(true).build();
+    }
+
+    /**
+     * Точка входа отдельной JVM: наполняет базу напрямую через SQL и выгружает бронирования арендатора
+     * в поток, который только считает строки. У H2 список владельца из миллиона строк сортируется на диске
+     * больше минуты, список арендатора читается по индексу (booker_id, start_date, id).
+     */
+    public static class MillionBookingsExport {
+
+        public static void main(String[] args) throws IOException {
+            int status;
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItServer.class)
+                    .web(WebApplicationType.NONE)
+                    .run(args)) {
+                seed(context.getBean(JdbcTemplate.class));
+                LineCounter lines = new LineCounter();
+                context.getBean(BookingService.class).exportBookings(BookingRole.BOOKER, "ALL", 2L).writeTo(lines);
+                System.out.println("exported " + lines.count + " bookings");
+                status = lines.count == MILLION ? 0 : 1;
+            }
+            System.exit(status);
+        }
+
+        private static void seed(JdbcTemplate jdbcTemplate) {
+            jdbcTemplate.update("insert into users (id, name, email) values " +
+                    "(1, 'Ash', 'ash@export.com'), (2, 'Misty', 'misty@export.com')");
+            jdbcTemplate.update("insert into items (id, name, description, available, owner_id) " +
+                    "select x, 'item ' || x, 'description ' || x, true, 1 from system_range(1, 10000)");
+            // по сто бронирований подряд на вещь: вставка в индекс по item_id идёт почти по порядку
+            for (int from = 1; from <= MILLION; from += 100_000) {
+                jdbcTemplate.update("insert into bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                        "select x, dateadd(minute, x, timestamp '2020-01-01 00:00:00'), " +
+                        "dateadd(minute, x + 30, timestamp '2020-01-01 00:00:00'), (x - 1) / 100 + 1, 2, " +
+                        "'APPROVED' from system_range(?, ?)", from, from + 99_999);
+            }
+        }
+    }
+
+    private static class LineCounter extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                count++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+    }
+}
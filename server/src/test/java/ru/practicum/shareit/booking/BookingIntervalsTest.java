@@ -0,0 +1,155 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingAvailabilityServiceImpl;
+import ru.practicum.shareit.booking.service.BookingIntervals;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookingIntervalsTest {
+
+    @Test
+    void shouldDetectOverlapWithHalfOpenIntervals() {
+        BookingIntervals intervals = new BookingIntervals();
+        intervals.add(1L, 10, 20);
+        intervals.add(2L, 30, 40);
+
+        assertTrue(intervals.overlaps(15, 16));
+        assertTrue(intervals.overlaps(5, 11));
+        assertTrue(intervals.overlaps(39, 50));
+        assertTrue(intervals.overlaps(0, 100));
+        assertFalse(intervals.overlaps(20, 30));
+        assertFalse(intervals.overlaps(0, 10));
+        assertFalse(intervals.overlaps(40, 50));
+    }
+
+    @Test
+    void shouldRespectLongIntervalBeforeShortOnes() {
+        BookingIntervals intervals = new BookingIntervals();
+        intervals.add(1L, 0, 100);
+        intervals.add(2L, 10, 20);
+        intervals.add(3L, 30, 40);
+
+        assertTrue(intervals.overlaps(50, 60));
+        assertTrue(intervals.remove(1L, 0));
+        assertFalse(intervals.overlaps(50, 60));
+        assertEquals(2, intervals.size());
+    }
+
+    @Test
+    void addIfFreeShouldRejectOverlap() {
+        BookingIntervals intervals = new BookingIntervals();
+
+        for (long i = 0; i < 100; i++) {
+            assertTrue(intervals.addIfFree(i, i * 10, i * 10 + 10));
+        }
+        assertFalse(intervals.addIfFree(100L, 55, 65));
+        assertEquals(100, intervals.size());
+        assertFalse(intervals.remove(100L, 55));
+    }
+
+    @Test
+    void removeShouldFindIntervalAmongEqualStarts() {
+        BookingIntervals intervals = new BookingIntervals();
+        intervals.add(1L, 10, 20);
+        intervals.add(2L, 10, 50);
+        intervals.add(3L, 10, 30);
+
+        assertFalse(intervals.remove(2L, 20_000));
+        assertTrue(intervals.remove(2L, 10));
+        assertFalse(intervals.overlaps(35, 45));
+        assertEquals(2, intervals.size());
+    }
+
+    @Test
+    void removeShouldTolerateStartRoundedByDatabase() {
+        BookingIntervals intervals = new BookingIntervals();
+        intervals.add(1L, 10_000_400, 20_000_000);
+        intervals.add(2L, 10_000_700, 30_000_000);
+
+        assertTrue(intervals.remove(1L, 10_000_000));
+        assertTrue(intervals.remove(2L, 10_001_000));
+        assertEquals(0, intervals.size());
+    }
+
+    @Test
+    void removeEndedBeforeShouldKeepLiveIntervals() {
+        BookingIntervals intervals = new BookingIntervals();
+        intervals.add(1L, 0, 1000);
+        for (long i = 1; i <= 100; i++) {
+            intervals.add(i + 1, i * 10, i * 10 + 5);
+        }
+
+        assertEquals(50, intervals.removeEndedBefore(505));
+        assertEquals(51, intervals.size());
+        assertTrue(intervals.overlaps(900, 901));
+        assertTrue(intervals.overlaps(10, 15));
+        assertTrue(intervals.remove(1L, 0));
+        assertFalse(intervals.overlaps(10, 15));
+        assertTrue(intervals.overlaps(510, 511));
+        assertFalse(intervals.overlaps(506, 510));
+        assertEquals(50, intervals.removeEndedBefore(Long.MAX_VALUE));
+        assertEquals(0, intervals.size());
+        assertTrue(intervals.addIfFree(200L, 0, 10));
+    }
+
+    @Test
+    void overlapsShouldMatchFullScanAfterRandomChanges() {
+        BookingIntervals intervals = new BookingIntervals();
+        List<long[]> expected = new ArrayList<>();
+        Random random = new Random(42);
+        for (long id = 0; id < 2000; id++) {
+            if (!expected.isEmpty() && random.nextInt(3) == 0) {
+                long[] removed = expected.remove(random.nextInt(expected.size()));
+                assertTrue(intervals.remove(removed[0], removed[1]));
+            } else {
+                long start = random.nextInt(10_000);
+                long end = start + 1 + random.nextInt(random.nextInt(10) == 0 ? 5_000 : 50);
+                intervals.add(id, start, end);
+                expected.add(new long[]{id, start, end});
+            }
+            long start = random.nextInt(10_000);
+            long end = start + 1 + random.nextInt(100);
+            boolean overlaps = expected.stream().anyMatch(interval -> interval[1] < end && start < interval[2]);
+            assertEquals(overlaps, intervals.overlaps(start, end), "[" + start + ", " + end + ") на шаге " + id);
+        }
+        assertEquals(expected.size(), intervals.size());
+    }
+
+    @Test
+    void availabilityServiceShouldEvictEndedBookings() {
+        BookingAvailabilityServiceImpl availability = new BookingAvailabilityServiceImpl(null);
+        LocalDateTime now = LocalDateTime.now();
+        Item first = new Item(1L, "Poke Ball", "The Poke Ball is a sphere", true, null, null);
+        Item second = new Item(2L, "Great Ball", "The Great Ball is a sphere", true, null, null);
+        assertTrue(availability.reserve(new Booking(1L, now.minusDays(2), now.minusDays(1), first, null,
+                BookingStatus.APPROVED)));
+        assertTrue(availability.reserve(new Booking(2L, now.minusDays(2), now.minusDays(1), second, null,
+                BookingStatus.APPROVED)));
+        assertTrue(availability.reserve(new Booking(3L, now.plusDays(1), now.plusDays(2), second, null,
+                BookingStatus.WAITING)));
+
+        assertEquals(2, availability.evictEndedBefore(now));
+        assertEquals(0, availability.evictEndedBefore(now));
+        assertTrue(availability.isAvailable(1L, now.minusDays(2), now.minusDays(1)));
+        assertFalse(availability.isAvailable(2L, now.plusDays(1), now.plusDays(3)));
+        assertTrue(availability.reserve(new Booking(4L, now.plusDays(1), now.plusDays(2), first, null,
+                BookingStatus.WAITING)));
+    }
+
+    @Test
+    void toEpochNanosShouldKeepOrder() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertTrue(BookingIntervals.toEpochNanos(now) < BookingIntervals.toEpochNanos(now.plusNanos(1)));
+        assertEquals(Long.MAX_VALUE, BookingIntervals.toEpochNanos(LocalDateTime.MAX));
+    }
+}
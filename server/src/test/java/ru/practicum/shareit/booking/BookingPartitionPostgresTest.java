@@ -0,0 +1,123 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingArchiveJobs;
+import ru.practicum.shareit.booking.service.BookingArchiveService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Секционирование bookings в PostgreSQL. Запускается только при заданной SHAREIT_TEST_POSTGRES_URL
+ * (пользователь и пароль — SHAREIT_TEST_POSTGRES_USER и SHAREIT_TEST_POSTGRES_PASSWORD): схема при старте
+ * пересоздаётся, поэтому база должна быть отдельной, например
+ * docker run -d -p 5432:5432 -e POSTGRES_PASSWORD=postgres postgres:14
+ * SHAREIT_TEST_POSTGRES_URL=jdbc:postgresql://localhost:5432/postgres mvn test -pl server -Dtest=BookingPartitionPostgresTest
+ */
+@EnabledIfEnvironmentVariable(named = "SHAREIT_TEST_POSTGRES_URL", matches = ".+")
+@SpringBootTest(
+        properties = {
+                "db.name=test",
+                "spring.datasource.driverClassName=org.postgresql.Driver",
+                "spring.datasource.url=${SHAREIT_TEST_POSTGRES_URL}",
+                "spring.datasource.username=${SHAREIT_TEST_POSTGRES_USER:postgres}",
+                "spring.datasource.password=${SHAREIT_TEST_POSTGRES_PASSWORD:postgres}",
+                "spring.sql.init.platform=postgres"
+        },
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class BookingPartitionPostgresTest {
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final long USER = 1L;
+    private static final long ITEM = 1L;
+
+    private final BookingArchiveService archiveService;
+    private final BookingArchiveJobs archiveJobs;
+    private final JdbcTemplate jdbcTemplate;
+    private final AtomicLong ids = new AtomicLong(1_000_000L);
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from users");
+        jdbcTemplate.update("insert into users (id, name, email) values (?, 'Ash', 'ash@partition.com')", USER);
+        jdbcTemplate.update("insert into items (id, name, description, available, owner_id) " +
+                "values (?, 'Poke Ball', 'The Poke Ball is a sphere', true, ?)", ITEM, USER);
+    }
+
+    @Test
+    void startupCreatesPartitionsAheadOfNow() {
+        YearMonth now = YearMonth.now();
+
+        assertTrue(archiveService.missingPartitions(now, now.plusMonths(3)).isEmpty());
+        assertDoesNotThrow(archiveJobs::maintainPartitions);
+    }
+
+    /**
+     * Пока секция создаётся, в её диапазон идут вставки: ни одна не должна упасть, а после присоединения все строки
+     * месяца лежат в новой секции.
+     */
+    @Test
+    void createPartitionMovesRowsWhileInsertsContinue() throws Exception {
+        YearMonth month = YearMonth.now().plusYears(2);
+        LocalDateTime end = month.atDay(10).atStartOfDay();
+        for (int i = 0; i < 100; i++) {
+            insertBooking(end);
+        }
+        assertEquals(List.of(month), archiveService.missingPartitions(month, month));
+
+        AtomicBoolean stop = new AtomicBoolean();
+        ExecutorService inserter = Executors.newSingleThreadExecutor();
+        Future<Integer> inserted = inserter.submit(() -> {
+            int count = 0;
+            while (!stop.get()) {
+                insertBooking(end);
+                count++;
+            }
+            return count;
+        });
+        try {
+            while (jdbcTemplate.queryForObject("select count(*) from bookings", Integer.class) < 200) {
+                Thread.sleep(1);
+            }
+            archiveService.createPartition(month);
+            Thread.sleep(100);
+        } finally {
+            stop.set(true);
+            inserter.shutdown();
+        }
+        int total = 100 + inserted.get(10, TimeUnit.SECONDS);
+
+        String partition = "bookings_p" + month.format(PARTITION_MONTH);
+        assertTrue(archiveService.missingPartitions(month, month).isEmpty());
+        assertEquals(total, jdbcTemplate.queryForObject("select count(*) from " + partition, Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from bookings_default", Integer.class));
+    }
+
+    private void insertBooking(LocalDateTime end) {
+        jdbcTemplate.update("insert into bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                        "values (?, ?, ?, ?, ?, ?)", ids.incrementAndGet(), Timestamp.valueOf(end.minusDays(1)),
+                Timestamp.valueOf(end), ITEM, USER, BookingStatus.APPROVED.name());
+    }
+}
@@ -6,14 +6,22 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dao.BookingHistoryRepository;
+import ru.practicum.shareit.booking.dao.BookingListQuery;
 import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
@@ -24,6 +32,8 @@ public class BookingRepositoryTest {
     @Autowired
     private final BookingRepository bookingRepository = null;
     @Autowired
+    private final BookingHistoryRepository historyRepository = null;
+    @Autowired
     protected TestEntityManager entityManager;
 
     public static User makeUser(Long id, String name, String email) {
@@ -134,16 +144,14 @@ public class BookingRepositoryTest {
                 booker,
                 BookingStatus.WAITING));
 
-        Pageable pageable = PageRequest.of(0, 20);
-        List<Booking> listBookings = bookingRepository.findAllCurrentBookingsOwner(owner.getId(),
-                LocalDateTime.now(), pageable);
+        List<BookingDto> listBookings = findOwnerBookings(BookingState.CURRENT, owner.getId());
 
         assertThat(listBookings)
                 .hasSize(1)
                 .element(0)
                 .hasFieldOrProperty("item");
         AssertionsForClassTypes.assertThat(listBookings.get(0).getItem())
-                .isInstanceOf(Item.class)
+                .isInstanceOf(ItemDto.class)
                 .hasFieldOrPropertyWithValue("name", "Poke Ball");
     }
 
@@ -179,16 +187,14 @@ public class BookingRepositoryTest {
                 owner2,
                 BookingStatus.WAITING));
 
-        Pageable pageable = PageRequest.of(0, 20);
-        List<Booking> listBookings = bookingRepository.findAllPastBookingsOwner(owner1.getId(),
-                LocalDateTime.now(), pageable);
+        List<BookingDto> listBookings = findOwnerBookings(BookingState.PAST, owner1.getId());
 
         assertThat(listBookings)
                 .hasSize(1)
                 .element(0)
                 .hasFieldOrProperty("item");
         AssertionsForClassTypes.assertThat(listBookings.get(0).getItem())
-                .isInstanceOf(Item.class)
+                .isInstanceOf(ItemDto.class)
                 .hasFieldOrPropertyWithValue("name", "Poke Ball");
     }
 
@@ -224,16 +230,88 @@ public class BookingRepositoryTest {
                 booker,
                 BookingStatus.WAITING));
 
-        Pageable pageable = PageRequest.of(0, 20);
-        List<Booking> listBookings = bookingRepository.findAllFutureBookingsOwner(owner.getId(),
-                LocalDateTime.now(), pageable);
+        List<BookingDto> listBookings = findOwnerBookings(BookingState.FUTURE, owner.getId());
 
         assertThat(listBookings)
                 .hasSize(1)
                 .element(0)
                 .hasFieldOrProperty("item");
         AssertionsForClassTypes.assertThat(listBookings.get(0).getItem())
-                .isInstanceOf(Item.class)
+                .isInstanceOf(ItemDto.class)
                 .hasFieldOrPropertyWithValue("name", "Ultra Ball");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldFindOnlyLastAndNextApprovedBookingPerItem() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        User owner = entityManager.persist(makeUser(null,
+                "Ash",
+                "ash@gmail.com"));
+        User booker = entityManager.persist(makeUser(null,
+                "Misty",
+                "misty@gmail.com"));
+        Item item1 = entityManager.persist(makeItem(null,
+                "Poke Ball",
+                "The Poke Ball is a sphere",
+                owner,
+                true));
+        Item item2 = entityManager.persist(makeItem(null,
+                "Ultra Ball",
+                "is a Poke Ball that has a 2x catch rate modifier",
+                owner,
+                true));
+        for (int i = 1; i <= 5; i++) {
+            entityManager.persist(makeBooking(null, now.minusDays(i * 2L), now.minusDays(i * 2L - 1),
+                    item1, booker, BookingStatus.APPROVED));
+            entityManager.persist(makeBooking(null, now.plusDays(i * 2L), now.plusDays(i * 2L + 1),
+                    item1, booker, BookingStatus.APPROVED));
+        }
+        Booking rejected = entityManager.persist(makeBooking(null, now.minusHours(2), now.minusHours(1),
+                item1, booker, BookingStatus.REJECTED));
+        Booking onlyFuture = entityManager.persist(makeBooking(null, now.plusDays(3), now.plusDays(4),
+                item2, booker, BookingStatus.APPROVED));
+
+        assertThat(lastAndNext(item1, now)).extracting(BookingShortDto::getStart)
+                .containsExactly(now.minusDays(2), now.plusDays(2));
+        assertThat(lastAndNext(item1, now)).extracting(BookingShortDto::getId).doesNotContain(rejected.getId());
+        assertThat(lastAndNext(item2, now)).extracting(BookingShortDto::getId)
+                .containsExactly(onlyFuture.getId());
+    }
+
+    @Test
+    public void shouldBreakStartTiesById() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        User owner = entityManager.persist(makeUser(null, "Ash", "ash@gmail.com"));
+        User booker = entityManager.persist(makeUser(null, "Misty", "misty@gmail.com"));
+        Item item = entityManager.persist(makeItem(null, "Poke Ball", "The Poke Ball is a sphere", owner, true));
+        Booking firstLast = entityManager.persist(makeBooking(null, now.minusDays(1), now.minusHours(20),
+                item, booker, BookingStatus.APPROVED));
+        Booking secondLast = entityManager.persist(makeBooking(null, now.minusDays(1), now.minusHours(10),
+                item, booker, BookingStatus.APPROVED));
+        Booking firstNext = entityManager.persist(makeBooking(null, now.plusDays(1), now.plusDays(2),
+                item, booker, BookingStatus.APPROVED));
+        entityManager.persist(makeBooking(null, now.plusDays(1), now.plusDays(3), item, booker, BookingStatus.APPROVED));
+
+        assertThat(firstLast.getId()).isLessThan(secondLast.getId());
+        assertThat(lastAndNext(item, now)).extracting(BookingShortDto::getId)
+                .containsExactly(secondLast.getId(), firstNext.getId());
+    }
+
+    private List<BookingShortDto> lastAndNext(Item item, LocalDateTime now) {
+        List<BookingShortDto> bookings = new ArrayList<>(historyRepository.findLastBooking(item.getId(),
+                BookingStatus.APPROVED, now, PageRequest.of(0, 1)));
+        bookings.addAll(historyRepository.findNextBooking(item.getId(), BookingStatus.APPROVED, now,
+                PageRequest.of(0, 1)));
+        return bookings;
+    }
+
+    private List<BookingDto> findOwnerBookings(BookingState state, Long ownerId) {
+        return bookingRepository.findBookings(BookingListQuery.builder()
+                .role(BookingRole.OWNER)
+                .state(state)
+                .userId(ownerId)
+                .now(LocalDateTime.now())
+                .size(20)
+                .build());
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
@@ -22,7 +23,10 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -67,17 +71,52 @@ public class BookingServiceDBTest {
         itemDtoFromDB = itemService.addItem(testUser.getId(), itemDto);
 
         bookItemRequestDto = BookItemRequestDto.builder()
-                .start(LocalDateTime.now().plusNanos(1))
-                .end(LocalDateTime.now().plusNanos(2))
+                .start(now().plus(1, ChronoUnit.MICROS))
+                .end(now().plus(2, ChronoUnit.MICROS))
                 .itemId(itemDtoFromDB.getId())
                 .build();
         secondBookItemRequestDto = BookItemRequestDto.builder()
-                .start(LocalDateTime.now().plusHours(3))
-                .end(LocalDateTime.now().plusHours(4))
+                .start(now().plusHours(3))
+                .end(now().plusHours(4))
                 .itemId(itemDtoFromDB.getId())
                 .build();
     }
 
+    @Test
+    void getBookingsByCursorTest() {
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1);
+        for (int i = 0; i < 5; i++) {
+            bookingService.addBooking(secondTestUser.getId(), BookItemRequestDto.builder()
+                    .start(start.plusHours(i))
+                    .end(start.plusHours(i).plusMinutes(30))
+                    .itemId(itemDtoFromDB.getId())
+                    .build());
+        }
+        List<Long> expected = bookingService.getBooking("ALL", secondTestUser.getId(), 0, 10).stream()
+                .map(BookingDto::getId)
+                .collect(Collectors.toList());
+
+        List<Long> bookerIds = new ArrayList<>();
+        List<Long> ownerIds = new ArrayList<>();
+        BookingCursor bookerCursor = null;
+        BookingCursor ownerCursor = null;
+        for (int page = 0; page < 3; page++) {
+            List<BookingDto> bookerPage = bookingService.getBookingAfter("ALL", secondTestUser.getId(),
+                    bookerCursor, 2);
+            List<BookingDto> ownerPage = bookingService.ownerItemsBookingListsAfter("FUTURE", testUser.getId(),
+                    ownerCursor, 2);
+            bookerPage.forEach(booking -> bookerIds.add(booking.getId()));
+            ownerPage.forEach(booking -> ownerIds.add(booking.getId()));
+            bookerCursor = BookingCursor.decode(BookingCursor.after(bookerPage.get(bookerPage.size() - 1)).encode());
+            ownerCursor = BookingCursor.after(ownerPage.get(ownerPage.size() - 1));
+        }
+
+        assertThat(expected, hasSize(5));
+        assertThat(bookerIds, equalTo(expected));
+        assertThat(ownerIds, equalTo(expected));
+        assertThat(bookingService.getBookingAfter("ALL", secondTestUser.getId(), bookerCursor, 2), empty());
+    }
+
     @Test
     void createBookingTest() {
         BookingDto bookingDtoFromDB = bookingService.addBooking(secondTestUser.getId(), bookItemRequestDto);
@@ -209,8 +248,8 @@ public class BookingServiceDBTest {
     @Test
     void getAllBookingsCurrentStateTest() {
         BookItemRequestDto bookingDto = BookItemRequestDto.builder()
-                .start(LocalDateTime.now().minusHours(1))
-                .end(LocalDateTime.now().plusHours(2))
+                .start(now().minusHours(1))
+                .end(now().plusHours(2))
                 .itemId(itemDtoFromDB.getId())
                 .build();
         List<BookItemRequestDto> bookingDtos = List.of(bookingDto);
@@ -231,8 +270,8 @@ public class BookingServiceDBTest {
     @Test
     void getAllBookingsFutureStateTest() {
         BookItemRequestDto bookingDto = BookItemRequestDto.builder()
-                .start(LocalDateTime.now().plusHours(1))
-                .end(LocalDateTime.now().plusHours(2))
+                .start(now().plusHours(1))
+                .end(now().plusHours(2))
                 .itemId(itemDtoFromDB.getId())
                 .build();
         List<BookItemRequestDto> bookingDtos = List.of(bookingDto);
@@ -253,8 +292,8 @@ public class BookingServiceDBTest {
     @Test
     void getAllBookingsPastStateTest() {
         BookItemRequestDto bookingDto = BookItemRequestDto.builder()
-                .start(LocalDateTime.now().minusHours(2))
-                .end(LocalDateTime.now().minusHours(1))
+                .start(now().minusHours(2))
+                .end(now().minusHours(1))
                 .itemId(itemDtoFromDB.getId())
                 .build();
         List<BookItemRequestDto> bookingDtos = List.of(bookingDto);
@@ -276,8 +315,8 @@ public class BookingServiceDBTest {
     @Test
     void getAllOwnerBookingsFutureStateTest() {
         BookItemRequestDto bookingDto = BookItemRequestDto.builder()
-                .start(LocalDateTime.now().plusHours(1))
-                .end(LocalDateTime.now().plusHours(2))
+                .start(now().plusHours(1))
+                .end(now().plusHours(2))
                 .itemId(itemDtoFromDB.getId())
                 .build();
         List<BookItemRequestDto> bookingDtos = List.of(bookingDto);
@@ -299,8 +338,8 @@ public class BookingServiceDBTest {
     @Test
     void getAllOwnerBookingsPastStateTest() {
         BookItemRequestDto bookingDto = BookItemRequestDto.builder()
-                .start(LocalDateTime.now().minusHours(2))
-                .end(LocalDateTime.now().minusHours(1))
+                .start(now().minusHours(2))
+                .end(now().minusHours(1))
                 .itemId(itemDtoFromDB.getId())
                 .build();
         List<BookItemRequestDto> bookingDtos = List.of(bookingDto);
@@ -323,8 +362,8 @@ public class BookingServiceDBTest {
     @Test
     void createBookingItemStartLaterThanFinishTest() {
         BookItemRequestDto bookingDto = BookItemRequestDto.builder()
-                .start(LocalDateTime.now().plusHours(2))
-                .end(LocalDateTime.now().plusHours(1))
+                .start(now().plusHours(2))
+                .end(now().plusHours(1))
                 .itemId(itemDtoFromDB.getId())
                 .build();
 
@@ -342,4 +381,9 @@ public class BookingServiceDBTest {
         assertThat(booking.getItem().getId(), equalTo(item.getId()));
         assertThat(booking.getItem().getName(), equalTo(item.getName()));
     }
-}
\ No newline at end of file
+
+    // Списки читаются из базы, а H2 хранит время с точностью до микросекунд.
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
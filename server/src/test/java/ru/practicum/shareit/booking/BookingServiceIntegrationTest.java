@@ -71,6 +71,69 @@ public class BookingServiceIntegrationTest {
         test(createdBooking, BookingStatus.WAITING, createdBooker, itemDto);
     }
 
+    @Test
+    void overlappingBooking_mustBeFail() {
+        UserDto createdOwner = userService.addUser(owner);
+        UserDto createdBooker = userService.addUser(booker);
+        ItemDto itemDto = itemService.addItem(createdOwner.getId(), itemDtoToCreate);
+        bookingService.addBooking(createdBooker.getId(), bookingToCreate);
+        BookItemRequestDto overlapping = new BookItemRequestDto(
+                itemDto.getId(),
+                bookingToCreate.getStart().plusMinutes(30),
+                bookingToCreate.getEnd().plusMinutes(30)
+        );
+
+        Exception exception = assertThrows(ValidationException.class, ()
+                -> bookingService.addBooking(createdBooker.getId(), overlapping));
+        assertEquals("Предмет с id уже забронирован на эти даты " + itemDto.getId(), exception.getMessage());
+    }
+
+    @Test
+    void bookingAfterRejected_mustBeCreated() {
+        UserDto createdOwner = userService.addUser(owner);
+        UserDto createdBooker = userService.addUser(booker);
+        itemService.addItem(createdOwner.getId(), itemDtoToCreate);
+        BookingDto rejected = bookingService.addBooking(createdBooker.getId(), bookingToCreate);
+        bookingService.approve(createdOwner.getId(), rejected.getId(), false);
+
+        BookingDto created = bookingService.addBooking(createdBooker.getId(), bookingToCreate);
+
+        assertThat(created.getStatus(), equalTo(BookingStatus.WAITING));
+    }
+
+    @Test
+    void batchImport_mustCreateItemsAndBookings() {
+        UserDto createdOwner = userService.addUser(owner);
+        UserDto createdBooker = userService.addUser(booker);
+        List<ItemDto> items = itemService.addItems(createdOwner.getId(), List.of(itemDtoToCreate,
+                ItemDto.builder().name("secondItem").description("secondDescription").available(true).build()));
+        List<BookItemRequestDto> bookings = List.of(
+                new BookItemRequestDto(items.get(0).getId(), bookingToCreate.getStart(), bookingToCreate.getEnd()),
+                new BookItemRequestDto(items.get(1).getId(), bookingToCreate.getStart(), bookingToCreate.getEnd()),
+                new BookItemRequestDto(items.get(0).getId(), bookingToCreate.getEnd(), bookingToCreate.getEnd().plusHours(1)));
+
+        List<BookingDto> created = bookingService.addBookings(createdBooker.getId(), bookings);
+
+        assertThat(items, hasSize(2));
+        assertThat(created, hasSize(3));
+        assertThat(bookingService.getBooking("ALL", createdBooker.getId(), 0, 10), hasSize(3));
+    }
+
+    @Test
+    void batchImportWithOverlap_mustBeRolledBack() {
+        UserDto createdOwner = userService.addUser(owner);
+        UserDto createdBooker = userService.addUser(booker);
+        ItemDto itemDto = itemService.addItem(createdOwner.getId(), itemDtoToCreate);
+        List<BookItemRequestDto> bookings = List.of(bookingToCreate, new BookItemRequestDto(itemDto.getId(),
+                bookingToCreate.getStart().plusMinutes(30), bookingToCreate.getEnd().plusMinutes(30)));
+
+        assertThrows(ValidationException.class, () -> bookingService.addBookings(createdBooker.getId(), bookings));
+
+        assertThat(bookingService.getBooking("ALL", createdBooker.getId(), 0, 10), hasSize(0));
+        assertThat(bookingService.addBooking(createdBooker.getId(), bookingToCreate).getStatus(),
+                equalTo(BookingStatus.WAITING));
+    }
+
     @Test
     void ownerTryBeBooker_mustBeFail() {
         UserDto createdOwner = userService.addUser(owner);
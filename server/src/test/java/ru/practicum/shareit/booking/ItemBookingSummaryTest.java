@@ -0,0 +1,170 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dao.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryJobs;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemsDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest(
+        properties = {"db.name=test", "shareit.booking-summary.sweep-batch-size=2"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class ItemBookingSummaryTest {
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final ItemBookingSummaryService summaryService;
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final ItemBookingSummaryJobs summaryJobs;
+    private final LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1);
+    private UserDto owner;
+    private UserDto booker;
+    private ItemDto item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.addUser(UserDto.builder().name("Ash").email("ash@summary.com").build());
+        booker = userService.addUser(UserDto.builder().name("Misty").email("misty@summary.com").build());
+        item = itemService.addItem(owner.getId(), ItemDto.builder()
+                .name("Poke Ball")
+                .description("The Poke Ball is a sphere")
+                .available(true)
+                .build());
+    }
+
+    @Test
+    void approveShouldWriteNextBookingToSummary() {
+        BookingDto waiting = book(start, start.plusHours(1));
+        assertTrue(summaryRepository.findById(item.getId()).isEmpty());
+
+        bookingService.approve(owner.getId(), waiting.getId(), true);
+
+        ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertNull(summary.getLastBookingId());
+        assertEquals(waiting.getId(), summary.getNextBookingId());
+        assertEquals(booker.getId(), summary.getNextBookerId());
+        assertEquals(start, summary.getNextStart());
+        ItemsDto itemWithBookings = itemService.getItem(item.getId(), owner.getId());
+        assertEquals(waiting.getId(), itemWithBookings.getNextBooking().getId());
+        assertNull(itemWithBookings.getLastBooking());
+    }
+
+    @Test
+    void rejectedBookingShouldNotReachSummary() {
+        BookingDto waiting = book(start, start.plusHours(1));
+
+        bookingService.approve(owner.getId(), waiting.getId(), false);
+
+        assertTrue(summaryRepository.findById(item.getId()).isEmpty());
+    }
+
+    @Test
+    void sweepShouldMoveStartedBookingToLast() {
+        BookingDto first = approved(start, start.plusHours(1));
+        BookingDto second = approved(start.plusHours(2), start.plusHours(3));
+        LocalDateTime afterFirstStart = start.plusMinutes(30);
+
+        assertEquals(1, summaryJobs.sweep(afterFirstStart));
+
+        ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertEquals(first.getId(), summary.getLastBookingId());
+        assertEquals(second.getId(), summary.getNextBookingId());
+        assertEquals(0, summaryJobs.sweep(afterFirstStart));
+    }
+
+    @Test
+    void sweepShouldWalkStartedItemsInIdChunks() {
+        approved(start, start.plusHours(1));
+        for (int i = 0; i < 4; i++) {
+            item = itemService.addItem(owner.getId(), ItemDto.builder()
+                    .name("Great Ball " + i)
+                    .description("A good, high-performance Poke Ball")
+                    .available(true)
+                    .build());
+            approved(start, start.plusHours(1));
+        }
+        LocalDateTime afterStart = start.plusMinutes(30);
+
+        List<Long> firstChunk = summaryService.sweep(afterStart, 0L, 2);
+        assertEquals(2, firstChunk.size());
+        assertTrue(firstChunk.get(0) < firstChunk.get(1));
+        assertEquals(3, summaryJobs.sweep(afterStart));
+        assertEquals(0, summaryJobs.sweep(afterStart));
+    }
+
+    @Test
+    void readShouldNotReturnStartedBookingAsNext() {
+        BookingDto first = approved(start, start.plusHours(1));
+
+        List<BookingShortDto> bookings = summaryService.findLastAndNext(List.of(item.getId()), start.plusMinutes(30))
+                .get(item.getId());
+
+        assertEquals(1, bookings.size());
+        assertEquals(first.getId(), bookings.get(0).getId());
+        assertTrue(bookings.get(0).getStart().isBefore(start.plusMinutes(30)));
+        assertEquals(start, summaryRepository.findById(item.getId()).orElseThrow().getNextStart());
+    }
+
+    @Test
+    void consistencyCheckShouldRepairSummary() {
+        BookingDto booking = approved(start, start.plusHours(1));
+        ItemBookingSummary corrupted = summaryRepository.findById(item.getId()).orElseThrow();
+        corrupted.setNextBookingId(null);
+        corrupted.setNextStart(null);
+        summaryRepository.saveAndFlush(corrupted);
+
+        assertEquals(1, summaryJobs.checkConsistency());
+
+        assertEquals(booking.getId(), summaryRepository.findById(item.getId()).orElseThrow().getNextBookingId());
+        assertEquals(0, summaryJobs.checkConsistency());
+    }
+
+    @Test
+    void consistencyCheckShouldRemoveOrphanRows() {
+        summaryRepository.saveAndFlush(ItemBookingSummary.builder()
+                .itemId(item.getId())
+                .nextBookingId(Long.MAX_VALUE)
+                .nextStart(start)
+                .build());
+
+        assertEquals(1, summaryService.verify(List.of(item.getId()), LocalDateTime.now()));
+
+        assertTrue(summaryRepository.findById(item.getId()).isEmpty());
+    }
+
+    private BookingDto approved(LocalDateTime from, LocalDateTime to) {
+        return bookingService.approve(owner.getId(), book(from, to).getId(), true);
+    }
+
+    private BookingDto book(LocalDateTime from, LocalDateTime to) {
+        return bookingService.addBooking(booker.getId(), BookItemRequestDto.builder()
+                .start(from)
+                .end(to)
+                .itemId(item.getId())
+                .build());
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class EntityCacheConfigTest {
+    private final UserService userService;
+    private final ItemService itemService;
+    private final MeterRegistry meterRegistry;
+
+    @Test
+    void repeatedUserReadsShouldHitCache() {
+        UserDto user = userService.addUser(new UserDto(null, "ash@gmail.com", "Ash"));
+        double hitsBefore = hits(User.class);
+
+        userService.getUser(user.getId());
+        userService.getUser(user.getId());
+
+        assertTrue(hits(User.class) > hitsBefore);
+    }
+
+    @Test
+    void updatedAndDeletedUserShouldNotBeServedFromCache() {
+        UserDto user = userService.addUser(new UserDto(null, "ash@gmail.com", "Ash"));
+        userService.getUser(user.getId());
+
+        userService.updateUser(new UserDto(user.getId(), null, "Ash Ketchum"));
+        assertEquals("Ash Ketchum", userService.getUser(user.getId()).getName());
+
+        userService.deleteUser(user.getId());
+        assertThrows(ObjectNotFoundException.class, () -> userService.getUser(user.getId()));
+    }
+
+    @Test
+    void updatedItemShouldNotBeServedFromCache() {
+        UserDto owner = userService.addUser(new UserDto(null, "ash@gmail.com", "Ash"));
+        ItemDto item = itemService.addItem(owner.getId(),
+                new ItemDto(null, "Poke Ball", "The Poke Ball is a sphere", true, null));
+        itemService.getItem(item.getId(), owner.getId());
+        itemService.getItemsOwner(owner.getId(), 0, 10);
+
+        itemService.update(owner.getId(), item.getId(), new ItemDto(null, "Ultra Ball", null, null, null));
+
+        assertEquals("Ultra Ball", itemService.getItem(item.getId(), owner.getId()).getName());
+        assertEquals("Ultra Ball", itemService.getItemsOwner(owner.getId(), 0, 10).get(0).getName());
+        assertTrue(hits(Item.class) > 0);
+    }
+
+    private double hits(Class<?> entity) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", entity.getName())
+                .tag("result", "hit")
+                .functionCounter()
+                .count();
+    }
+}
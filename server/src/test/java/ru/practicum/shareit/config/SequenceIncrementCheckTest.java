@@ -0,0 +1,36 @@
+package ru.practicum.shareit.config;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class SequenceIncrementCheckTest {
+    private final SequenceIncrementCheck check;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Test
+    void schemaSequencesShouldMatchAllocationSize() {
+        assertDoesNotThrow(check::verify);
+    }
+
+    @Test
+    void changedIncrementShouldFailCheck() {
+        jdbcTemplate.execute("alter sequence items_seq increment by 1");
+        try {
+            IllegalStateException e = assertThrows(IllegalStateException.class, check::verify);
+            assertTrue(e.getMessage().contains("items_seq INCREMENT BY 1"), e.getMessage());
+        } finally {
+            jdbcTemplate.execute("alter sequence items_seq increment by 50");
+        }
+    }
+}
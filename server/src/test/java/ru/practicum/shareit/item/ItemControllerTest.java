@@ -20,6 +20,7 @@ import java.util.List;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.BDDMockito.given;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -62,6 +63,21 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.available", is(true)));
     }
 
+    @Test
+    public void testCreateItems() throws Exception {
+        ItemDto itemDto = new ItemDto(null, "Poke Ball", "The Poke Ball is a sphere", true, null);
+        ItemDto createdItem = new ItemDto(1L, "Poke Ball", "The Poke Ball is a sphere", true, null);
+
+        given(itemService.addItems(anyLong(), anyList())).willReturn(List.of(createdItem));
+        mockMvc.perform(post("/items/batch")
+                        .header(Headers.IdOwner, 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsString(List.of(itemDto))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[0].name", is("Poke Ball")));
+    }
+
     @Test
     public void testGetItem() throws Exception {
         Long itemId = 1L;
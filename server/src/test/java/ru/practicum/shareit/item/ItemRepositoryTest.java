@@ -10,6 +10,8 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
@@ -64,8 +66,8 @@ public class ItemRepositoryTest {
     public void testGetAllItems_withBlankText_shouldReturnEmptyList() {
         String text = "";
         Pageable page = PageRequest.of(0, 10);
-        List<Item> expectedResult = Collections.emptyList();
-        List<Item> actualResult = itemRepository.getItemsText(text, page);
+        List<ItemDto> expectedResult = Collections.emptyList();
+        List<ItemDto> actualResult = itemRepository.getItemsText(text, page);
         assertEquals(expectedResult, actualResult);
     }
 
@@ -137,16 +139,19 @@ public class ItemRepositoryTest {
     void search() {
         entityManager.persist(item);
         entityManager.flush();
-        List<Item> found = itemRepository.getItemsText("The Poke Ball is a sphere", PageRequest.of(0, 1));
+        List<ItemDto> found = itemRepository.getItemsText("The Poke Ball is a sphere", PageRequest.of(0, 1));
 
-        Assertions.assertNotNull(found);
-        Assertions.assertEquals(1, found.size());
-        Assertions.assertEquals(1L, found.get(0).getId());
-        Assertions.assertEquals(item.getName(), found.get(0).getName());
-        Assertions.assertEquals(item.getDescription(), found.get(0).getDescription());
-        Assertions.assertTrue(found.get(0).getAvailable());
-        Assertions.assertNotNull(found.get(0).getRequestId());
-        Assertions.assertEquals(user.getName(), found.get(0).getOwner().getName());
-        Assertions.assertEquals(user.getEmail(), found.get(0).getOwner().getEmail());
+        Assertions.assertEquals(List.of(ItemMapper.toItemDto(item)), found);
+    }
+
+    @Test
+    void findProjectionsByIdsAndRequestIds() {
+        entityManager.persist(item);
+        entityManager.flush();
+        entityManager.clear();
+
+        Assertions.assertEquals(List.of(ItemMapper.toItemDto(item)), itemRepository.findItemDtosByIdIn(List.of(1L, 2L)));
+        Assertions.assertEquals(List.of(ItemMapper.toItemDto(item)), itemRepository.findByRequestIdIn(List.of(1L)));
+        Assertions.assertTrue(itemRepository.findByRequestIdIn(List.of(2L)).isEmpty());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+
+class ItemSearchIndexTest {
+    private final ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
+    private final ItemSearchIndex index = new ItemSearchIndex(itemRepository, true);
+
+    @Test
+    void search_matchesWordPrefixesCaseInsensitive() {
+        index.index(item(1L, "Аккумуляторная дрель", "Дрель + аккумулятор", true));
+        index.index(item(2L, "Отвертка", "Аккумуляторная отвертка", true));
+        index.index(item(3L, "Стол", "Деревянный", true));
+
+        assertEquals(List.of(1L, 2L), index.search("аккУМУляторная", PageRequest.of(0, 10)));
+        assertEquals(List.of(1L), index.search("дрел", PageRequest.of(0, 10)));
+        assertEquals(List.of(2L), index.search("аккумуляторная отв", PageRequest.of(0, 10)));
+        assertTrue(index.search("диван", PageRequest.of(0, 10)).isEmpty());
+        assertTrue(index.search("  ", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void index_replacesWordsAndDropsUnavailableItems() {
+        index.index(item(1L, "Дрель", "Ударная", true));
+        index.index(item(1L, "Перфоратор", "Ударный", true));
+
+        assertTrue(index.search("дрель", PageRequest.of(0, 10)).isEmpty());
+        assertEquals(List.of(1L), index.search("перфоратор", PageRequest.of(0, 10)));
+
+        index.index(item(1L, "Перфоратор", "Ударный", false));
+
+        assertTrue(index.search("перфоратор", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    /**
+     * Случайные вставки и изменения вещей в произвольном порядке id, с освобождением и повторным
+     * использованием номеров слов, сверяются с перебором по последним версиям вещей.
+     */
+    @Test
+    void index_matchesBruteForceAfterRandomUpdates() {
+        String[] words = {"дрель", "дрова", "пила", "палатка", "лодка", "лопата"};
+        Random random = new Random(42);
+        Map<Long, Item> latest = new HashMap<>();
+        for (int step = 0; step < 3000; step++) {
+            long id = 1 + random.nextInt(200);
+            String name = words[random.nextInt(words.length)] + " " + random.nextInt(50);
+            String description = random.nextBoolean() ? words[random.nextInt(words.length)] : "без слов";
+            Item item = item(id, name, description, random.nextInt(5) != 0);
+            latest.put(id, item);
+            index.index(item);
+        }
+
+        for (String query : List.of("дрель", "др", "п", "лодка 1", "без", "7", "палатка пила")) {
+            String[] queryWords = query.split(" ");
+            List<Long> expected = latest.values().stream()
+                    .filter(Item::getAvailable)
+                    .filter(item -> Arrays.stream(queryWords).allMatch(word ->
+                            Arrays.stream((item.getName() + " " + item.getDescription()).split(" "))
+                                    .anyMatch(token -> token.startsWith(word))))
+                    .map(Item::getId)
+                    .sorted()
+                    .collect(Collectors.toList());
+            assertEquals(expected, index.search(query, PageRequest.of(0, 1000)), query);
+        }
+    }
+
+    @Test
+    void search_returnsRequestedPage() {
+        for (long id = 1; id <= 25; id++) {
+            index.index(item(id, "Мяч " + id, "Футбольный", true));
+        }
+
+        assertEquals(List.of(11L, 12L, 13L, 14L, 15L), index.search("мяч", PageRequest.of(2, 5)));
+        assertEquals(List.of(21L, 22L, 23L, 24L, 25L), index.search("футбольный", PageRequest.of(2, 10)));
+    }
+
+    @Test
+    void build_loadsItemsFromRepositoryInBatches() {
+        Pageable first = PageRequest.of(0, 1000, Sort.by("id"));
+        Mockito.when(itemRepository.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(item(1L, "Дрель", "Простая", true),
+                        item(2L, "Дрель", "Сломана", false)), first, 2));
+
+        index.build();
+
+        assertEquals(List.of(1L), index.search("дрель", PageRequest.of(0, 10)));
+        Mockito.verify(itemRepository).findAll(first);
+    }
+
+    private static Item item(Long id, String name, String description, boolean available) {
+        return new Item(id, name, description, available, null, null);
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Поиск через индекс должен отдавать те же страницы, что и запрос к БД, в том числе
+ * при from, не кратном size.
+ */
+@SpringBootTest(
+        properties = {"db.name=test", "shareit.search.index.enabled=true"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class ItemSearchPagingTest {
+    private final UserService userService;
+    private final ItemService itemService;
+    private final ItemRepository itemRepository;
+    private final ItemSearchIndex searchIndex;
+
+    @Test
+    void indexPagesMatchDatabasePages() {
+        UserDto owner = userService.addUser(UserDto.builder().name("Ash").email("ash@paging.com").build());
+        for (int i = 0; i < 13; i++) {
+            itemService.addItem(owner.getId(), item("Drill " + i, i % 4 != 3));
+            itemService.addItem(owner.getId(), item("Saw " + i, true));
+        }
+        assertTrue(searchIndex.isEnabled());
+
+        for (int size : new int[]{1, 3, 4, 20}) {
+            for (int from = 0; from <= 12; from++) {
+                List<Long> database = itemRepository.getItemsText("drill", PageRequest.of(from / size, size))
+                        .stream()
+                        .map(ItemDto::getId)
+                        .collect(toList());
+                List<Long> index = itemService.getItemsText("drill", from, size).stream()
+                        .map(ItemDto::getId)
+                        .collect(toList());
+                assertEquals(database, index, "from=" + from + ", size=" + size);
+            }
+        }
+    }
+
+    private static ItemDto item(String name, boolean available) {
+        return ItemDto.builder().name(name).description("Rent for a day").available(available).build();
+    }
+}
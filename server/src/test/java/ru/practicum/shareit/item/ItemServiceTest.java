@@ -12,9 +12,13 @@ import org.mockito.quality.Strictness;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import ru.practicum.shareit.booking.dao.BookingRepository;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.shareit.booking.dao.BookingHistoryRepository;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dao.CommentRepository;
@@ -27,12 +31,16 @@ import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.user.dao.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
+import java.math.BigInteger;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -50,7 +58,11 @@ public class ItemServiceTest {
     @Mock
     private CommentRepository commentRepository;
     @Mock
-    private BookingRepository bookingRepository;
+    private BookingHistoryRepository bookingHistoryRepository;
+    @Mock
+    private ItemBookingSummaryService bookingSummaryService;
+    @Mock
+    private ItemSearchIndex searchIndex;
     @Mock
     private CommentDto commentDto;
 
@@ -127,8 +139,8 @@ public class ItemServiceTest {
                         null)));
         Mockito.when(commentRepository.findByItemIn(Mockito.anyList(),
                 Mockito.any(Sort.class))).thenReturn(Collections.emptyList());
-        Mockito.when(bookingRepository.findByItemInAndStatus(Mockito.anyList(),
-                eq(BookingStatus.APPROVED), Mockito.any(Sort.class))).thenReturn(Collections.emptyList());
+        Mockito.when(bookingSummaryService.findLastAndNext(Mockito.anyList(),
+                Mockito.any(LocalDateTime.class))).thenReturn(Collections.emptyMap());
 
         ItemsDto result = itemService.getItem(itemId, userId);
 
@@ -237,7 +249,7 @@ public class ItemServiceTest {
                 new Comment(1L, "My 1st Poke Ball", item, owner, LocalDateTime.now()),
                 new Comment(2L, "Very compact", item, owner, LocalDateTime.now())
         );
-        List<Booking> bookings = List.of(
+        List<BookingShortDto> bookings = Stream.of(
                 new Booking(1L,
                         LocalDateTime.now().minusDays(2),
                         LocalDateTime.now().minusDays(1),
@@ -250,7 +262,7 @@ public class ItemServiceTest {
                         item,
                         owner,
                         BookingStatus.APPROVED)
-        );
+        ).map(BookingMapper::toBookingShortDto).collect(Collectors.toList());
         LocalDateTime now = LocalDateTime.now();
 
         ItemsDto result = itemService.addBookingAndComment(item, 1L, comments, bookings, now);
@@ -357,9 +369,9 @@ public class ItemServiceTest {
     public void testGetAllItemsByLike_withBlankText() {
         String text = "";
         Pageable page = PageRequest.of(0, 10);
-        List<Item> expectedResult = Collections.emptyList();
+        List<ItemDto> expectedResult = Collections.emptyList();
 
-        List<Item> actualResult = itemRepository.getItemsText(text, page);
+        List<ItemDto> actualResult = itemRepository.getItemsText(text, page);
 
         assertEquals(expectedResult, actualResult);
     }
@@ -370,24 +382,21 @@ public class ItemServiceTest {
         int from = 0;
         int size = 10;
         Pageable page = PageRequest.of(from / size, size);
-        List<Item> itemList = Arrays.asList(
-                new Item(1L,
+        List<ItemDto> itemList = Arrays.asList(
+                new ItemDto(1L,
                         "Poke Ball",
                         "The Poke Ball is a sphere",
                         true,
-                        null,
                         null),
-                new Item(2L,
+                new ItemDto(2L,
                         "Great Bal",
                         " is a type of Poke Ball that has a 50% higher chance to successfully " +
                                 "catch a Pokémon than that of a regular Poké Ball",
                         true,
-                        null,
                         null),
-                new Item(3L, "Ultra Ball",
+                new ItemDto(3L, "Ultra Ball",
                         "is a Poke Ball that has a 2x catch rate modifier",
                         true,
-                        null,
                         null)
         );
         Mockito.when(itemRepository.getItemsText(eq(searchText), eq(page))).thenReturn(itemList);
@@ -409,6 +418,41 @@ public class ItemServiceTest {
         assertNull(result.get(1).getRequestId());
     }
 
+    @Test
+    public void testGetItems_trigramSearch() {
+        ReflectionTestUtils.setField(itemService, "trigramSearch", true);
+        Pageable page = PageRequest.of(0, 10);
+        Item item = new Item(1L,
+                "Poke Ball",
+                "The Poke Ball is a sphere",
+                true,
+                null,
+                null);
+        Mockito.when(itemRepository.searchAvailableRankedIds(eq("poke"), eq(page)))
+                .thenReturn(List.of(BigInteger.ONE));
+        Mockito.when(itemRepository.findItemDtosByIdIn(List.of(1L))).thenReturn(List.of(ItemMapper.toItemDto(item)));
+
+        List<ItemDto> result = itemService.getItemsText("poke", 0, 10);
+
+        assertEquals(List.of(ItemMapper.toItemDto(item)), result);
+        Mockito.verify(itemRepository, Mockito.never()).getItemsText(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    public void testGetItems_inMemoryIndex() {
+        Item ball = new Item(1L, "Poke Ball", "The Poke Ball is a sphere", true, null, null);
+        Item hidden = new Item(2L, "Great Ball", "Hidden after indexing", false, null, null);
+        Mockito.when(searchIndex.isEnabled()).thenReturn(true);
+        Mockito.when(searchIndex.search("ball", PageRequest.of(0, 10))).thenReturn(List.of(2L, 1L));
+        Mockito.when(itemRepository.findItemDtosByIdIn(List.of(2L, 1L)))
+                .thenReturn(List.of(ItemMapper.toItemDto(ball), ItemMapper.toItemDto(hidden)));
+
+        List<ItemDto> result = itemService.getItemsText("ball", 0, 10);
+
+        assertEquals(List.of(ItemMapper.toItemDto(ball)), result);
+        Mockito.verify(itemRepository, Mockito.never()).getItemsText(anyString(), any(Pageable.class));
+    }
+
     @Test
     public void getItems_withBlankText() {
         String text = "";
@@ -442,10 +486,10 @@ public class ItemServiceTest {
         item.setId(itemId);
         when(userRepository.findById(authorId)).thenReturn(Optional.of(user));
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(bookingRepository.findBookingsByItem(item,
+        when(bookingHistoryRepository.existsFinishedBooking(itemId,
                 BookingStatus.APPROVED,
                 authorId,
-                LocalDateTime.now())).thenReturn(Collections.emptyList());
+                LocalDateTime.now())).thenReturn(false);
 
         assertThrows(ValidationException.class, () -> {
             itemService.addComment(authorId, itemId, commentDto);
@@ -528,11 +572,6 @@ public class ItemServiceTest {
                 true,
                 user,
                 null);
-        Booking bookingLast = new Booking(1L, LocalDateTime.now().minusDays(2),
-                LocalDateTime.now().minusDays(1),
-                item,
-                user,
-                BookingStatus.APPROVED);
         Comment comment1 = new Comment(1L,
                 "Tets comment",
                 item,
@@ -543,10 +582,10 @@ public class ItemServiceTest {
 
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
-        when(bookingRepository.findBookingsByItem(any(),
+        when(bookingHistoryRepository.existsFinishedBooking(anyLong(),
                 eq(BookingStatus.APPROVED),
                 anyLong(),
-                any(LocalDateTime.class))).thenReturn(List.of(bookingLast));
+                any(LocalDateTime.class))).thenReturn(true);
         when(commentRepository.save(any())).thenReturn(comment1);
 
         CommentDto commentDtoOutputAfter = itemService.addComment(1L, 1L, commentDto1);
@@ -6,10 +6,11 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.request.dao.ItemRequestRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
@@ -87,11 +88,13 @@ public class RequestRepositoryTest {
         entityManager.flush();
         entityManager.persist(user);
 
-        Page<ItemRequest> requests = requestRepository
+        List<ItemRequestDto> requests = requestRepository
                 .findAllByRequestorIdNot(user.getId(), PageRequest.of(0, 1));
 
-        Assertions.assertEquals(1, requests.getTotalPages());
-        Assertions.assertEquals(1L, requests.getTotalElements());
+        Assertions.assertEquals(1, requests.size());
+        Assertions.assertEquals(anotherRequest.getId(), requests.get(0).getId());
+        Assertions.assertEquals(anotherRequest.getDescription(), requests.get(0).getDescription());
+        Assertions.assertEquals(UserMapper.toUserDto(anotherUser), requests.get(0).getRequestor());
     }
 
     @Test
@@ -10,7 +10,6 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -139,19 +138,13 @@ public class RequestServiceUnitTest {
         user.setId(userId);
         when(mockUserRepository.existsById(userId)).thenReturn(true);
 
-        List<ItemRequest> itemRequests = new ArrayList<>();
-        ItemRequest itemRequest = new ItemRequest();
-        itemRequest.setId(1L);
-        User requestor = new User();
-        requestor.setId(2L);
-        itemRequest.setRequestor(requestor);
-        itemRequests.add(itemRequest);
+        List<ItemRequestDto> itemRequests = new ArrayList<>();
+        itemRequests.add(new ItemRequestDto(1L, null, 2L, null, null, null));
         Sort sort = Sort.by(Sort.Direction.DESC, "created");
         Pageable page = PageRequest.of(from / size, size, sort);
         when(mockItemRequestRepository.findAllByRequestorIdNot(userId,
                 page))
-                .thenReturn(new PageImpl<>(itemRequests));
-        when(mockUserRepository.findById(requestor.getId())).thenReturn(Optional.of(requestor));
+                .thenReturn(itemRequests);
         List<ItemRequestDto> expectedItemRequestDtoList = new ArrayList<>();
         ItemRequestDto itemRequestDto = new ItemRequestDto();
         itemRequestDto.setId(1L);